@@ -0,0 +1,187 @@
+package com.wms.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fair admission gate in front of the application DataSource. A thread needs one of {@code permits} permits
+ * to open a connection and returns it when the connection is closed, so waiting
+ * requests queue here in arrival order instead of all polling the pool. With virtual threads thousands of
+ * requests can be parked at once; they wait at most {@code max-wait-ms} and are turned away right away once
+ * {@code max-queue} are waiting, which {@link com.wms.exception.GlobalExceptionHandler} answers with 503.
+ * <p>
+ * Connections opened while the thread already holds one (e.g. a REQUIRES_NEW transaction) ride on the outer
+ * permit, so nested work cannot deadlock on the gate. They still take a second pool connection, so permits must
+ * stay below the pool size: by default {@code permits = maximum-pool-size - nested-headroom}, leaving
+ * {@code nested-headroom} connections that only nested work can use. Nested transactions open no further
+ * connections, so one free connection is enough for them to make progress; the default of 2 covers the two
+ * nested paths (ATP ledger write-back and document number leases) without them waiting on each other.
+ */
+@Component
+public class JdbcAdmissionGate implements BeanPostProcessor, MeterBinder {
+
+    private final boolean enabled;
+    private final Semaphore permits;
+    private final long maxWaitMs;
+    private final int maxQueue;
+    private final ThreadLocal<int[]> openConnections = ThreadLocal.withInitial(() -> new int[1]);
+    private final AtomicLong rejected = new AtomicLong();
+
+    public JdbcAdmissionGate(
+            @Value("${app.jdbc.admission.enabled:true}") boolean enabled,
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize,
+            @Value("${app.jdbc.admission.nested-headroom:2}") int nestedHeadroom,
+            @Value("${app.jdbc.admission.max-wait-ms:10000}") long maxWaitMs,
+            @Value("${app.jdbc.admission.max-queue:10000}") int maxQueue) {
+        int permits = poolSize - nestedHeadroom;
+        if (nestedHeadroom < 1 || permits < 1) {
+            throw new IllegalArgumentException("app.jdbc.admission.nested-headroom must be at least 1 and below "
+                    + "the pool size (" + poolSize + ")");
+        }
+        this.enabled = enabled;
+        this.permits = new Semaphore(permits, true);
+        this.maxWaitMs = maxWaitMs;
+        this.maxQueue = maxQueue;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (enabled && bean instanceof DataSource dataSource && !(bean instanceof GatedDataSource)) {
+            return new GatedDataSource(dataSource);
+        }
+        return bean;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("wms.jdbc.admission.waiting", permits, Semaphore::getQueueLength)
+                .description("Threads waiting for a JDBC admission permit")
+                .register(registry);
+        Gauge.builder("wms.jdbc.admission.available", permits, Semaphore::availablePermits)
+                .description("Free JDBC admission permits")
+                .register(registry);
+        FunctionCounter.builder("wms.jdbc.admission.rejected", rejected, AtomicLong::get)
+                .description("Connection requests turned away because the queue was full or the wait timed out")
+                .register(registry);
+    }
+
+    /**
+     * @return whether the caller took a permit that must be returned on close
+     */
+    boolean acquire() throws SQLException {
+        int[] open = openConnections.get();
+        if (open[0] > 0) {
+            open[0]++;
+            return false;
+        }
+
+        if (permits.availablePermits() == 0 && permits.getQueueLength() >= maxQueue) {
+            rejected.incrementAndGet();
+            throw new SQLTransientConnectionException("JDBC admission queue is full (" + maxQueue + " waiting)");
+        }
+        try {
+            // The timed tryAcquire honours fairness, the untimed one would barge
+            if (!permits.tryAcquire(maxWaitMs, TimeUnit.MILLISECONDS)) {
+                rejected.incrementAndGet();
+                throw new SQLTransientConnectionException(
+                        "Timed out after " + maxWaitMs + " ms waiting for JDBC admission");
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for JDBC admission", ex);
+        }
+        open[0] = 1;
+        return true;
+    }
+
+    void release(boolean permit) {
+        int[] open = openConnections.get();
+        if (open[0] > 0) {
+            open[0]--;
+        }
+        if (open[0] == 0) {
+            openConnections.remove();
+        }
+        if (permit) {
+            permits.release();
+        }
+    }
+
+    private Connection gated(Connection connection, boolean permit) {
+        AtomicBoolean closed = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "close" -> {
+                            // Only the first close returns the connection and the permit
+                            if (!closed.compareAndSet(false, true)) {
+                                return null;
+                            }
+                            try {
+                                connection.close();
+                                return null;
+                            } finally {
+                                release(permit);
+                            }
+                        }
+                        case "isClosed" -> {
+                            return closed.get();
+                        }
+                        default -> {
+                        }
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException ex) {
+                        throw ex.getTargetException();
+                    }
+                });
+    }
+
+    private final class GatedDataSource extends DelegatingDataSource {
+
+        private GatedDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            boolean permit = acquire();
+            try {
+                return gated(super.getConnection(), permit);
+            } catch (SQLException | RuntimeException ex) {
+                release(permit);
+                throw ex;
+            }
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            boolean permit = acquire();
+            try {
+                return gated(super.getConnection(username, password), permit);
+            } catch (SQLException | RuntimeException ex) {
+                release(permit);
+                throw ex;
+            }
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.wms.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// With spring.threads.virtual.enabled, @Async and @Scheduled tasks run on virtual threads as well
+@Configuration
+@EnableScheduling
+@EnableAsync
+public class SchedulingConfig {
+}
@@ -2,15 +2,28 @@ package com.wms.controller;
 
 import com.wms.dto.request.InventoryRequest;
 import com.wms.dto.response.ApiResponse;
+import com.wms.dto.response.CursorPageResponse;
+import com.wms.dto.response.InventoryAsOfResponse;
+import com.wms.dto.response.InventoryImportResponse;
 import com.wms.dto.response.InventoryResponse;
+import com.wms.repository.InventoryQueryRepository.InventoryFilter;
+import com.wms.service.InventoryHistoryService;
 import com.wms.service.InventoryService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.slf4j.MDC;
 
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -19,11 +32,34 @@ import java.util.List;
 public class InventoryController {
 
     private final InventoryService inventoryService;
+    private final InventoryHistoryService inventoryHistoryService;
 
     @GetMapping
-    public ResponseEntity<ApiResponse<List<InventoryResponse>>> getAllInventory() {
-        List<InventoryResponse> response = inventoryService.getAllInventory();
-        return ResponseEntity.ok(ApiResponse.<List<InventoryResponse>>builder()
+    public ResponseEntity<ApiResponse<CursorPageResponse<InventoryResponse>>> getInventoryPage(
+            @RequestParam(required = false) Long warehouseId,
+            @RequestParam(required = false) Long productId,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) Integer availableBelow,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int limit) {
+        CursorPageResponse<InventoryResponse> response = inventoryService.getInventoryPage(
+                new InventoryFilter(warehouseId, productId, category, availableBelow), cursor, limit);
+        return ResponseEntity.ok(ApiResponse.<CursorPageResponse<InventoryResponse>>builder()
+                .success(true)
+                .data(response)
+                .traceId(MDC.get("requestId"))
+                .build());
+    }
+
+    @GetMapping("/as-of")
+    public ResponseEntity<ApiResponse<InventoryAsOfResponse>> getInventoryAsOf(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime ts,
+            @RequestParam(required = false) Long warehouseId,
+            @RequestParam(required = false) Long productId,
+            @RequestParam(required = false) Long locationId) {
+        InventoryAsOfResponse response =
+                inventoryHistoryService.getInventoryAsOf(ts, warehouseId, productId, locationId);
+        return ResponseEntity.ok(ApiResponse.<InventoryAsOfResponse>builder()
                 .success(true)
                 .data(response)
                 .traceId(MDC.get("requestId"))
@@ -84,4 +120,18 @@ public class InventoryController {
                 .traceId(MDC.get("requestId"))
                 .build());
     }
+
+    // Body is streamed straight into the import, it is never buffered as a whole
+    @PostMapping(value = "/import", consumes = {"text/csv", MediaType.TEXT_PLAIN_VALUE})
+    public ResponseEntity<ApiResponse<InventoryImportResponse>> importInventory(HttpServletRequest request)
+            throws IOException {
+        try (Reader csv = new InputStreamReader(request.getInputStream(), StandardCharsets.UTF_8)) {
+            InventoryImportResponse response = inventoryService.importInventory(csv);
+            return ResponseEntity.ok(ApiResponse.<InventoryImportResponse>builder()
+                    .success(true)
+                    .data(response)
+                    .traceId(MDC.get("requestId"))
+                    .build());
+        }
+    }
 }
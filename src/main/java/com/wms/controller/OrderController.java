@@ -1,10 +1,16 @@
 package com.wms.controller;
 
+import com.wms.dto.request.BatchReservationRequest;
+import com.wms.dto.request.OrderIntakeRequest;
 import com.wms.dto.request.OrderItemRequest;
 import com.wms.dto.request.OrderRequest;
 import com.wms.dto.response.ApiResponse;
+import com.wms.dto.response.BatchReservationResponse;
 import com.wms.dto.response.OrderResponse;
+import com.wms.dto.response.WaveResponse;
+import com.wms.service.IdempotencyService;
 import com.wms.service.OrderService;
+import com.wms.service.WaveShippingService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -24,6 +30,8 @@ import java.util.List;
 public class OrderController {
 
     private final OrderService orderService;
+    private final WaveShippingService waveShippingService;
+    private final IdempotencyService idempotencyService;
 
     @PostMapping
     @Operation(summary = "Create order")
@@ -36,6 +44,20 @@ public class OrderController {
                 .build());
     }
 
+    @PostMapping("/intake")
+    @Operation(summary = "Create order with its lines, optionally reserving stock")
+    public ResponseEntity<ApiResponse<OrderResponse>> intakeOrder(
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @Valid @RequestBody OrderIntakeRequest request) {
+        OrderResponse response = idempotencyService.execute(idempotencyKey, "order.intake", request,
+                OrderResponse.class, () -> orderService.intakeOrder(request));
+        return ResponseEntity.ok(ApiResponse.<OrderResponse>builder()
+                .success(true)
+                .data(response)
+                .traceId(MDC.get("requestId"))
+                .build());
+    }
+
     @PostMapping("/{id}/items")
     @Operation(summary = "Add item to order")
     public ResponseEntity<ApiResponse<Void>> addItem(
@@ -50,14 +72,31 @@ public class OrderController {
 
     @PostMapping("/{id}/reserve")
     @Operation(summary = "Reserve stock for order")
-    public ResponseEntity<ApiResponse<Void>> reserve(@PathVariable Long id) {
-        orderService.reserveStock(id);
+    public ResponseEntity<ApiResponse<Void>> reserve(
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @PathVariable Long id) {
+        idempotencyService.execute(idempotencyKey, "order.reserve", id, Void.class, () -> {
+            orderService.reserveStock(id);
+            return null;
+        });
         return ResponseEntity.ok(ApiResponse.<Void>builder()
                 .success(true)
                 .traceId(MDC.get("requestId"))
                 .build());
     }
 
+    @PostMapping("/reserve-batch")
+    @Operation(summary = "Reserve stock for multiple orders")
+    public ResponseEntity<ApiResponse<BatchReservationResponse>> reserveBatch(
+            @Valid @RequestBody BatchReservationRequest request) {
+        BatchReservationResponse response = orderService.reserveBatch(request);
+        return ResponseEntity.ok(ApiResponse.<BatchReservationResponse>builder()
+                .success(true)
+                .data(response)
+                .traceId(MDC.get("requestId"))
+                .build());
+    }
+
     @PostMapping("/{id}/ship")
     @Operation(summary = "Ship order")
     public ResponseEntity<ApiResponse<Void>> ship(@PathVariable Long id) {
@@ -68,6 +107,29 @@ public class OrderController {
                 .build());
     }
 
+    @PostMapping("/waves")
+    @Operation(summary = "Group reserved orders into shipping waves per warehouse")
+    public ResponseEntity<ApiResponse<List<WaveResponse>>> planWaves(
+            @RequestParam(defaultValue = "500") int maxOrders) {
+        List<WaveResponse> response = waveShippingService.planWaves(maxOrders);
+        return ResponseEntity.ok(ApiResponse.<List<WaveResponse>>builder()
+                .success(true)
+                .data(response)
+                .traceId(MDC.get("requestId"))
+                .build());
+    }
+
+    @PostMapping("/waves/{id}/ship")
+    @Operation(summary = "Ship all orders of a wave")
+    public ResponseEntity<ApiResponse<WaveResponse>> shipWave(@PathVariable Long id) {
+        WaveResponse response = waveShippingService.shipWave(id);
+        return ResponseEntity.ok(ApiResponse.<WaveResponse>builder()
+                .success(true)
+                .data(response)
+                .traceId(MDC.get("requestId"))
+                .build());
+    }
+
     @GetMapping
     @Operation(summary = "Get all orders")
     public ResponseEntity<ApiResponse<List<OrderResponse>>> getAllOrders() {
@@ -2,19 +2,27 @@ package com.wms.controller;
 
 import com.wms.dto.request.ProductRequest;
 import com.wms.dto.response.ApiResponse;
+import com.wms.dto.response.ProductImportResponse;
 import com.wms.dto.response.ProductResponse;
+import com.wms.service.ProductImportService;
 import com.wms.service.ProductService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.MDC;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
+
 @RestController
 @RequestMapping("/api/products")
 @RequiredArgsConstructor
@@ -23,6 +31,7 @@ import org.springframework.web.bind.annotation.*;
 public class ProductController {
 
     private final ProductService productService;
+    private final ProductImportService productImportService;
 
     @PostMapping
     @Operation(summary = "Create new product")
@@ -46,6 +55,17 @@ public class ProductController {
                 .build());
     }
 
+    @GetMapping("/scan/{code}")
+    @Operation(summary = "Resolve a scanned barcode or SKU")
+    public ResponseEntity<ApiResponse<ProductResponse>> scanProduct(@PathVariable String code) {
+        ProductResponse response = productService.scanProduct(code);
+        return ResponseEntity.ok(ApiResponse.<ProductResponse>builder()
+                .success(true)
+                .data(response)
+                .traceId(MDC.get("requestId"))
+                .build());
+    }
+
     @GetMapping
     @Operation(summary = "Search products")
     public ResponseEntity<ApiResponse<Page<ProductResponse>>> searchProducts(
@@ -59,6 +79,19 @@ public class ProductController {
                 .build());
     }
 
+    @GetMapping("/suggest")
+    @Operation(summary = "Type-ahead product search without a total count")
+    public ResponseEntity<ApiResponse<Slice<ProductResponse>>> suggestProducts(
+            @RequestParam(defaultValue = "") String search,
+            Pageable pageable) {
+        Slice<ProductResponse> response = productService.suggestProducts(search, pageable);
+        return ResponseEntity.ok(ApiResponse.<Slice<ProductResponse>>builder()
+                .success(true)
+                .data(response)
+                .traceId(MDC.get("requestId"))
+                .build());
+    }
+
     @PutMapping("/{id}")
     @Operation(summary = "Update product")
     public ResponseEntity<ApiResponse<ProductResponse>> updateProduct(
@@ -81,4 +114,18 @@ public class ProductController {
                 .traceId(MDC.get("requestId"))
                 .build());
     }
-}
\ No newline at end of file
+
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    @Operation(summary = "Bulk upsert products by SKU from a JSON array or NDJSON stream")
+    public ResponseEntity<ApiResponse<ProductImportResponse>> importProducts(HttpServletRequest request)
+            throws IOException {
+        try (InputStream body = request.getInputStream()) {
+            ProductImportResponse response = productImportService.importProducts(body);
+            return ResponseEntity.ok(ApiResponse.<ProductImportResponse>builder()
+                    .success(true)
+                    .data(response)
+                    .traceId(MDC.get("requestId"))
+                    .build());
+        }
+    }
+}
@@ -1,9 +1,12 @@
 package com.wms.controller;
 
 import com.wms.dto.request.PurchaseOrderItemRequest;
+import com.wms.dto.request.PurchaseOrderReceiptRequest;
 import com.wms.dto.request.PurchaseOrderRequest;
 import com.wms.dto.response.ApiResponse;
+import com.wms.dto.response.PurchaseOrderReceiptResponse;
 import com.wms.dto.response.PurchaseOrderResponse;
+import com.wms.service.IdempotencyService;
 import com.wms.service.PurchaseOrderService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
@@ -24,6 +27,7 @@ import java.util.List;
 public class PurchaseOrderController {
 
     private final PurchaseOrderService purchaseOrderService;
+    private final IdempotencyService idempotencyService;
 
     @PostMapping
     @Operation(summary = "Create purchase order")
@@ -72,14 +76,35 @@ public class PurchaseOrderController {
 
     @PostMapping("/{id}/receive")
     @Operation(summary = "Receive purchase order")
-    public ResponseEntity<ApiResponse<Void>> receive(@PathVariable Long id) {
-        purchaseOrderService.receivePurchaseOrder(id);
+    public ResponseEntity<ApiResponse<Void>> receive(
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @PathVariable Long id) {
+        idempotencyService.execute(idempotencyKey, "purchase-order.receive", id, Void.class, () -> {
+            purchaseOrderService.receivePurchaseOrder(id);
+            return null;
+        });
         return ResponseEntity.ok(ApiResponse.<Void>builder()
                 .success(true)
                 .traceId(MDC.get("requestId"))
                 .build());
     }
 
+    @PostMapping("/{id}/receipts")
+    @Operation(summary = "Receive scanned quantities of a purchase order")
+    public ResponseEntity<ApiResponse<PurchaseOrderReceiptResponse>> receiveItems(
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @PathVariable Long id,
+            @Valid @RequestBody PurchaseOrderReceiptRequest request) {
+        PurchaseOrderReceiptResponse response = idempotencyService.execute(idempotencyKey,
+                "purchase-order.receipt", new Receipt(id, request), PurchaseOrderReceiptResponse.class,
+                () -> purchaseOrderService.receiveItems(id, request));
+        return ResponseEntity.ok(ApiResponse.<PurchaseOrderReceiptResponse>builder()
+                .success(true)
+                .data(response)
+                .traceId(MDC.get("requestId"))
+                .build());
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Get purchase order by ID")
     public ResponseEntity<ApiResponse<PurchaseOrderResponse>> getPurchaseOrder(@PathVariable Long id) {
@@ -90,4 +115,8 @@ public class PurchaseOrderController {
                 .traceId(MDC.get("requestId"))
                 .build());
     }
-}
\ No newline at end of file
+
+    // Fingerprint of a receipt call: the same scans against another purchase order are a different request
+    private record Receipt(Long purchaseOrderId, PurchaseOrderReceiptRequest request) {
+    }
+}
@@ -3,18 +3,23 @@ package com.wms.controller;
 import com.wms.dto.response.ApiResponse;
 import com.wms.dto.response.LowStockReportResponse;
 import com.wms.dto.response.StockMovementResponse;
+import com.wms.enums.ReportFormat;
 import com.wms.service.ReportService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.MDC;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Locale;
 
 @RestController
 @RequestMapping("/api/reports")
@@ -27,8 +32,9 @@ public class ReportController {
 
     @GetMapping("/low-stock")
     @Operation(summary = "Get low stock report")
-    public ResponseEntity<ApiResponse<List<LowStockReportResponse>>> getLowStockReport() {
-        List<LowStockReportResponse> response = reportService.getLowStockReport();
+    public ResponseEntity<ApiResponse<List<LowStockReportResponse>>> getLowStockReport(
+            @RequestParam(required = false) Integer limit) {
+        List<LowStockReportResponse> response = reportService.getLowStockReport(limit);
         return ResponseEntity.ok(ApiResponse.<List<LowStockReportResponse>>builder()
                 .success(true)
                 .data(response)
@@ -48,4 +54,23 @@ public class ReportController {
                 .traceId(MDC.get("requestId"))
                 .build());
     }
+
+    @GetMapping("/movements/stream")
+    @Operation(summary = "Stream stock movements report as NDJSON or CSV")
+    public void streamMovementReport(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "ndjson") String format,
+            HttpServletResponse response) throws IOException {
+        ReportFormat reportFormat = ReportFormat.valueOf(format.toUpperCase(Locale.ROOT));
+
+        if (reportFormat == ReportFormat.CSV) {
+            response.setContentType("text/csv;charset=UTF-8");
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                    "attachment; filename=\"movements-" + from + "-" + to + ".csv\"");
+        } else {
+            response.setContentType("application/x-ndjson;charset=UTF-8");
+        }
+        reportService.streamMovementReport(from, to, reportFormat, response.getOutputStream());
+    }
 }
\ No newline at end of file
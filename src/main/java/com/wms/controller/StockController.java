@@ -4,6 +4,7 @@ import com.wms.dto.request.StockAdjustmentRequest;
 import com.wms.dto.request.StockTransferRequest;
 import com.wms.dto.response.ApiResponse;
 import com.wms.dto.response.InventoryResponse;
+import com.wms.service.IdempotencyService;
 import com.wms.service.StockService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
@@ -24,11 +25,17 @@ import java.util.List;
 public class StockController {
 
     private final StockService stockService;
+    private final IdempotencyService idempotencyService;
 
     @PostMapping("/transfer")
     @Operation(summary = "Transfer stock between locations")
-    public ResponseEntity<ApiResponse<Void>> transferStock(@Valid @RequestBody StockTransferRequest request) {
-        stockService.transferStock(request);
+    public ResponseEntity<ApiResponse<Void>> transferStock(
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @Valid @RequestBody StockTransferRequest request) {
+        idempotencyService.execute(idempotencyKey, "stock.transfer", request, Void.class, () -> {
+            stockService.transferStock(request);
+            return null;
+        });
         return ResponseEntity.ok(ApiResponse.<Void>builder()
                 .success(true)
                 .traceId(MDC.get("requestId"))
@@ -37,8 +44,13 @@ public class StockController {
 
     @PostMapping("/adjust")
     @Operation(summary = "Adjust stock quantity")
-    public ResponseEntity<ApiResponse<Void>> adjustStock(@Valid @RequestBody StockAdjustmentRequest request) {
-        stockService.adjustStock(request);
+    public ResponseEntity<ApiResponse<Void>> adjustStock(
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @Valid @RequestBody StockAdjustmentRequest request) {
+        idempotencyService.execute(idempotencyKey, "stock.adjust", request, Void.class, () -> {
+            stockService.adjustStock(request);
+            return null;
+        });
         return ResponseEntity.ok(ApiResponse.<Void>builder()
                 .success(true)
                 .traceId(MDC.get("requestId"))
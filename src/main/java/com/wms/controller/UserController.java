@@ -0,0 +1,39 @@
+package com.wms.controller;
+
+import com.wms.dto.response.ApiResponse;
+import com.wms.service.UserService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.MDC;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/admin/users")
+@RequiredArgsConstructor
+@Tag(name = "Users", description = "User administration endpoints")
+public class UserController {
+
+    private final UserService userService;
+
+    @PatchMapping("/{id}/activate")
+    @Operation(summary = "Activate user")
+    public ResponseEntity<ApiResponse<Void>> activateUser(@PathVariable Long id) {
+        userService.activateUser(id);
+        return ResponseEntity.ok(ApiResponse.<Void>builder()
+                .success(true)
+                .traceId(MDC.get("requestId"))
+                .build());
+    }
+
+    @PatchMapping("/{id}/deactivate")
+    @Operation(summary = "Deactivate user")
+    public ResponseEntity<ApiResponse<Void>> deactivateUser(@PathVariable Long id) {
+        userService.deactivateUser(id);
+        return ResponseEntity.ok(ApiResponse.<Void>builder()
+                .success(true)
+                .traceId(MDC.get("requestId"))
+                .build());
+    }
+}
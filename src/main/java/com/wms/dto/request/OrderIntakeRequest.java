@@ -0,0 +1,34 @@
+package com.wms.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderIntakeRequest {
+    @NotBlank
+    private String customerName;
+
+    private String shippingAddress;
+
+    @NotNull
+    private Long warehouseId;
+
+    @NotEmpty
+    @Size(max = 1000)
+    private List<@Valid @NotNull OrderItemRequest> lines;
+
+    // Siparişi aynı transaction içinde rezerve et
+    private boolean reserve;
+}
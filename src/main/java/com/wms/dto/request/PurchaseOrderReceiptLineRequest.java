@@ -0,0 +1,24 @@
+package com.wms.dto.request;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PurchaseOrderReceiptLineRequest {
+    @NotNull
+    private Long productId;
+
+    @NotNull
+    private Long locationId;
+
+    @NotNull
+    @Positive
+    private Integer quantity;
+}
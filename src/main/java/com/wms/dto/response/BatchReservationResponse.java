@@ -0,0 +1,28 @@
+package com.wms.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchReservationResponse {
+    private int reservedCount;
+    private int failedCount;
+    private List<OrderReservationResult> results;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class OrderReservationResult {
+        private Long orderId;
+        private boolean success;
+        private String message;
+    }
+}
@@ -0,0 +1,30 @@
+package com.wms.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryAsOfResponse {
+    private LocalDateTime asOf;
+    // Replay başlangıcı; null ise güncel stoktan geriye doğru hesaplandı
+    private LocalDateTime snapshotTakenAt;
+    private List<StockLine> lines;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class StockLine {
+        private Long productId;
+        private Long locationId;
+        private Long quantity;
+    }
+}
@@ -0,0 +1,18 @@
+package com.wms.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PurchaseOrderReceiptResponse {
+    private Long purchaseOrderId;
+    private String orderNumber;
+    private String status;
+    private int receivedQuantity;
+    private int remainingQuantity;
+}
@@ -0,0 +1,22 @@
+package com.wms.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WaveResponse {
+    private Long id;
+    private String waveNumber;
+    private Long warehouseId;
+    private String status;
+    private int orderCount;
+    private int lineCount;
+    private LocalDateTime shippedAt;
+}
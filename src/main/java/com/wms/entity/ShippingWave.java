@@ -0,0 +1,34 @@
+package com.wms.entity;
+
+import com.wms.enums.WaveStatus;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "shipping_waves")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ShippingWave extends BaseEntity {
+
+    @Column(nullable = false, unique = true)
+    private String waveNumber;
+
+    @NotNull
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "warehouse_id", nullable = false)
+    private Warehouse warehouse;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    @Builder.Default
+    private WaveStatus status = WaveStatus.PLANNED;
+
+    private LocalDateTime shippedAt;
+}
@@ -3,6 +3,7 @@ package com.wms.enums;
 public enum PurchaseOrderStatus {
     DRAFT,
     APPROVED,
+    PARTIALLY_RECEIVED,
     RECEIVED,
     CANCELLED
 }
\ No newline at end of file
@@ -0,0 +1,6 @@
+package com.wms.enums;
+
+public enum WaveStatus {
+    PLANNED,
+    SHIPPED
+}
@@ -0,0 +1,180 @@
+package com.wms.metrics;
+
+import com.wms.exception.BusinessRuleException;
+import com.wms.exception.InsufficientStockException;
+import com.wms.exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Records latency, outcome and SQL statement count of stock mutations.
+ * <p>
+ * {@code wms.stock.operation} is a timer with a percentile histogram, tagged with operation, outcome
+ * (success, insufficient_stock, not_found, rejected, rolled_back, error) and warehouse. Its count series
+ * doubles as the per-outcome counter. Only the first {@code app.metrics.max-warehouse-tags} warehouses get
+ * their own tag value; the rest are reported as "other".
+ * <p>
+ * When a transaction is active the measurement stops after completion, so commit time and the statements
+ * flushed at commit are included.
+ */
+@Component
+public class StockOperationMetrics {
+
+    public static final String RESERVE = "reserve";
+    public static final String SHIP = "ship";
+    public static final String TRANSFER = "transfer";
+    public static final String RECEIVE = "receive";
+
+    private static final String OTHER = "other";
+    private static final String NONE = "none";
+
+    private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+
+    private final MeterRegistry meterRegistry;
+    private final SqlStatementCounter sqlStatementCounter;
+    private final int maxWarehouseTags;
+    private final Set<Long> taggedWarehouses = ConcurrentHashMap.newKeySet();
+    private final Map<String, AtomicLong> lastStatements = new ConcurrentHashMap<>();
+
+    public StockOperationMetrics(MeterRegistry meterRegistry,
+                                 SqlStatementCounter sqlStatementCounter,
+                                 @Value("${app.metrics.max-warehouse-tags:50}") int maxWarehouseTags) {
+        this.meterRegistry = meterRegistry;
+        this.sqlStatementCounter = sqlStatementCounter;
+        this.maxWarehouseTags = maxWarehouseTags;
+    }
+
+    public void record(String operation, Runnable action) {
+        record(operation, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    public <T> T record(String operation, Supplier<T> action) {
+        Scope scope = new Scope(operation, System.nanoTime(), sqlStatementCounter.current());
+        Scope previous = CURRENT.get();
+        CURRENT.set(scope);
+        try {
+            T result = action.get();
+            scope.outcome = "success";
+            return result;
+        } catch (RuntimeException ex) {
+            scope.outcome = outcomeOf(ex);
+            throw ex;
+        } finally {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+            stopAfterCompletion(scope);
+        }
+    }
+
+    /**
+     * Tags the operation running on this thread with its warehouse.
+     */
+    public void warehouse(Long warehouseId) {
+        Scope scope = CURRENT.get();
+        if (scope != null) {
+            scope.warehouse = warehouseTag(warehouseId);
+        }
+    }
+
+    private void stopAfterCompletion(Scope scope) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            stop(scope);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED && "success".equals(scope.outcome)) {
+                    scope.outcome = "rolled_back";
+                }
+                stop(scope);
+            }
+        });
+    }
+
+    private void stop(Scope scope) {
+        long statements = sqlStatementCounter.current() - scope.statementsAtStart;
+
+        Timer.builder("wms.stock.operation")
+                .description("Duration of stock mutations")
+                .tag("operation", scope.operation)
+                .tag("outcome", scope.outcome)
+                .tag("warehouse", scope.warehouse)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(System.nanoTime() - scope.startNanos, TimeUnit.NANOSECONDS);
+
+        DistributionSummary.builder("wms.stock.operation.sql.statements")
+                .description("JDBC statements issued per stock mutation")
+                .tag("operation", scope.operation)
+                .register(meterRegistry)
+                .record(statements);
+
+        lastStatements.computeIfAbsent(scope.operation, operation -> {
+            AtomicLong value = new AtomicLong();
+            Gauge.builder("wms.stock.operation.sql.statements.last", value, AtomicLong::get)
+                    .description("JDBC statements issued by the latest execution of the operation")
+                    .tag("operation", operation)
+                    .register(meterRegistry);
+            return value;
+        }).set(statements);
+    }
+
+    private String warehouseTag(Long warehouseId) {
+        if (warehouseId == null) {
+            return NONE;
+        }
+        // Racy size check may let a few extra values in, which is fine for a cardinality guard
+        if (!taggedWarehouses.contains(warehouseId) && taggedWarehouses.size() < maxWarehouseTags) {
+            taggedWarehouses.add(warehouseId);
+        }
+        return taggedWarehouses.contains(warehouseId) ? warehouseId.toString() : OTHER;
+    }
+
+    private static String outcomeOf(RuntimeException ex) {
+        if (ex instanceof InsufficientStockException) {
+            return "insufficient_stock";
+        }
+        if (ex instanceof ResourceNotFoundException) {
+            return "not_found";
+        }
+        if (ex instanceof BusinessRuleException) {
+            return "rejected";
+        }
+        return "error";
+    }
+
+    private static final class Scope {
+        private final String operation;
+        private final long startNanos;
+        private final long statementsAtStart;
+        private volatile String outcome = "error";
+        private volatile String warehouse = NONE;
+
+        private Scope(String operation, long startNanos, long statementsAtStart) {
+            this.operation = operation;
+            this.startNanos = startNanos;
+            this.statementsAtStart = statementsAtStart;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.wms.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Plain JDBC access to the document number counters.
+ */
+@Repository
+@RequiredArgsConstructor
+public class DocumentNumberJdbcRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Leases the next {@code size} numbers of a counter, creating it at 1 on first use. Must run in its own
+     * short transaction: the counter row stays locked until it commits.
+     *
+     * @return first number of the leased block
+     * @throws org.springframework.dao.DuplicateKeyException if a concurrent lease created the counter first
+     */
+    public long lease(String prefix, long warehouseId, LocalDate day, int size) {
+        Date businessDate = Date.valueOf(day);
+        List<Long> current = jdbcTemplate.queryForList(
+                "SELECT next_value FROM document_number_blocks " +
+                        "WHERE prefix = ? AND warehouse_id = ? AND business_date = ? FOR UPDATE",
+                Long.class, prefix, warehouseId, businessDate);
+
+        if (current.isEmpty()) {
+            jdbcTemplate.update(
+                    "INSERT INTO document_number_blocks (prefix, warehouse_id, business_date, next_value) " +
+                            "VALUES (?, ?, ?, ?)",
+                    prefix, warehouseId, businessDate, 1L + size);
+            return 1L;
+        }
+
+        long first = current.get(0);
+        jdbcTemplate.update(
+                "UPDATE document_number_blocks SET next_value = ? " +
+                        "WHERE prefix = ? AND warehouse_id = ? AND business_date = ?",
+                first + size, prefix, warehouseId, businessDate);
+        return first;
+    }
+}
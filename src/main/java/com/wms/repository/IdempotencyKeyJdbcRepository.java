@@ -0,0 +1,63 @@
+package com.wms.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Plain JDBC access to the idempotency key dedupe table.
+ */
+@Repository
+@RequiredArgsConstructor
+public class IdempotencyKeyJdbcRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Request fingerprint and JSON result stored for a key.
+     */
+    public record StoredRequest(byte[] requestHash, String response) {
+    }
+
+    /**
+     * Inserts the key inside the caller's transaction. A concurrent transaction claiming the same key blocks
+     * here until the first one ends, and then gets {@code false} if it committed.
+     *
+     * @return whether the key was claimed by this transaction
+     */
+    public boolean claim(String scope, String key, byte[] requestHash) {
+        return jdbcTemplate.update(
+                "INSERT INTO idempotency_keys (scope, idempotency_key, request_hash) VALUES (?, ?, ?) " +
+                        "ON CONFLICT (scope, idempotency_key) DO NOTHING",
+                scope, key, requestHash) == 1;
+    }
+
+    public void complete(String scope, String key, String response) {
+        jdbcTemplate.update(
+                "UPDATE idempotency_keys SET response = ? WHERE scope = ? AND idempotency_key = ?",
+                response, scope, key);
+    }
+
+    public Optional<StoredRequest> find(String scope, String key) {
+        return jdbcTemplate.query(
+                "SELECT request_hash, response FROM idempotency_keys WHERE scope = ? AND idempotency_key = ?",
+                (rs, rowNum) -> new StoredRequest(rs.getBytes("request_hash"), rs.getString("response")),
+                scope, key).stream().findFirst();
+    }
+
+    /**
+     * Deletes up to {@code limit} keys created before the cutoff.
+     *
+     * @return number of deleted keys
+     */
+    public int deleteOlderThan(LocalDateTime cutoff, int limit) {
+        return jdbcTemplate.update(
+                "DELETE FROM idempotency_keys WHERE ctid = ANY(ARRAY(" +
+                        "SELECT ctid FROM idempotency_keys WHERE created_at < ? LIMIT ?))",
+                Timestamp.valueOf(cutoff), limit);
+    }
+}
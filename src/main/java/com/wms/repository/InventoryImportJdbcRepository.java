@@ -0,0 +1,198 @@
+package com.wms.repository;
+
+import com.wms.repository.InventoryJdbcRepository.ProductLocation;
+import lombok.RequiredArgsConstructor;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Bulk inventory import: rows are staged into a temporary table with PostgreSQL {@code COPY} and merged into
+ * {@code inventory} with one {@code INSERT ... ON CONFLICT}. Must run inside a transaction, since the staging
+ * table is dropped on commit.
+ */
+@Repository
+@RequiredArgsConstructor
+public class InventoryImportJdbcRepository {
+
+    private static final int COPY_FLUSH_CHARS = 1 << 20;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Receives resolved rows while the COPY into the staging table is open.
+     */
+    @FunctionalInterface
+    public interface StagingWriter {
+        void write(long lineNo, long productId, long locationId, int quantity);
+    }
+
+    /**
+     * Identifies a location by the codes used in import files.
+     */
+    public record LocationCode(String warehouseCode, String locationCode) {
+    }
+
+    /**
+     * Staged row that cannot be applied because the new quantity is below the reserved quantity.
+     */
+    public record BelowReserved(long lineNo, int quantity, int reservedQuantity) {
+    }
+
+    /**
+     * On-hand change of one merged pair; positive when the quantity went up.
+     */
+    public record QuantityChange(long productId, long locationId, int delta) {
+    }
+
+    /**
+     * Outcome of the merge: touched pairs, how many of them were new rows, and the pairs whose quantity changed.
+     */
+    public record MergeResult(List<ProductLocation> pairs, int inserted, List<QuantityChange> changes) {
+    }
+
+    public Map<String, Long> loadProductIdsBySku() {
+        Map<String, Long> ids = new HashMap<>();
+        jdbcTemplate.query("SELECT id, sku FROM products WHERE deleted = false",
+                rs -> {
+                    ids.put(rs.getString(2), rs.getLong(1));
+                });
+        return ids;
+    }
+
+    public Map<LocationCode, Long> loadLocationIdsByCode() {
+        Map<LocationCode, Long> ids = new HashMap<>();
+        jdbcTemplate.query("SELECT l.id, w.code, l.code FROM locations l " +
+                        "JOIN warehouses w ON w.id = l.warehouse_id WHERE l.deleted = false",
+                rs -> {
+                    ids.put(new LocationCode(rs.getString(2), rs.getString(3)), rs.getLong(1));
+                });
+        return ids;
+    }
+
+    /**
+     * Creates the staging table and streams the rows produced by {@code rows} into it with a single COPY.
+     *
+     * @return number of staged rows
+     */
+    public long stage(Consumer<StagingWriter> rows) {
+        jdbcTemplate.execute("CREATE TEMP TABLE inventory_import_staging (" +
+                "line_no BIGINT NOT NULL, product_id BIGINT NOT NULL, location_id BIGINT NOT NULL, " +
+                "quantity INTEGER NOT NULL) ON COMMIT DROP");
+
+        return jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            CopyIn copyIn = connection.unwrap(PGConnection.class).getCopyAPI()
+                    .copyIn("COPY inventory_import_staging (line_no, product_id, location_id, quantity) FROM STDIN");
+            StringBuilder buffer = new StringBuilder(COPY_FLUSH_CHARS + 256);
+            long[] count = new long[1];
+            try {
+                rows.accept((lineNo, productId, locationId, quantity) -> {
+                    buffer.append(lineNo).append('\t').append(productId).append('\t')
+                            .append(locationId).append('\t').append(quantity).append('\n');
+                    count[0]++;
+                    if (buffer.length() >= COPY_FLUSH_CHARS) {
+                        writeToCopy(copyIn, buffer);
+                    }
+                });
+                writeToCopy(copyIn, buffer);
+                copyIn.endCopy();
+            } finally {
+                if (copyIn.isActive()) {
+                    copyIn.cancelCopy();
+                }
+            }
+            return count[0];
+        });
+    }
+
+    /**
+     * Keeps only the last line of each (product, location) pair; earlier lines for the same pair are overridden.
+     *
+     * @return number of removed lines
+     */
+    public int removeSuperseded() {
+        return jdbcTemplate.update("DELETE FROM inventory_import_staging s USING inventory_import_staging t " +
+                "WHERE t.product_id = s.product_id AND t.location_id = s.location_id AND t.line_no > s.line_no");
+    }
+
+    /**
+     * Removes and returns staged rows that would set an existing row below its reserved quantity.
+     */
+    public List<BelowReserved> removeBelowReserved() {
+        List<BelowReserved> rejected = jdbcTemplate.query(
+                "SELECT s.line_no, s.quantity, i.reserved_quantity FROM inventory_import_staging s " +
+                        "JOIN inventory i ON i.product_id = s.product_id AND i.location_id = s.location_id " +
+                        "WHERE i.reserved_quantity > s.quantity",
+                (rs, rowNum) -> new BelowReserved(rs.getLong(1), rs.getInt(2), rs.getInt(3)));
+        if (!rejected.isEmpty()) {
+            jdbcTemplate.update("DELETE FROM inventory_import_staging s USING inventory i " +
+                    "WHERE i.product_id = s.product_id AND i.location_id = s.location_id " +
+                    "AND i.reserved_quantity > s.quantity");
+        }
+        return rejected;
+    }
+
+    /**
+     * Upserts the staged quantities. Reserved quantities of existing rows are kept.
+     */
+    public MergeResult merge() {
+        // Lock the existing rows first so the quantities being replaced cannot change before the upsert
+        Map<ProductLocation, Integer> previous = new HashMap<>();
+        jdbcTemplate.query(
+                "SELECT i.product_id, i.location_id, i.quantity, i.deleted FROM inventory i " +
+                        "JOIN inventory_import_staging s ON s.product_id = i.product_id " +
+                        "AND s.location_id = i.location_id " +
+                        "ORDER BY i.product_id, i.location_id FOR UPDATE OF i",
+                rs -> {
+                    previous.put(new ProductLocation(rs.getLong(1), rs.getLong(2)),
+                            rs.getBoolean(4) ? 0 : rs.getInt(3));
+                });
+
+        List<ProductLocation> pairs = new ArrayList<>();
+        List<QuantityChange> changes = new ArrayList<>();
+        int[] inserted = new int[1];
+        jdbcTemplate.query(
+                "INSERT INTO inventory (product_id, location_id, quantity, reserved_quantity, created_at, deleted) " +
+                        "SELECT product_id, location_id, quantity, 0, CURRENT_TIMESTAMP, false " +
+                        "FROM inventory_import_staging ORDER BY product_id, location_id " +
+                        "ON CONFLICT (product_id, location_id) DO UPDATE SET quantity = EXCLUDED.quantity, " +
+                        "deleted = false, updated_at = CURRENT_TIMESTAMP " +
+                        "WHERE inventory.reserved_quantity <= EXCLUDED.quantity " +
+                        "RETURNING product_id, location_id, quantity, (xmax = 0) AS inserted",
+                rs -> {
+                    ProductLocation pair = new ProductLocation(rs.getLong(1), rs.getLong(2));
+                    pairs.add(pair);
+                    int delta = rs.getInt(3) - previous.getOrDefault(pair, 0);
+                    if (delta != 0) {
+                        changes.add(new QuantityChange(pair.productId(), pair.locationId(), delta));
+                    }
+                    if (rs.getBoolean(4)) {
+                        inserted[0]++;
+                    }
+                });
+        return new MergeResult(pairs, inserted[0], changes);
+    }
+
+    private static void writeToCopy(CopyIn copyIn, StringBuilder buffer) {
+        if (buffer.isEmpty()) {
+            return;
+        }
+        byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+        try {
+            copyIn.writeToCopy(bytes, 0, bytes.length);
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Inventory import COPY failed", ex);
+        }
+        buffer.setLength(0);
+    }
+}
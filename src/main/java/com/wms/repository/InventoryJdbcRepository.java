@@ -0,0 +1,251 @@
+package com.wms.repository;
+
+import com.wms.dto.response.LowStockReportResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.function.Consumer;
+
+/**
+ * Plain JDBC access to the inventory table for set-based and batched statements
+ * that JPA cannot express without loading entities first.
+ */
+@Repository
+@RequiredArgsConstructor
+public class InventoryJdbcRepository {
+
+    private static final int IN_LIST_CHUNK = 1000;
+
+    private static final String LOW_STOCK_SELECT =
+            "SELECT p.id AS product_id, p.name AS product_name, p.sku, l.id AS location_id, l.code AS location_code, " +
+                    "w.id AS warehouse_id, w.name AS warehouse_name, i.quantity, p.min_stock_level " +
+                    "FROM inventory i " +
+                    "JOIN products p ON p.id = i.product_id " +
+                    "JOIN locations l ON l.id = i.location_id " +
+                    "JOIN warehouses w ON w.id = l.warehouse_id " +
+                    "WHERE i.deleted = false AND i.quantity <= p.min_stock_level";
+
+    // Upsert: creates the row on first use, otherwise adds to the existing quantity
+    private static final String ADD_ON_HAND =
+            "INSERT INTO inventory (product_id, location_id, quantity, reserved_quantity) VALUES (?, ?, ?, 0) " +
+                    "ON CONFLICT (product_id, location_id) DO UPDATE " +
+                    "SET quantity = inventory.quantity + EXCLUDED.quantity, updated_at = CURRENT_TIMESTAMP";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    /**
+     * (product id, location id) pair identifying an inventory row.
+     */
+    public record ProductLocation(long productId, long locationId) {
+    }
+
+    /**
+     * Row callback used when streaming availability for the whole inventory table.
+     */
+    @FunctionalInterface
+    public interface AvailabilityHandler {
+        void accept(long inventoryId, long productId, long locationId, long available);
+    }
+
+    /**
+     * Applies reserved quantity deltas keyed by inventory id in a single JDBC batch.
+     */
+    public void addReservedQuantities(Map<Long, Long> deltasByInventoryId) {
+        if (deltasByInventoryId.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> args = new ArrayList<>(deltasByInventoryId.size());
+        deltasByInventoryId.forEach((inventoryId, delta) -> args.add(new Object[]{delta, inventoryId}));
+
+        jdbcTemplate.batchUpdate(
+                "UPDATE inventory SET reserved_quantity = reserved_quantity + ?, updated_at = CURRENT_TIMESTAMP WHERE id = ?",
+                args);
+    }
+
+    /**
+     * Deducts shipped quantities from on-hand and reserved stock in a single JDBC batch. Rows are touched in
+     * (product, location) order so concurrent shipments cannot deadlock each other.
+     *
+     * @return pairs for which no inventory row exists
+     */
+    public List<ProductLocation> deductShipped(Map<ProductLocation, Long> quantities) {
+        List<ProductLocation> pairs = new ArrayList<>(quantities.keySet());
+        pairs.sort(Comparator.comparingLong(ProductLocation::productId).thenComparingLong(ProductLocation::locationId));
+
+        List<Object[]> args = new ArrayList<>(pairs.size());
+        pairs.forEach(pair -> {
+            long quantity = quantities.get(pair);
+            args.add(new Object[]{quantity, quantity, pair.productId(), pair.locationId()});
+        });
+
+        int[] counts = jdbcTemplate.batchUpdate(
+                "UPDATE inventory SET quantity = quantity - ?, reserved_quantity = reserved_quantity - ?, " +
+                        "updated_at = CURRENT_TIMESTAMP WHERE product_id = ? AND location_id = ?",
+                args);
+
+        List<ProductLocation> missing = new ArrayList<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 0) {
+                missing.add(pairs.get(i));
+            }
+        }
+        return missing;
+    }
+
+    /**
+     * Adds quantity to the on-hand stock of one (product, location) pair, creating the row if it does not exist.
+     */
+    public void addOnHand(long productId, long locationId, int quantity) {
+        jdbcTemplate.update(ADD_ON_HAND, productId, locationId, quantity);
+    }
+
+    /**
+     * Adds received quantities to on-hand stock in a single JDBC batch of upserts, creating rows that do not
+     * exist yet. Rows are touched in (product, location) order so concurrent receipts cannot deadlock each other.
+     */
+    public void addOnHand(Map<ProductLocation, Long> quantities) {
+        if (quantities.isEmpty()) {
+            return;
+        }
+
+        List<ProductLocation> pairs = new ArrayList<>(quantities.keySet());
+        pairs.sort(Comparator.comparingLong(ProductLocation::productId).thenComparingLong(ProductLocation::locationId));
+
+        List<Object[]> args = new ArrayList<>(pairs.size());
+        pairs.forEach(pair -> args.add(new Object[]{pair.productId(), pair.locationId(), quantities.get(pair)}));
+
+        jdbcTemplate.batchUpdate(ADD_ON_HAND, args);
+    }
+
+    /**
+     * Raises reserved_quantity to the sum of unreleased stock reservations wherever it lags behind,
+     * e.g. after a crash lost reservation deltas that were not written back yet.
+     *
+     * @return number of repaired rows
+     */
+    public int repairReservedQuantities() {
+        return jdbcTemplate.update(
+                "UPDATE inventory SET reserved_quantity = LEAST(quantity, " +
+                        "(SELECT COALESCE(SUM(r.quantity), 0) FROM stock_reservations r " +
+                        "WHERE r.inventory_id = inventory.id AND r.released = false)) " +
+                        "WHERE reserved_quantity < " +
+                        "(SELECT COALESCE(SUM(r.quantity), 0) FROM stock_reservations r " +
+                        "WHERE r.inventory_id = inventory.id AND r.released = false)");
+    }
+
+    /**
+     * Sets the on-hand quantity of a (product, location) pair in a single statement, creating the row if needed.
+     * The update is refused when the new quantity would drop below the reserved quantity.
+     *
+     * @return the previous quantity, or empty if the row exists and more than the new quantity is reserved
+     */
+    public OptionalInt setQuantity(long productId, long locationId, int quantity) {
+        List<Integer> previous = jdbcTemplate.queryForList(
+                "UPDATE inventory i SET quantity = ?, updated_at = CURRENT_TIMESTAMP " +
+                        "FROM (SELECT id, quantity FROM inventory WHERE product_id = ? AND location_id = ? FOR UPDATE) old " +
+                        "WHERE i.id = old.id AND i.reserved_quantity <= ? " +
+                        "RETURNING old.quantity",
+                Integer.class, quantity, productId, locationId, quantity);
+        if (!previous.isEmpty()) {
+            return OptionalInt.of(previous.get(0));
+        }
+
+        int inserted = jdbcTemplate.update(
+                "INSERT INTO inventory (product_id, location_id, quantity, reserved_quantity) VALUES (?, ?, ?, 0) " +
+                        "ON CONFLICT (product_id, location_id) DO NOTHING",
+                productId, locationId, quantity);
+        return inserted == 1 ? OptionalInt.of(0) : OptionalInt.empty();
+    }
+
+    /**
+     * Streams (inventory id, product id, location id, available quantity) for every live inventory row.
+     */
+    public void forEachAvailability(AvailabilityHandler handler) {
+        jdbcTemplate.query(
+                "SELECT id, product_id, location_id, quantity - reserved_quantity AS available " +
+                        "FROM inventory WHERE deleted = false",
+                (RowCallbackHandler) rs -> handler.accept(rs.getLong("id"), rs.getLong("product_id"),
+                        rs.getLong("location_id"), rs.getLong("available")));
+    }
+
+    /**
+     * Same as {@link #forEachAvailability(AvailabilityHandler)} restricted to the given pairs,
+     * using one {@code (product_id, location_id) IN (...)} query per chunk of pairs.
+     */
+    public void forEachAvailability(Collection<ProductLocation> pairs, AvailabilityHandler handler) {
+        List<Object[]> tuples = new ArrayList<>(pairs.size());
+        pairs.forEach(pair -> tuples.add(new Object[]{pair.productId(), pair.locationId()}));
+
+        for (int from = 0; from < tuples.size(); from += IN_LIST_CHUNK) {
+            List<Object[]> chunk = tuples.subList(from, Math.min(from + IN_LIST_CHUNK, tuples.size()));
+            namedParameterJdbcTemplate.query(
+                    "SELECT id, product_id, location_id, quantity - reserved_quantity AS available " +
+                            "FROM inventory WHERE deleted = false AND (product_id, location_id) IN (:pairs)",
+                    new MapSqlParameterSource("pairs", chunk),
+                    (RowCallbackHandler) rs -> handler.accept(rs.getLong("id"), rs.getLong("product_id"),
+                            rs.getLong("location_id"), rs.getLong("available")));
+        }
+    }
+
+    /**
+     * Streams every inventory row at or below its product's minimum stock level.
+     */
+    public void forEachLowStock(Consumer<LowStockReportResponse> consumer) {
+        jdbcTemplate.query(LOW_STOCK_SELECT, (RowCallbackHandler) rs -> consumer.accept(mapLowStock(rs)));
+    }
+
+    /**
+     * Same as {@link #forEachLowStock(Consumer)} restricted to the given pairs.
+     */
+    public void forEachLowStock(Collection<ProductLocation> pairs, Consumer<LowStockReportResponse> consumer) {
+        List<Object[]> tuples = new ArrayList<>(pairs.size());
+        pairs.forEach(pair -> tuples.add(new Object[]{pair.productId(), pair.locationId()}));
+
+        for (int from = 0; from < tuples.size(); from += IN_LIST_CHUNK) {
+            List<Object[]> chunk = tuples.subList(from, Math.min(from + IN_LIST_CHUNK, tuples.size()));
+            namedParameterJdbcTemplate.query(
+                    LOW_STOCK_SELECT + " AND (i.product_id, i.location_id) IN (:pairs)",
+                    new MapSqlParameterSource("pairs", chunk),
+                    (RowCallbackHandler) rs -> consumer.accept(mapLowStock(rs)));
+        }
+    }
+
+    /**
+     * Same as {@link #forEachLowStock(Consumer)} restricted to one product.
+     */
+    public void forEachLowStockOfProduct(long productId, Consumer<LowStockReportResponse> consumer) {
+        jdbcTemplate.query(LOW_STOCK_SELECT + " AND i.product_id = ?",
+                (RowCallbackHandler) rs -> consumer.accept(mapLowStock(rs)), productId);
+    }
+
+    private static LowStockReportResponse mapLowStock(ResultSet rs) throws SQLException {
+        int quantity = rs.getInt("quantity");
+        int minStockLevel = rs.getInt("min_stock_level");
+        return LowStockReportResponse.builder()
+                .productId(rs.getLong("product_id"))
+                .productName(rs.getString("product_name"))
+                .productSku(rs.getString("sku"))
+                .locationId(rs.getLong("location_id"))
+                .locationCode(rs.getString("location_code"))
+                .warehouseId(rs.getLong("warehouse_id"))
+                .warehouseName(rs.getString("warehouse_name"))
+                .currentQuantity(quantity)
+                .minStockLevel(minStockLevel)
+                .deficit(minStockLevel - quantity)
+                .build();
+    }
+}
@@ -0,0 +1,76 @@
+package com.wms.repository;
+
+import com.wms.dto.response.InventoryResponse;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.springframework.stereotype.Repository;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read-side inventory queries that return {@link InventoryResponse} directly through a constructor projection,
+ * joining product, location and warehouse in the same statement instead of loading them lazily per row.
+ */
+@Repository
+public class InventoryQueryRepository {
+
+    private static final String SELECT = "SELECT new com.wms.dto.response.InventoryResponse(" +
+            "i.id, p.id, p.name, p.sku, l.id, l.code, w.id, w.name, l.description, " +
+            "i.quantity, i.reservedQuantity, i.quantity - i.reservedQuantity, i.createdAt, i.updatedAt) " +
+            "FROM Inventory i JOIN i.product p JOIN i.location l JOIN l.warehouse w " +
+            "WHERE i.deleted = false";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Optional filters; null fields are not applied.
+     *
+     * @param availableBelow only rows whose quantity - reserved quantity is below this value
+     */
+    public record InventoryFilter(Long warehouseId, Long productId, String category, Integer availableBelow) {
+    }
+
+    /**
+     * Returns matching rows ordered by id, starting after {@code afterId} (keyset pagination).
+     *
+     * @param afterId last id of the previous page, or null for the first page
+     * @param limit   maximum number of rows, or 0 for no limit
+     */
+    public List<InventoryResponse> find(InventoryFilter filter, Long afterId, int limit) {
+        StringBuilder jpql = new StringBuilder(SELECT);
+        Map<String, Object> params = new HashMap<>();
+
+        if (filter.warehouseId() != null) {
+            jpql.append(" AND w.id = :warehouseId");
+            params.put("warehouseId", filter.warehouseId());
+        }
+        if (filter.productId() != null) {
+            jpql.append(" AND p.id = :productId");
+            params.put("productId", filter.productId());
+        }
+        if (filter.category() != null) {
+            jpql.append(" AND p.category = :category");
+            params.put("category", filter.category());
+        }
+        if (filter.availableBelow() != null) {
+            jpql.append(" AND i.quantity - i.reservedQuantity < :availableBelow");
+            params.put("availableBelow", filter.availableBelow());
+        }
+        if (afterId != null) {
+            jpql.append(" AND i.id > :afterId");
+            params.put("afterId", afterId);
+        }
+        jpql.append(" ORDER BY i.id");
+
+        TypedQuery<InventoryResponse> query = entityManager.createQuery(jpql.toString(), InventoryResponse.class);
+        params.forEach(query::setParameter);
+        if (limit > 0) {
+            query.setMaxResults(limit);
+        }
+        return query.getResultList();
+    }
+}
@@ -2,10 +2,12 @@ package com.wms.repository;
 
 import com.wms.entity.Inventory;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,6 +17,13 @@ public interface InventoryRepository extends JpaRepository<Inventory, Long> {
     List<Inventory> findByProductId(Long productId);
     List<Inventory> findByLocationId(Long locationId);
 
+    // Cross product of the two id sets; callers pick the pairs they need. Rows are locked, since callers
+    // write back absolute quantities that must not overwrite concurrent set-based updates
+    @Query(value = "SELECT * FROM inventory WHERE product_id IN (:productIds) AND location_id IN (:locationIds) " +
+            "ORDER BY product_id, location_id FOR UPDATE", nativeQuery = true)
+    List<Inventory> findByProductIdsAndLocationIdsForUpdate(@Param("productIds") Collection<Long> productIds,
+                                                            @Param("locationIds") Collection<Long> locationIds);
+
     @Query("SELECT i FROM Inventory i WHERE i.location.warehouse.id = :warehouseId")
     List<Inventory> findByWarehouseId(@Param("warehouseId") Long warehouseId);
 
@@ -22,4 +31,13 @@ public interface InventoryRepository extends JpaRepository<Inventory, Long> {
             "i.quantity <= p.minStockLevel AND i.deleted = false")
     List<Inventory> findLowStockItems();
 
+    // Conditional decrement: only succeeds while enough unreserved stock is left, returns affected rows
+    @Modifying
+    @Query(value = "UPDATE inventory SET quantity = quantity - :quantity, updated_at = CURRENT_TIMESTAMP " +
+            "WHERE product_id = :productId AND location_id = :locationId " +
+            "AND quantity - reserved_quantity >= :quantity", nativeQuery = true)
+    int deductAvailable(@Param("productId") Long productId,
+                        @Param("locationId") Long locationId,
+                        @Param("quantity") Integer quantity);
+
 }
\ No newline at end of file
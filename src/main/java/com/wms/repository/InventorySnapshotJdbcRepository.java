@@ -0,0 +1,170 @@
+package com.wms.repository;
+
+import com.wms.repository.InventoryJdbcRepository.ProductLocation;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Plain JDBC access to inventory snapshots and the stock movements replayed on top of them.
+ * <p>
+ * A movement adds its quantity to the destination location and subtracts it from the source location. Movements
+ * are read from {@code stock_movements} and from the outbox batches not moved there yet, so a movement is counted
+ * as soon as its transaction committed. Date ranges are pushed into every branch so they use
+ * {@code idx_stock_movements_date}.
+ */
+@Repository
+@RequiredArgsConstructor
+public class InventorySnapshotJdbcRepository {
+
+    private static final String ON_HAND =
+            "SELECT product_id, location_id, quantity FROM inventory WHERE deleted = false";
+
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    public record Snapshot(long id, LocalDateTime takenAt) {
+    }
+
+    /**
+     * Optional filters; null fields are not applied.
+     */
+    public record StockFilter(Long warehouseId, Long productId, Long locationId) {
+    }
+
+    /**
+     * Stores the on-hand stock as of {@code takenAt}: current inventory with every movement after
+     * {@code takenAt} taken back out, computed in one statement so both are read at the same point in time.
+     * Movements still in flight when the statement runs are in neither, so {@code takenAt} has to lie far
+     * enough in the past for transactions recording movements at that time to have committed.
+     *
+     * @return number of stored lines
+     */
+    public int createSnapshot(LocalDateTime takenAt) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        namedParameterJdbcTemplate.update(
+                "INSERT INTO inventory_snapshots (taken_at, created_at) VALUES (:takenAt, :createdAt)",
+                new MapSqlParameterSource()
+                        .addValue("takenAt", Timestamp.valueOf(takenAt))
+                        .addValue("createdAt", Timestamp.valueOf(LocalDateTime.now())),
+                keyHolder, new String[]{"id"});
+
+        return namedParameterJdbcTemplate.update(
+                "INSERT INTO inventory_snapshot_lines (snapshot_id, product_id, location_id, quantity) " +
+                        "SELECT CAST(:snapshotId AS BIGINT), product_id, location_id, SUM(quantity) FROM (" +
+                        ON_HAND + " UNION ALL " + movementDeltas("movement_date > :takenAt", true) +
+                        ") d GROUP BY product_id, location_id HAVING SUM(quantity) <> 0",
+                new MapSqlParameterSource()
+                        .addValue("snapshotId", keyHolder.getKey().longValue())
+                        .addValue("takenAt", Timestamp.valueOf(takenAt)));
+    }
+
+    public Optional<Snapshot> findLatestAtOrBefore(LocalDateTime at) {
+        return findSnapshot("taken_at <= :at ORDER BY taken_at DESC", at);
+    }
+
+    public Optional<Snapshot> findEarliestAfter(LocalDateTime at) {
+        return findSnapshot("taken_at > :at ORDER BY taken_at", at);
+    }
+
+    private Optional<Snapshot> findSnapshot(String condition, LocalDateTime at) {
+        return namedParameterJdbcTemplate.query(
+                "SELECT id, taken_at FROM inventory_snapshots WHERE " + condition + " LIMIT 1",
+                new MapSqlParameterSource("at", Timestamp.valueOf(at)),
+                (rs, rowNum) -> new Snapshot(rs.getLong("id"), rs.getTimestamp("taken_at").toLocalDateTime()))
+                .stream().findFirst();
+    }
+
+    public Map<ProductLocation, Long> findLines(long snapshotId, StockFilter filter) {
+        MapSqlParameterSource params = new MapSqlParameterSource("snapshotId", snapshotId);
+        List<String> conditions = conditions(filter, params);
+        conditions.add(0, "snapshot_id = :snapshotId");
+        return sumByProductLocation(
+                "SELECT product_id, location_id, quantity FROM inventory_snapshot_lines " +
+                        "WHERE " + String.join(" AND ", conditions),
+                params);
+    }
+
+    /**
+     * Net stock change per product and location of the movements in {@code (from, to]}, negated when
+     * {@code reverse} is set (to take them back out of a later stock level).
+     */
+    public Map<ProductLocation, Long> sumMovements(LocalDateTime from, LocalDateTime to, boolean reverse,
+                                                  StockFilter filter) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("from", Timestamp.valueOf(from))
+                .addValue("to", Timestamp.valueOf(to));
+        return sumByProductLocation(
+                "SELECT product_id, location_id, SUM(quantity) AS quantity FROM (" +
+                        movementDeltas("movement_date > :from AND movement_date <= :to", reverse) + ") d" +
+                        where(conditions(filter, params)) + " GROUP BY product_id, location_id",
+                params);
+    }
+
+    /**
+     * On-hand stock as of {@code at} from current inventory and the movements after it, in one statement.
+     */
+    public Map<ProductLocation, Long> sumOnHandAsOf(LocalDateTime at, StockFilter filter) {
+        MapSqlParameterSource params = new MapSqlParameterSource("at", Timestamp.valueOf(at));
+        return sumByProductLocation(
+                "SELECT product_id, location_id, SUM(quantity) AS quantity FROM (" +
+                        ON_HAND + " UNION ALL " + movementDeltas("movement_date > :at", true) + ") d" +
+                        where(conditions(filter, params)) + " GROUP BY product_id, location_id",
+                params);
+    }
+
+    private Map<ProductLocation, Long> sumByProductLocation(String sql, MapSqlParameterSource params) {
+        Map<ProductLocation, Long> result = new HashMap<>();
+        namedParameterJdbcTemplate.query(sql, params, (RowCallbackHandler) rs -> result.merge(
+                new ProductLocation(rs.getLong("product_id"), rs.getLong("location_id")),
+                rs.getLong("quantity"), Long::sum));
+        return result;
+    }
+
+    // Signed stock change of every movement matching the date condition, one row per affected location
+    private static String movementDeltas(String dateCondition, boolean reverse) {
+        String in = reverse ? "-quantity" : "quantity";
+        String out = reverse ? "quantity" : "-quantity";
+        return String.join(" UNION ALL ",
+                "SELECT product_id, to_location_id AS location_id, " + in + " AS quantity FROM stock_movements " +
+                        "WHERE to_location_id IS NOT NULL AND deleted = false AND " + dateCondition,
+                "SELECT product_id, from_location_id, " + out + " FROM stock_movements " +
+                        "WHERE from_location_id IS NOT NULL AND deleted = false AND " + dateCondition,
+                "SELECT product_id, to_location_id, " + in + " FROM stock_movement_outbox " +
+                        "WHERE to_location_id IS NOT NULL AND " + dateCondition,
+                "SELECT product_id, from_location_id, " + out + " FROM stock_movement_outbox " +
+                        "WHERE from_location_id IS NOT NULL AND " + dateCondition);
+    }
+
+    private static List<String> conditions(StockFilter filter, MapSqlParameterSource params) {
+        List<String> conditions = new ArrayList<>();
+        if (filter.warehouseId() != null) {
+            conditions.add("location_id IN (SELECT id FROM locations WHERE warehouse_id = :warehouseId)");
+            params.addValue("warehouseId", filter.warehouseId());
+        }
+        if (filter.productId() != null) {
+            conditions.add("product_id = :productId");
+            params.addValue("productId", filter.productId());
+        }
+        if (filter.locationId() != null) {
+            conditions.add("location_id = :locationId");
+            params.addValue("locationId", filter.locationId());
+        }
+        return conditions;
+    }
+
+    private static String where(List<String> conditions) {
+        return conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions);
+    }
+}
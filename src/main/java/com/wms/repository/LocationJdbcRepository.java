@@ -0,0 +1,64 @@
+package com.wms.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Plain JDBC reads of warehouses and locations for the in-memory topology, without loading entities.
+ */
+@Repository
+@RequiredArgsConstructor
+public class LocationJdbcRepository {
+
+    private static final String WAREHOUSE_SELECT = "SELECT id, code, name FROM warehouses";
+
+    private static final String LOCATION_SELECT =
+            "SELECT id, code, description, aisle, rack, bin, warehouse_id FROM locations";
+
+    private static final RowMapper<WarehouseRef> WAREHOUSE_MAPPER = (rs, rowNum) ->
+            new WarehouseRef(rs.getLong("id"), rs.getString("code"), rs.getString("name"));
+
+    private static final RowMapper<LocationRef> LOCATION_MAPPER = (rs, rowNum) ->
+            new LocationRef(rs.getLong("id"), rs.getString("code"), rs.getString("description"),
+                    rs.getString("aisle"), rs.getString("rack"), rs.getString("bin"), rs.getLong("warehouse_id"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Warehouse fields needed to validate ids and label responses.
+     */
+    public record WarehouseRef(long id, String code, String name) {
+    }
+
+    /**
+     * Location fields needed to validate ids and label responses.
+     */
+    public record LocationRef(long id, String code, String description, String aisle, String rack, String bin,
+                              long warehouseId) {
+    }
+
+    public void forEachWarehouse(Consumer<WarehouseRef> consumer) {
+        jdbcTemplate.query(WAREHOUSE_SELECT, rs -> {
+            consumer.accept(WAREHOUSE_MAPPER.mapRow(rs, 0));
+        });
+    }
+
+    public void forEachLocation(Consumer<LocationRef> consumer) {
+        jdbcTemplate.query(LOCATION_SELECT, rs -> {
+            consumer.accept(LOCATION_MAPPER.mapRow(rs, 0));
+        });
+    }
+
+    public Optional<WarehouseRef> findWarehouse(long id) {
+        return jdbcTemplate.query(WAREHOUSE_SELECT + " WHERE id = ?", WAREHOUSE_MAPPER, id).stream().findFirst();
+    }
+
+    public Optional<LocationRef> findLocation(long id) {
+        return jdbcTemplate.query(LOCATION_SELECT + " WHERE id = ?", LOCATION_MAPPER, id).stream().findFirst();
+    }
+}
@@ -0,0 +1,180 @@
+package com.wms.repository;
+
+import com.wms.enums.OrderStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Plain JDBC access to orders and their items for batch operations over many orders at once.
+ */
+@Repository
+@RequiredArgsConstructor
+public class OrderJdbcRepository {
+
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    /**
+     * Order status together with its item lines.
+     */
+    public record OrderLines(long orderId, OrderStatus status, List<ItemLine> items) {
+    }
+
+    public record ItemLine(long productId, long locationId, int quantity) {
+    }
+
+    public record LockedOrder(long orderId, long warehouseId, OrderStatus status) {
+    }
+
+    /**
+     * One order item to ship, carrying the order number for the stock movement reference.
+     */
+    public record ShipmentLine(long orderId, String orderNumber, long productId, long locationId, int quantity) {
+    }
+
+    /**
+     * Locks the given orders (in id order, so concurrent batches cannot deadlock) and loads their items
+     * with one query each.
+     *
+     * @return lines keyed by order id; ids that do not exist are absent
+     */
+    public Map<Long, OrderLines> lockAndLoadLines(Collection<Long> orderIds) {
+        Map<Long, OrderLines> result = new LinkedHashMap<>();
+        if (orderIds.isEmpty()) {
+            return result;
+        }
+
+        MapSqlParameterSource params = new MapSqlParameterSource("ids", orderIds);
+        namedParameterJdbcTemplate.query(
+                "SELECT id, status FROM orders WHERE id IN (:ids) AND deleted = false ORDER BY id FOR UPDATE",
+                params,
+                (RowCallbackHandler) rs -> {
+                    long orderId = rs.getLong("id");
+                    result.put(orderId, new OrderLines(orderId,
+                            OrderStatus.valueOf(rs.getString("status")), new ArrayList<>()));
+                });
+
+        namedParameterJdbcTemplate.query(
+                "SELECT order_id, product_id, location_id, quantity FROM order_items " +
+                        "WHERE order_id IN (:ids) AND deleted = false ORDER BY order_id, id",
+                params,
+                (RowCallbackHandler) rs -> {
+                    OrderLines lines = result.get(rs.getLong("order_id"));
+                    if (lines != null) {
+                        lines.items().add(new ItemLine(rs.getLong("product_id"), rs.getLong("location_id"),
+                                rs.getInt("quantity")));
+                    }
+                });
+        return result;
+    }
+
+    /**
+     * Warehouses that have reserved orders not assigned to any wave yet.
+     */
+    public List<Long> findWarehousesWithUnassignedReservedOrders() {
+        return namedParameterJdbcTemplate.getJdbcTemplate().queryForList(
+                "SELECT DISTINCT warehouse_id FROM orders " +
+                        "WHERE status = 'RESERVED' AND wave_id IS NULL AND deleted = false ORDER BY warehouse_id",
+                Long.class);
+    }
+
+    /**
+     * Assigns up to {@code maxOrders} unassigned reserved orders of a warehouse to the wave, oldest first.
+     * Orders locked by a concurrent planner are skipped.
+     *
+     * @return number of assigned orders
+     */
+    public int assignToWave(long waveId, long warehouseId, int maxOrders) {
+        return namedParameterJdbcTemplate.update(
+                "UPDATE orders SET wave_id = :waveId, updated_at = CURRENT_TIMESTAMP WHERE id IN (" +
+                        "SELECT id FROM orders WHERE warehouse_id = :warehouseId AND status = 'RESERVED' " +
+                        "AND wave_id IS NULL AND deleted = false ORDER BY id LIMIT :maxOrders FOR UPDATE SKIP LOCKED)",
+                new MapSqlParameterSource()
+                        .addValue("waveId", waveId)
+                        .addValue("warehouseId", warehouseId)
+                        .addValue("maxOrders", maxOrders));
+    }
+
+    /**
+     * Locks a single order so its status can be checked and changed without a concurrent shipment in between.
+     */
+    public Optional<LockedOrder> lockOrder(long orderId) {
+        return namedParameterJdbcTemplate.query(
+                "SELECT id, warehouse_id, status FROM orders WHERE id = :id AND deleted = false FOR UPDATE",
+                new MapSqlParameterSource("id", orderId),
+                (rs, rowNum) -> new LockedOrder(rs.getLong("id"), rs.getLong("warehouse_id"),
+                        OrderStatus.valueOf(rs.getString("status"))))
+                .stream().findFirst();
+    }
+
+    /**
+     * Locks the reserved orders of a wave in id order.
+     */
+    public List<Long> lockReservedOrderIdsByWave(long waveId) {
+        return namedParameterJdbcTemplate.queryForList(
+                "SELECT id FROM orders WHERE wave_id = :waveId AND status = 'RESERVED' AND deleted = false " +
+                        "ORDER BY id FOR UPDATE",
+                new MapSqlParameterSource("waveId", waveId),
+                Long.class);
+    }
+
+    /**
+     * Loads the items of all given orders with a single join.
+     */
+    public List<ShipmentLine> findShipmentLines(Collection<Long> orderIds) {
+        if (orderIds.isEmpty()) {
+            return List.of();
+        }
+
+        return namedParameterJdbcTemplate.query(
+                "SELECT o.id, o.order_number, oi.product_id, oi.location_id, oi.quantity " +
+                        "FROM orders o JOIN order_items oi ON oi.order_id = o.id AND oi.deleted = false " +
+                        "WHERE o.id IN (:ids) ORDER BY o.id, oi.id",
+                new MapSqlParameterSource("ids", orderIds),
+                (rs, rowNum) -> new ShipmentLine(rs.getLong("id"), rs.getString("order_number"),
+                        rs.getLong("product_id"), rs.getLong("location_id"), rs.getInt("quantity")));
+    }
+
+    /**
+     * Marks reserved orders as shipped today in one statement.
+     *
+     * @return number of updated orders
+     */
+    public int markShipped(Collection<Long> orderIds) {
+        if (orderIds.isEmpty()) {
+            return 0;
+        }
+
+        return namedParameterJdbcTemplate.update(
+                "UPDATE orders SET status = 'SHIPPED', shipped_date = CURRENT_DATE, updated_at = CURRENT_TIMESTAMP " +
+                        "WHERE id IN (:ids) AND status = 'RESERVED'",
+                new MapSqlParameterSource("ids", orderIds));
+    }
+
+    /**
+     * Moves pending orders to the given status in one statement.
+     *
+     * @return number of updated orders
+     */
+    public int updateStatus(Collection<Long> orderIds, OrderStatus from, OrderStatus to) {
+        if (orderIds.isEmpty()) {
+            return 0;
+        }
+
+        return namedParameterJdbcTemplate.update(
+                "UPDATE orders SET status = :to, updated_at = CURRENT_TIMESTAMP WHERE id IN (:ids) AND status = :from",
+                new MapSqlParameterSource()
+                        .addValue("ids", orderIds)
+                        .addValue("from", from.name())
+                        .addValue("to", to.name()));
+    }
+}
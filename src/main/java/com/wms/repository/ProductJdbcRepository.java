@@ -0,0 +1,68 @@
+package com.wms.repository;
+
+import com.wms.dto.request.ProductRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Plain JDBC access to the products table for bulk catalog upserts.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ProductJdbcRepository {
+
+    private static final int COLUMNS = 8;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Result of one upserted row.
+     */
+    public record UpsertedProduct(long id, String sku, boolean created) {
+    }
+
+    /**
+     * Inserts or updates the given products by SKU with a single multi-row statement. SKUs must be unique
+     * within the call. Soft-deleted products with a matching SKU are revived.
+     */
+    public List<UpsertedProduct> upsertBySku(List<ProductRequest> products) {
+        if (products.isEmpty()) {
+            return List.of();
+        }
+
+        StringBuilder sql = new StringBuilder(
+                "INSERT INTO products (sku, barcode, name, description, unit, unit_price, min_stock_level, " +
+                        "category, created_at, deleted) VALUES ");
+        Object[] args = new Object[products.size() * COLUMNS];
+        int i = 0;
+        for (ProductRequest product : products) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append("(?, ?, ?, ?, ?, ?, ?, ?, CURRENT_TIMESTAMP, false)");
+            args[i++] = product.getSku();
+            args[i++] = product.getBarcode();
+            args[i++] = product.getName();
+            args[i++] = product.getDescription();
+            args[i++] = product.getUnit();
+            args[i++] = product.getUnitPrice();
+            args[i++] = product.getMinStockLevel();
+            args[i++] = product.getCategory();
+        }
+        sql.append(" ON CONFLICT (sku) DO UPDATE SET barcode = EXCLUDED.barcode, name = EXCLUDED.name, " +
+                "description = EXCLUDED.description, unit = EXCLUDED.unit, unit_price = EXCLUDED.unit_price, " +
+                "min_stock_level = EXCLUDED.min_stock_level, category = EXCLUDED.category, deleted = false, " +
+                "updated_at = CURRENT_TIMESTAMP " +
+                "RETURNING id, sku, (xmax = 0) AS created");
+
+        List<UpsertedProduct> result = new ArrayList<>(products.size());
+        jdbcTemplate.query(sql.toString(), rs -> {
+            result.add(new UpsertedProduct(rs.getLong(1), rs.getString(2), rs.getBoolean(3)));
+        }, args);
+        return result;
+    }
+}
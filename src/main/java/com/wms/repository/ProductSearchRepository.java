@@ -0,0 +1,122 @@
+package com.wms.repository;
+
+import com.wms.dto.response.ProductResponse;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Ranked product search for the product list and type-ahead.
+ * <p>
+ * On PostgreSQL, terms of three or more characters match name and SKU substrings through the pg_trgm GIN
+ * indexes of V14, plus fuzzy name matches ({@code <%}) to tolerate typos. Shorter terms only match prefixes
+ * of SKU, barcode and name, which the text_pattern_ops indexes serve. Results are ranked exact SKU/barcode
+ * first, then SKU/barcode prefix, then name prefix, then by trigram word similarity.
+ * <p>
+ * Other databases (the H2 test profile) fall back to plain {@code LIKE} matching with the same ranking tiers.
+ */
+@Repository
+public class ProductSearchRepository {
+
+    private static final int MIN_TRIGRAM_LENGTH = 3;
+
+    private static final String COLUMNS = "SELECT p.id, p.sku, p.barcode, p.name, p.description, p.unit, " +
+            "p.unit_price, p.min_stock_level, p.category FROM products p";
+
+    private static final String PREFIX_MATCH = "lower(p.sku) LIKE :prefix OR p.barcode LIKE :barcodePrefix " +
+            "OR lower(p.name) LIKE :prefix";
+
+    private static final String SUBSTRING_MATCH = "lower(p.name) LIKE :contains OR lower(p.sku) LIKE :contains " +
+            "OR p.barcode LIKE :barcodePrefix";
+
+    private static final String TIER = "CASE WHEN lower(p.sku) = :term OR p.barcode = :barcode THEN 0 " +
+            "WHEN lower(p.sku) LIKE :prefix OR p.barcode LIKE :barcodePrefix THEN 1 " +
+            "WHEN lower(p.name) LIKE :prefix THEN 2 ELSE 3 END";
+
+    private static final RowMapper<ProductResponse> ROW_MAPPER = (rs, rowNum) -> ProductResponse.builder()
+            .id(rs.getLong("id"))
+            .sku(rs.getString("sku"))
+            .barcode(rs.getString("barcode"))
+            .name(rs.getString("name"))
+            .description(rs.getString("description"))
+            .unit(rs.getString("unit"))
+            .unitPrice(rs.getBigDecimal("unit_price"))
+            .minStockLevel(rs.getInt("min_stock_level"))
+            .category(rs.getString("category"))
+            .build();
+
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final boolean trigramSupported;
+
+    public ProductSearchRepository(JdbcTemplate jdbcTemplate, NamedParameterJdbcTemplate namedParameterJdbcTemplate) {
+        this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+        this.trigramSupported = Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName())));
+    }
+
+    /**
+     * Ranked matches with a total count. The pageable's sort is ignored, results are ordered by relevance.
+     */
+    public Page<ProductResponse> search(String term, Pageable pageable) {
+        Query query = query(term);
+        List<ProductResponse> content = find(query, pageable.getOffset(), pageable.getPageSize());
+        Long total = namedParameterJdbcTemplate.queryForObject(
+                "SELECT count(*) FROM products p WHERE " + query.where, query.params, Long.class);
+        return new PageImpl<>(content, pageable, total != null ? total : 0);
+    }
+
+    /**
+     * Ranked matches without a count query, for type-ahead. One extra row tells whether there is a next slice.
+     */
+    public Slice<ProductResponse> suggest(String term, Pageable pageable) {
+        List<ProductResponse> rows = find(query(term), pageable.getOffset(), pageable.getPageSize() + 1);
+        boolean hasNext = rows.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? rows.subList(0, pageable.getPageSize()) : rows, pageable, hasNext);
+    }
+
+    private List<ProductResponse> find(Query query, long offset, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource(query.params.getValues())
+                .addValue("limit", limit)
+                .addValue("offset", offset);
+        return namedParameterJdbcTemplate.query(COLUMNS + " WHERE " + query.where +
+                " ORDER BY " + query.orderBy + " LIMIT :limit OFFSET :offset", params, ROW_MAPPER);
+    }
+
+    private Query query(String search) {
+        String raw = search.trim();
+        String term = raw.toLowerCase(Locale.ROOT);
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("term", term)
+                .addValue("barcode", raw)
+                .addValue("prefix", escapeLike(term) + "%")
+                .addValue("barcodePrefix", escapeLike(raw) + "%")
+                .addValue("contains", "%" + escapeLike(term) + "%");
+
+        if (term.length() < MIN_TRIGRAM_LENGTH) {
+            return new Query(PREFIX_MATCH, TIER + ", p.name, p.id", params);
+        }
+        if (trigramSupported) {
+            return new Query(SUBSTRING_MATCH + " OR :term <% lower(p.name)",
+                    TIER + ", word_similarity(:term, lower(p.name)) DESC, p.id", params);
+        }
+        return new Query(SUBSTRING_MATCH, TIER + ", p.name, p.id", params);
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private record Query(String where, String orderBy, MapSqlParameterSource params) {
+    }
+}
@@ -0,0 +1,91 @@
+package com.wms.repository;
+
+import com.wms.enums.PurchaseOrderStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Plain JDBC access to purchase orders and their items for receipts, so a receipt scan does not load
+ * the order, its items and their products as entities.
+ */
+@Repository
+@RequiredArgsConstructor
+public class PurchaseOrderJdbcRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Purchase order header with its item lines, as needed to book a receipt.
+     */
+    public record ReceiptOrder(long id, String orderNumber, long warehouseId, PurchaseOrderStatus status,
+                               List<ReceiptItem> items) {
+    }
+
+    public record ReceiptItem(long itemId, long productId, long locationId, int orderedQuantity,
+                              int receivedQuantity) {
+
+        public int remainingQuantity() {
+            return orderedQuantity - receivedQuantity;
+        }
+    }
+
+    /**
+     * Locks the purchase order, so concurrent receipts of the same order are applied one after the other,
+     * and loads its items in id order.
+     */
+    public Optional<ReceiptOrder> lockAndLoadItems(long purchaseOrderId) {
+        List<ReceiptOrder> orders = jdbcTemplate.query(
+                "SELECT id, order_number, warehouse_id, status FROM purchase_orders " +
+                        "WHERE id = ? AND deleted = false FOR UPDATE",
+                (rs, rowNum) -> new ReceiptOrder(rs.getLong("id"), rs.getString("order_number"),
+                        rs.getLong("warehouse_id"), PurchaseOrderStatus.valueOf(rs.getString("status")),
+                        new ArrayList<>()),
+                purchaseOrderId);
+        if (orders.isEmpty()) {
+            return Optional.empty();
+        }
+
+        ReceiptOrder order = orders.get(0);
+        order.items().addAll(jdbcTemplate.query(
+                "SELECT id, product_id, location_id, ordered_quantity, received_quantity FROM purchase_order_items " +
+                        "WHERE purchase_order_id = ? AND deleted = false ORDER BY id",
+                (rs, rowNum) -> new ReceiptItem(rs.getLong("id"), rs.getLong("product_id"),
+                        rs.getLong("location_id"), rs.getInt("ordered_quantity"), rs.getInt("received_quantity")),
+                purchaseOrderId));
+        return Optional.of(order);
+    }
+
+    /**
+     * Adds received quantities keyed by item id in a single JDBC batch.
+     */
+    public void addReceivedQuantities(Map<Long, Integer> quantitiesByItemId) {
+        if (quantitiesByItemId.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> args = new ArrayList<>(quantitiesByItemId.size());
+        quantitiesByItemId.forEach((itemId, quantity) -> args.add(new Object[]{quantity, itemId}));
+
+        jdbcTemplate.batchUpdate(
+                "UPDATE purchase_order_items SET received_quantity = received_quantity + ?, " +
+                        "updated_at = CURRENT_TIMESTAMP WHERE id = ?",
+                args);
+    }
+
+    /**
+     * Sets the status of a purchase order; the received date is set once it is fully received.
+     */
+    public void updateStatus(long purchaseOrderId, PurchaseOrderStatus status) {
+        jdbcTemplate.update(
+                "UPDATE purchase_orders SET status = ?, " +
+                        "received_date = CASE WHEN ? THEN CURRENT_DATE ELSE received_date END, " +
+                        "updated_at = CURRENT_TIMESTAMP WHERE id = ?",
+                status.name(), status == PurchaseOrderStatus.RECEIVED, purchaseOrderId);
+    }
+}
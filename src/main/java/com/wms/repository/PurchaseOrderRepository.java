@@ -3,6 +3,8 @@ package com.wms.repository;
 import com.wms.entity.PurchaseOrder;
 import com.wms.enums.PurchaseOrderStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -13,4 +15,8 @@ public interface PurchaseOrderRepository extends JpaRepository<PurchaseOrder, Lo
     Optional<PurchaseOrder> findByOrderNumber(String orderNumber);
     List<PurchaseOrder> findByStatus(PurchaseOrderStatus status);
     List<PurchaseOrder> findByWarehouseId(Long warehouseId);
+
+    // Native FOR UPDATE: PESSIMISTIC_WRITE renders as FOR NO KEY UPDATE, which the H2 test database rejects
+    @Query(value = "SELECT * FROM purchase_orders WHERE id = :id FOR UPDATE", nativeQuery = true)
+    Optional<PurchaseOrder> findByIdForUpdate(@Param("id") Long id);
 }
\ No newline at end of file
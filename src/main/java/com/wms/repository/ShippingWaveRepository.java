@@ -0,0 +1,19 @@
+package com.wms.repository;
+
+import com.wms.entity.ShippingWave;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface ShippingWaveRepository extends JpaRepository<ShippingWave, Long> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT w FROM ShippingWave w WHERE w.id = :id")
+    Optional<ShippingWave> findByIdForUpdate(@Param("id") Long id);
+}
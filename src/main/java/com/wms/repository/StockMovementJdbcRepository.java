@@ -0,0 +1,197 @@
+package com.wms.repository;
+
+import com.wms.dto.response.StockMovementResponse;
+import com.wms.enums.StockMovementType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Plain JDBC access to stock_movements and its outbox for batched inserts and streaming reads.
+ */
+@Repository
+@RequiredArgsConstructor
+public class StockMovementJdbcRepository {
+
+    private static final int REPORT_FETCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    public record NewMovement(StockMovementType type, long productId, Long fromLocationId, Long toLocationId,
+                              int quantity, String reason, String referenceNumber) {
+    }
+
+    /**
+     * Movements recorded by one transaction, keyed by a random batch id in the outbox.
+     */
+    public record OutboxBatch(UUID batchId, LocalDateTime movementDate, List<NewMovement> movements) {
+    }
+
+    /**
+     * Outbox batches read back from the table, and the smallest row id of the last batch for the next page.
+     */
+    public record OutboxPage(List<OutboxBatch> batches, long lastId) {
+    }
+
+    /**
+     * Writes a batch to the outbox in a single JDBC batch (rewritten to multi-row inserts by the PostgreSQL
+     * driver). The outbox has no foreign keys or secondary indexes besides the batch id, so this is cheap
+     * enough for the business transaction.
+     */
+    public void appendToOutbox(OutboxBatch batch) {
+        List<Object[]> args = new ArrayList<>(batch.movements().size());
+        Timestamp movementDate = Timestamp.valueOf(batch.movementDate());
+        batch.movements().forEach(movement -> args.add(new Object[]{
+                batch.batchId(), movement.type().name(), movement.productId(), movement.fromLocationId(),
+                movement.toLocationId(), movement.quantity(), movement.reason(), movement.referenceNumber(),
+                movementDate}));
+
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO stock_movement_outbox (batch_id, type, product_id, from_location_id, to_location_id, " +
+                        "quantity, reason, reference_number, movement_date) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                args);
+    }
+
+    /**
+     * Moves batches from the outbox to stock_movements. Each batch is deleted from the outbox first and only
+     * inserted if its rows were still there, so a batch that is moved twice (from memory and from a recovery
+     * pass) is recorded once. Must run inside a transaction.
+     *
+     * @return number of movements inserted
+     */
+    public int moveFromOutbox(List<OutboxBatch> batches) {
+        if (batches.isEmpty()) {
+            return 0;
+        }
+
+        List<Object[]> batchIds = new ArrayList<>(batches.size());
+        batches.forEach(batch -> batchIds.add(new Object[]{batch.batchId()}));
+        int[] deleted = jdbcTemplate.batchUpdate("DELETE FROM stock_movement_outbox WHERE batch_id = ?", batchIds);
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> args = new ArrayList<>();
+        for (int i = 0; i < batches.size(); i++) {
+            if (deleted[i] == 0) {
+                continue;
+            }
+            OutboxBatch batch = batches.get(i);
+            Timestamp movementDate = Timestamp.valueOf(batch.movementDate());
+            batch.movements().forEach(movement -> args.add(new Object[]{
+                    movement.type().name(), movement.productId(), movement.fromLocationId(), movement.toLocationId(),
+                    movement.quantity(), movement.reason(), movement.referenceNumber(), movementDate, now}));
+        }
+
+        if (!args.isEmpty()) {
+            jdbcTemplate.batchUpdate(
+                    "INSERT INTO stock_movements (type, product_id, from_location_id, to_location_id, quantity, " +
+                            "reason, reference_number, movement_date, created_at, deleted) " +
+                            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, false)",
+                    args);
+        }
+        return args.size();
+    }
+
+    /**
+     * Reads up to {@code limit} whole outbox batches whose first row id is greater than {@code afterId}.
+     */
+    public OutboxPage findOutboxBatches(long afterId, int limit) {
+        List<Long> firstIds = new ArrayList<>();
+        List<UUID> batchIds = new ArrayList<>();
+        jdbcTemplate.query(
+                "SELECT batch_id, MIN(id) AS first_id FROM stock_movement_outbox GROUP BY batch_id " +
+                        "HAVING MIN(id) > ? ORDER BY first_id LIMIT ?",
+                (RowCallbackHandler) rs -> {
+                    batchIds.add(rs.getObject("batch_id", UUID.class));
+                    firstIds.add(rs.getLong("first_id"));
+                },
+                afterId, limit);
+
+        if (batchIds.isEmpty()) {
+            return new OutboxPage(List.of(), afterId);
+        }
+
+        Map<UUID, OutboxBatch> batches = new LinkedHashMap<>();
+        batchIds.forEach(batchId -> batches.put(batchId, null));
+        namedParameterJdbcTemplate.query(
+                "SELECT batch_id, type, product_id, from_location_id, to_location_id, quantity, reason, " +
+                        "reference_number, movement_date FROM stock_movement_outbox " +
+                        "WHERE batch_id IN (:batchIds) ORDER BY id",
+                Map.of("batchIds", batchIds),
+                (RowCallbackHandler) rs -> {
+                    UUID batchId = rs.getObject("batch_id", UUID.class);
+                    OutboxBatch batch = batches.get(batchId);
+                    if (batch == null) {
+                        batch = new OutboxBatch(batchId, rs.getTimestamp("movement_date").toLocalDateTime(),
+                                new ArrayList<>());
+                        batches.put(batchId, batch);
+                    }
+                    batch.movements().add(new NewMovement(
+                            StockMovementType.valueOf(rs.getString("type")),
+                            rs.getLong("product_id"),
+                            rs.getObject("from_location_id", Long.class),
+                            rs.getObject("to_location_id", Long.class),
+                            rs.getInt("quantity"),
+                            rs.getString("reason"),
+                            rs.getString("reference_number")));
+                });
+
+        // A batch moved concurrently between the two queries has no rows left
+        List<OutboxBatch> loaded = batches.values().stream().filter(Objects::nonNull).toList();
+        return new OutboxPage(loaded, firstIds.get(firstIds.size() - 1));
+    }
+
+    /**
+     * Streams movements with {@code from <= movement_date < to}, with product and location codes joined in, to
+     * the consumer one row at a time. Uses a forward-only cursor with a fetch size, so it must run inside a transaction for the
+     * PostgreSQL driver to fetch in chunks instead of buffering the whole result.
+     */
+    public void streamByMovementDate(LocalDateTime from, LocalDateTime to, Consumer<StockMovementResponse> consumer) {
+        jdbcTemplate.query(
+                con -> {
+                    var ps = con.prepareStatement(
+                            "SELECT sm.id, sm.type, sm.product_id, p.name AS product_name, " +
+                                    "sm.from_location_id, fl.code AS from_location_code, " +
+                                    "sm.to_location_id, tl.code AS to_location_code, " +
+                                    "sm.quantity, sm.reason, sm.movement_date, sm.reference_number " +
+                                    "FROM stock_movements sm " +
+                                    "JOIN products p ON p.id = sm.product_id " +
+                                    "LEFT JOIN locations fl ON fl.id = sm.from_location_id " +
+                                    "LEFT JOIN locations tl ON tl.id = sm.to_location_id " +
+                                    "WHERE sm.movement_date >= ? AND sm.movement_date < ? AND sm.deleted = false " +
+                                    "ORDER BY sm.movement_date, sm.id",
+                            ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                    ps.setFetchSize(REPORT_FETCH_SIZE);
+                    ps.setTimestamp(1, Timestamp.valueOf(from));
+                    ps.setTimestamp(2, Timestamp.valueOf(to));
+                    return ps;
+                },
+                (RowCallbackHandler) rs -> consumer.accept(StockMovementResponse.builder()
+                        .id(rs.getLong("id"))
+                        .type(rs.getString("type"))
+                        .productId(rs.getLong("product_id"))
+                        .productName(rs.getString("product_name"))
+                        .fromLocationId(rs.getObject("from_location_id", Long.class))
+                        .fromLocationCode(rs.getString("from_location_code"))
+                        .toLocationId(rs.getObject("to_location_id", Long.class))
+                        .toLocationCode(rs.getString("to_location_code"))
+                        .quantity(rs.getInt("quantity"))
+                        .reason(rs.getString("reason"))
+                        .movementDate(rs.getTimestamp("movement_date").toLocalDateTime())
+                        .referenceNumber(rs.getString("reference_number"))
+                        .build()));
+    }
+}
@@ -15,8 +15,9 @@ public interface StockMovementRepository extends JpaRepository<StockMovement, Lo
     List<StockMovement> findByProductId(Long productId);
     List<StockMovement> findByType(StockMovementType type);
 
-    @Query("SELECT sm FROM StockMovement sm WHERE sm.movementDate BETWEEN :from AND :to")
-    List<StockMovement> findByMovementDateBetween(
+    // Movements with from <= movementDate < to
+    @Query("SELECT sm FROM StockMovement sm WHERE sm.movementDate >= :from AND sm.movementDate < :to")
+    List<StockMovement> findByMovementDateRange(
             @Param("from") LocalDateTime from,
             @Param("to") LocalDateTime to
     );
@@ -0,0 +1,62 @@
+package com.wms.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Plain JDBC access to stock_reservations for batched inserts and set-based releases.
+ */
+@Repository
+@RequiredArgsConstructor
+public class StockReservationJdbcRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    public record NewReservation(long orderId, long inventoryId, int quantity) {
+    }
+
+    /**
+     * Inserts all reservations in a single JDBC batch (rewritten to multi-row inserts by the PostgreSQL driver).
+     */
+    public void insertAll(List<NewReservation> reservations) {
+        if (reservations.isEmpty()) {
+            return;
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> args = new ArrayList<>(reservations.size());
+        reservations.forEach(reservation -> args.add(new Object[]{
+                reservation.orderId(), reservation.inventoryId(), reservation.quantity(), now, now}));
+
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO stock_reservations (order_id, inventory_id, quantity, reserved_at, released, created_at, deleted) " +
+                        "VALUES (?, ?, ?, ?, false, ?, false)",
+                args);
+    }
+
+    /**
+     * Releases every open reservation of the given orders in one statement.
+     *
+     * @return number of released reservations
+     */
+    public int releaseByOrderIds(Collection<Long> orderIds) {
+        if (orderIds.isEmpty()) {
+            return 0;
+        }
+
+        return namedParameterJdbcTemplate.update(
+                "UPDATE stock_reservations SET released = true, updated_at = CURRENT_TIMESTAMP " +
+                        "WHERE order_id IN (:ids) AND released = false",
+                new MapSqlParameterSource("ids", orderIds));
+    }
+}
@@ -0,0 +1,454 @@
+package com.wms.service;
+
+import com.wms.entity.Inventory;
+import com.wms.exception.BusinessRuleException;
+import com.wms.exception.InsufficientStockException;
+import com.wms.repository.InventoryJdbcRepository;
+import com.wms.repository.InventoryJdbcRepository.ProductLocation;
+import com.wms.repository.InventoryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory available-to-promise (ATP) ledger in front of the inventory table.
+ * <p>
+ * Each (product, location) pair owns a slot whose promisable quantity is a primitive {@code long}
+ * decremented with compare-and-set, so two concurrent reservations on the same SKU can never both
+ * pass the availability check. Committed reservations are written back to
+ * {@code inventory.reserved_quantity} in batches by {@link #flush()}; the unreleased rows in
+ * {@code stock_reservations} stay the durable record and {@link #rebuild()} uses them on startup
+ * to repair reserved quantities that were lost before they could be written back.
+ */
+@Component
+public class AvailableToPromiseLedger {
+
+    private static final Logger logger = LoggerFactory.getLogger(AvailableToPromiseLedger.class);
+
+    private static final int SHARD_COUNT = 32;
+
+    private final InventoryRepository inventoryRepository;
+    private final InventoryJdbcRepository inventoryJdbcRepository;
+    private final TransactionTemplate writeBehindTransaction;
+    private final Shard[] shards = new Shard[SHARD_COUNT];
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    public AvailableToPromiseLedger(InventoryRepository inventoryRepository,
+                                    InventoryJdbcRepository inventoryJdbcRepository,
+                                    PlatformTransactionManager transactionManager) {
+        this.inventoryRepository = inventoryRepository;
+        this.inventoryJdbcRepository = inventoryJdbcRepository;
+        this.writeBehindTransaction = new TransactionTemplate(transactionManager);
+        this.writeBehindTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        for (int i = 0; i < SHARD_COUNT; i++) {
+            shards[i] = new Shard();
+        }
+    }
+
+    /**
+     * Reserves quantity for an order line. The reservation is written back to the inventory table after
+     * the surrounding transaction commits and handed back to the ledger if it rolls back.
+     *
+     * @return id of the inventory row the reservation was taken from
+     */
+    public long reserve(long productId, long locationId, int quantity) {
+        Slot slot = take(productId, locationId, quantity);
+        onCompletion(() -> {
+            slot.addPendingReserved(quantity);
+            markDirty(slot);
+        }, () -> slot.add(quantity));
+        return slot.inventoryId;
+    }
+
+    /**
+     * Reserves all lines of an order or none of them. Quantity taken for earlier lines is handed back
+     * immediately when a later line fails, so callers can carry on with other orders in the same transaction.
+     *
+     * @return inventory ids in the order of the given lines
+     */
+    public long[] reserveAll(List<Line> lines) {
+        Slot[] taken = new Slot[lines.size()];
+        try {
+            for (int i = 0; i < lines.size(); i++) {
+                Line line = lines.get(i);
+                taken[i] = take(line.productId(), line.locationId(), line.quantity());
+            }
+        } catch (RuntimeException ex) {
+            for (int i = 0; i < taken.length && taken[i] != null; i++) {
+                taken[i].add(lines.get(i).quantity());
+            }
+            throw ex;
+        }
+
+        long[] inventoryIds = new long[taken.length];
+        for (int i = 0; i < taken.length; i++) {
+            inventoryIds[i] = taken[i].inventoryId;
+        }
+
+        onCompletion(() -> {
+            for (int i = 0; i < taken.length; i++) {
+                taken[i].addPendingReserved(lines.get(i).quantity());
+                markDirty(taken[i]);
+            }
+        }, () -> {
+            for (int i = 0; i < taken.length; i++) {
+                taken[i].add(lines.get(i).quantity());
+            }
+        });
+        return inventoryIds;
+    }
+
+    /**
+     * Loads every slot the given lines need that is not tracked yet with one set-based query,
+     * instead of one lookup per line on first access.
+     */
+    public void preload(Collection<Line> lines) {
+        Set<ProductLocation> missing = new HashSet<>();
+        for (Line line : lines) {
+            Key key = new Key(line.productId(), line.locationId());
+            if (!shardFor(key).slots.containsKey(key)) {
+                missing.add(new ProductLocation(line.productId(), line.locationId()));
+            }
+        }
+
+        if (missing.isEmpty()) {
+            return;
+        }
+
+        flushLock.lock();
+        try {
+            inventoryJdbcRepository.forEachAvailability(missing, (inventoryId, productId, locationId, available) -> {
+                Key key = new Key(productId, locationId);
+                shardFor(key).slots.putIfAbsent(key, new Slot(key, inventoryId, available));
+            });
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Takes quantity out of ATP for an on-hand decrement such as a transfer out of a location. The caller
+     * updates {@code inventory.quantity} itself, so nothing is written back on commit.
+     */
+    public void consume(long productId, long locationId, int quantity) {
+        Slot slot = take(productId, locationId, quantity);
+        onCompletion(() -> { }, () -> slot.add(quantity));
+    }
+
+    /**
+     * Applies an on-hand increase or decrease that has already been validated elsewhere (receipts,
+     * transfers into a location, upward adjustments) once the surrounding transaction commits.
+     * Only the slot loaded before this call takes the delta; a slot loaded in between may already have read the
+     * committed row, so it is dropped and reloaded instead.
+     */
+    public void applyOnHandDelta(long productId, long locationId, long delta) {
+        Key key = new Key(productId, locationId);
+        Slot slot = shardFor(key).slots.get(key);
+        onCompletion(() -> {
+            if (slot != null && shardFor(key).slots.get(key) == slot) {
+                slot.add(delta);
+                return;
+            }
+            // Loads hold flushLock, so a load that read the row before this commit has finished here
+            flushLock.lock();
+            try {
+                if (shardFor(key).slots.containsKey(key)) {
+                    drop(List.of(key));
+                }
+            } finally {
+                flushLock.unlock();
+            }
+        }, () -> { });
+    }
+
+    /**
+     * Drops the slot for a row that was overwritten with absolute values, so the next access reloads it.
+     * Pending reservations of the dropped slot are written back before the row can be reloaded.
+     */
+    public void invalidate(long productId, long locationId) {
+        Key key = new Key(productId, locationId);
+        onCompletion(() -> drop(List.of(key)), () -> { });
+    }
+
+    /**
+     * Bulk variant of {@link #invalidate(long, long)} that drops all slots and flushes once.
+     */
+    public void invalidateAll(Collection<ProductLocation> pairs) {
+        List<Key> keys = pairs.stream().map(pair -> new Key(pair.productId(), pair.locationId())).toList();
+        onCompletion(() -> drop(keys), () -> { });
+    }
+
+    /**
+     * Currently promisable quantity, if the pair is tracked by the ledger.
+     */
+    public OptionalLong available(long productId, long locationId) {
+        Key key = new Key(productId, locationId);
+        Slot slot = shardFor(key).slots.get(key);
+        return slot != null ? OptionalLong.of(slot.available()) : OptionalLong.empty();
+    }
+
+    /**
+     * Writes all committed but unflushed reservations back to the inventory table in one JDBC batch.
+     * Runs in its own transaction so callers that flush before touching reserved quantities see the result.
+     */
+    @Scheduled(fixedDelayString = "${app.stock.ledger.flush-interval-ms:250}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            List<Slot> drained = new ArrayList<>();
+            Map<Long, Long> deltas = new HashMap<>();
+            for (Shard shard : shards) {
+                Slot slot;
+                while ((slot = shard.dirty.poll()) != null) {
+                    slot.clearDirty();
+                    long delta = slot.drainPendingReserved();
+                    if (delta != 0) {
+                        drained.add(slot);
+                        deltas.merge(slot.inventoryId, delta, Long::sum);
+                    }
+                }
+            }
+
+            if (deltas.isEmpty()) {
+                return;
+            }
+
+            try {
+                writeBehindTransaction.executeWithoutResult(status ->
+                        inventoryJdbcRepository.addReservedQuantities(deltas));
+            } catch (RuntimeException ex) {
+                logger.error("Could not write back {} reserved quantity deltas, retrying on next flush", deltas.size(), ex);
+                requeue(drained, deltas);
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Repairs reserved quantities from unreleased stock reservations and reloads every slot from the
+     * inventory table.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        flushLock.lock();
+        try {
+            Integer repaired = writeBehindTransaction.execute(status ->
+                    inventoryJdbcRepository.repairReservedQuantities());
+
+            for (Shard shard : shards) {
+                shard.slots.clear();
+            }
+
+            long[] loaded = new long[1];
+            inventoryJdbcRepository.forEachAvailability((inventoryId, productId, locationId, available) -> {
+                Key key = new Key(productId, locationId);
+                shardFor(key).slots.put(key, new Slot(key, inventoryId, available));
+                loaded[0]++;
+            });
+
+            logger.info("ATP ledger rebuilt with {} slots, {} inventory rows repaired", loaded[0], repaired);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private Slot take(long productId, long locationId, int quantity) {
+        Slot slot = slotFor(productId, locationId);
+        if (slot == null) {
+            throw new BusinessRuleException("No inventory found for product in location");
+        }
+
+        if (!slot.tryTake(quantity)) {
+            throw new InsufficientStockException("Insufficient stock for product " + productId
+                    + " in location " + locationId + ". Available: " + slot.available() + ", Required: " + quantity);
+        }
+        return slot;
+    }
+
+    private Slot slotFor(long productId, long locationId) {
+        Key key = new Key(productId, locationId);
+        Shard shard = shardFor(key);
+        Slot slot = shard.slots.get(key);
+        if (slot != null) {
+            return slot;
+        }
+
+        // Loads wait for a running flush, so a dropped slot's pending reservations are in the row read here
+        flushLock.lock();
+        try {
+            slot = shard.slots.get(key);
+            if (slot != null) {
+                return slot;
+            }
+
+            Inventory inventory =
+                    inventoryRepository.findByProductIdAndLocationId(productId, locationId).orElse(null);
+            if (inventory == null) {
+                return null;
+            }
+
+            Slot loaded = new Slot(key, inventory.getId(), inventory.getAvailableQuantity());
+            shard.slots.put(key, loaded);
+            return loaded;
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    // Removes the slots and writes back their pending reservations while holding flushLock, so no reload can
+    // read the rows in between
+    private void drop(List<Key> keys) {
+        flushLock.lock();
+        try {
+            for (Key key : keys) {
+                shardFor(key).slots.remove(key);
+            }
+            flush();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void markDirty(Slot slot) {
+        if (slot.markDirty()) {
+            shardFor(slot.key).dirty.add(slot);
+        }
+    }
+
+    private void requeue(List<Slot> drained, Map<Long, Long> deltas) {
+        Map<Long, Long> remaining = new HashMap<>(deltas);
+        for (Slot slot : drained) {
+            Long delta = remaining.remove(slot.inventoryId);
+            if (delta != null) {
+                slot.addPendingReserved(delta);
+                markDirty(slot);
+            }
+        }
+    }
+
+    private Shard shardFor(Key key) {
+        return shards[Math.floorMod(key.hashCode(), SHARD_COUNT)];
+    }
+
+    private static void onCompletion(Runnable onCommit, Runnable onRollback) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            onCommit.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    onCommit.run();
+                } else if (status == STATUS_ROLLED_BACK) {
+                    onRollback.run();
+                } else {
+                    logger.warn("Transaction outcome unknown, ATP ledger will be corrected on next rebuild");
+                }
+            }
+        });
+    }
+
+    /**
+     * One order line to reserve.
+     */
+    public record Line(long productId, long locationId, int quantity) {
+    }
+
+    private record Key(long productId, long locationId) {
+    }
+
+    private static final class Shard {
+        private final ConcurrentHashMap<Key, Slot> slots = new ConcurrentHashMap<>();
+        private final ConcurrentLinkedQueue<Slot> dirty = new ConcurrentLinkedQueue<>();
+    }
+
+    private static final class Slot {
+
+        private static final VarHandle AVAILABLE;
+        private static final VarHandle PENDING_RESERVED;
+        private static final VarHandle DIRTY;
+
+        static {
+            try {
+                MethodHandles.Lookup lookup = MethodHandles.lookup();
+                AVAILABLE = lookup.findVarHandle(Slot.class, "available", long.class);
+                PENDING_RESERVED = lookup.findVarHandle(Slot.class, "pendingReserved", long.class);
+                DIRTY = lookup.findVarHandle(Slot.class, "dirty", boolean.class);
+            } catch (ReflectiveOperationException ex) {
+                throw new ExceptionInInitializerError(ex);
+            }
+        }
+
+        private final Key key;
+        private final long inventoryId;
+        private volatile long available;
+        private volatile long pendingReserved;
+        private volatile boolean dirty;
+
+        private Slot(Key key, long inventoryId, long available) {
+            this.key = key;
+            this.inventoryId = inventoryId;
+            this.available = available;
+        }
+
+        private boolean tryTake(long quantity) {
+            long current;
+            do {
+                current = available;
+                if (current < quantity) {
+                    return false;
+                }
+            } while (!AVAILABLE.compareAndSet(this, current, current - quantity));
+            return true;
+        }
+
+        private void add(long delta) {
+            AVAILABLE.getAndAdd(this, delta);
+        }
+
+        private long available() {
+            return available;
+        }
+
+        private void addPendingReserved(long quantity) {
+            PENDING_RESERVED.getAndAdd(this, quantity);
+        }
+
+        private long drainPendingReserved() {
+            return (long) PENDING_RESERVED.getAndSet(this, 0L);
+        }
+
+        private boolean markDirty() {
+            return DIRTY.compareAndSet(this, false, true);
+        }
+
+        private void clearDirty() {
+            dirty = false;
+        }
+    }
+}
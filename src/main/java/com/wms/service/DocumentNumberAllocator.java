@@ -0,0 +1,135 @@
+package com.wms.service;
+
+import com.wms.repository.DocumentNumberJdbcRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Allocates readable order, purchase order and wave numbers such as {@code ORD-3-20261018-000042}: prefix,
+ * warehouse id, day and a counter that starts at 1 for every prefix, warehouse and day.
+ * <p>
+ * Numbers are leased from {@code document_number_blocks} in blocks of {@code app.numbering.block-size} in a short
+ * transaction of their own, then handed out from memory with one atomic increment, so allocation takes no lock
+ * and no query except when a block runs out. Numbers left in a block when the application stops are skipped,
+ * so restarts leave gaps of at most one block per counter but never reuse a number.
+ */
+@Component
+public class DocumentNumberAllocator {
+
+    public static final String ORDER = "ORD";
+    public static final String PURCHASE_ORDER = "PO";
+    public static final String WAVE = "WAVE";
+
+    private static final int MAX_LEASE_ATTEMPTS = 3;
+    private static final int MIN_DIGITS = 6;
+
+    private final DocumentNumberJdbcRepository documentNumberJdbcRepository;
+    private final TransactionTemplate leaseTransaction;
+    private final int blockSize;
+    private final Map<Key, Sequence> sequences = new ConcurrentHashMap<>();
+    private final Counter leases;
+
+    public DocumentNumberAllocator(DocumentNumberJdbcRepository documentNumberJdbcRepository,
+                                   PlatformTransactionManager transactionManager,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${app.numbering.block-size:1000}") int blockSize) {
+        this.documentNumberJdbcRepository = documentNumberJdbcRepository;
+        // Leases commit on their own, so the counter row is not locked for the rest of the caller's transaction
+        this.leaseTransaction = new TransactionTemplate(transactionManager);
+        this.leaseTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.blockSize = blockSize;
+        this.leases = Counter.builder("wms.numbering.leases")
+                .description("Document number blocks leased from the database")
+                .register(meterRegistry);
+    }
+
+    public String next(String prefix, long warehouseId) {
+        Key key = new Key(prefix, warehouseId, LocalDate.now());
+        Sequence sequence = sequences.get(key);
+        if (sequence == null) {
+            // First number of a new day: counters of earlier days are not needed any more
+            sequences.keySet().removeIf(existing -> existing.day().isBefore(key.day()));
+            sequence = sequences.computeIfAbsent(key, Sequence::new);
+        }
+        return sequence.format(allocate(key, sequence));
+    }
+
+    private long allocate(Key key, Sequence sequence) {
+        while (true) {
+            Block block = sequence.block;
+            if (block != null) {
+                long value = block.next().getAndIncrement();
+                if (value < block.end()) {
+                    return value;
+                }
+            }
+
+            sequence.leaseLock.lock();
+            try {
+                // Only the first thread to find the block exhausted leases the next one
+                if (sequence.block == block) {
+                    sequence.block = lease(key);
+                }
+            } finally {
+                sequence.leaseLock.unlock();
+            }
+        }
+    }
+
+    private Block lease(Key key) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                long first = leaseTransaction.execute(status -> documentNumberJdbcRepository.lease(
+                        key.prefix(), key.warehouseId(), key.day(), blockSize));
+                leases.increment();
+                return new Block(new AtomicLong(first), first + blockSize);
+            } catch (DuplicateKeyException ex) {
+                // Another instance created the day's counter at the same time; lease from it instead
+                if (attempt == MAX_LEASE_ATTEMPTS) {
+                    throw ex;
+                }
+            }
+        }
+    }
+
+    private record Key(String prefix, long warehouseId, LocalDate day) {
+    }
+
+    private record Block(AtomicLong next, long end) {
+    }
+
+    private static final class Sequence {
+
+        private final String stem;
+        private final ReentrantLock leaseLock = new ReentrantLock();
+        private volatile Block block;
+
+        Sequence(Key key) {
+            this.stem = key.prefix() + "-" + key.warehouseId() + "-"
+                    + key.day().format(DateTimeFormatter.BASIC_ISO_DATE) + "-";
+        }
+
+        String format(long value) {
+            String digits = Long.toString(value);
+            StringBuilder number = new StringBuilder(stem.length() + Math.max(digits.length(), MIN_DIGITS))
+                    .append(stem);
+            for (int i = digits.length(); i < MIN_DIGITS; i++) {
+                number.append('0');
+            }
+            return number.append(digits).toString();
+        }
+    }
+}
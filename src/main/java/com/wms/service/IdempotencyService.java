@@ -0,0 +1,196 @@
+package com.wms.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.wms.repository.IdempotencyKeyJdbcRepository;
+import com.wms.repository.IdempotencyKeyJdbcRepository.StoredRequest;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Makes stock-mutating requests safe to retry with an {@code Idempotency-Key} header.
+ * <p>
+ * The key is claimed in {@code idempotency_keys} in the same transaction as the operation and the JSON result
+ * is stored with it, so a key is recorded exactly when the operation committed. A retry is answered from a
+ * bounded in-memory cache of recent keys, or from one lookup of the table, without running the operation again;
+ * a retry racing with the original waits for it on the key's row and then replays its result. Failed operations
+ * roll back the key, so they can be retried. Keys are scoped per operation and user, and reusing a key for a
+ * different request body is rejected.
+ * <p>
+ * Keys are kept for {@code app.idempotency.ttl-hours} and purged by {@link #purgeExpired()}.
+ * {@code wms.idempotency.lookups} counts keyed requests by result (cache, database, miss).
+ */
+@Component
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyService.class);
+
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final int PURGE_BATCH = 10_000;
+
+    private final IdempotencyKeyJdbcRepository idempotencyKeyJdbcRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Cache<ScopedKey, StoredRequest> recent;
+    private final Duration ttl;
+    private final Counter cacheHits;
+    private final Counter databaseHits;
+    private final Counter misses;
+
+    public IdempotencyService(IdempotencyKeyJdbcRepository idempotencyKeyJdbcRepository,
+                              PlatformTransactionManager transactionManager,
+                              ObjectMapper objectMapper,
+                              MeterRegistry meterRegistry,
+                              @Value("${app.idempotency.cache.max-size:100000}") long maxSize,
+                              @Value("${app.idempotency.ttl-hours:24}") long ttlHours) {
+        this.idempotencyKeyJdbcRepository = idempotencyKeyJdbcRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.ttl = Duration.ofHours(ttlHours);
+        this.recent = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+
+        this.cacheHits = lookups(meterRegistry, "cache");
+        this.databaseHits = lookups(meterRegistry, "database");
+        this.misses = lookups(meterRegistry, "miss");
+        Gauge.builder("wms.idempotency.cache.size", recent, Cache::estimatedSize)
+                .description("Idempotency keys held in memory")
+                .register(meterRegistry);
+    }
+
+    private static Counter lookups(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("wms.idempotency.lookups")
+                .description("Requests carrying an Idempotency-Key, by where the key was found")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs the operation once per key. Without a key the operation simply runs.
+     *
+     * @param operation  name of the operation, part of the key scope and of the request fingerprint
+     * @param request    request payload; a retry must send the same payload
+     * @param resultType type the stored result is read back as
+     */
+    public <T> T execute(String key, String operation, Object request, Class<T> resultType, Supplier<T> action) {
+        if (key == null || key.isBlank()) {
+            return action.get();
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException(HEADER + " must be at most " + MAX_KEY_LENGTH + " characters");
+        }
+
+        ScopedKey scopedKey = new ScopedKey(operation + ":" + currentUser(), key);
+        byte[] requestHash = fingerprint(operation, request);
+
+        StoredRequest cached = recent.getIfPresent(scopedKey);
+        if (cached != null) {
+            cacheHits.increment();
+            return replay(cached, requestHash, resultType);
+        }
+        Optional<StoredRequest> stored = idempotencyKeyJdbcRepository.find(scopedKey.scope(), key);
+        if (stored.isPresent()) {
+            databaseHits.increment();
+            recent.put(scopedKey, stored.get());
+            return replay(stored.get(), requestHash, resultType);
+        }
+        misses.increment();
+
+        Outcome<T> outcome = transactionTemplate.execute(status -> {
+            if (!idempotencyKeyJdbcRepository.claim(scopedKey.scope(), key, requestHash)) {
+                // A request with the same key committed while we waited for its row
+                return new Outcome<T>(null, idempotencyKeyJdbcRepository.find(scopedKey.scope(), key)
+                        .orElseThrow(() -> new IllegalStateException("Claimed idempotency key disappeared")), true);
+            }
+            T result = action.get();
+            StoredRequest completed = new StoredRequest(requestHash, serialize(result));
+            idempotencyKeyJdbcRepository.complete(scopedKey.scope(), key, completed.response());
+            return new Outcome<>(result, completed, false);
+        });
+
+        recent.put(scopedKey, outcome.stored());
+        return outcome.replayed() ? replay(outcome.stored(), requestHash, resultType) : outcome.result();
+    }
+
+    @Scheduled(initialDelayString = "${app.idempotency.purge-interval-ms:3600000}",
+            fixedDelayString = "${app.idempotency.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(ttl);
+        int purged = 0;
+        int deleted;
+        do {
+            deleted = idempotencyKeyJdbcRepository.deleteOlderThan(cutoff, PURGE_BATCH);
+            purged += deleted;
+        } while (deleted == PURGE_BATCH);
+
+        if (purged > 0) {
+            logger.info("Purged {} expired idempotency keys", purged);
+        }
+    }
+
+    private <T> T replay(StoredRequest stored, byte[] requestHash, Class<T> resultType) {
+        if (!Arrays.equals(stored.requestHash(), requestHash)) {
+            throw new IllegalArgumentException(HEADER + " was already used for a different request");
+        }
+        try {
+            return objectMapper.readValue(stored.response(), resultType);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Stored idempotent response cannot be read", ex);
+        }
+    }
+
+    private String serialize(Object result) {
+        try {
+            return objectMapper.writeValueAsString(result);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Idempotent response cannot be stored", ex);
+        }
+    }
+
+    private byte[] fingerprint(String operation, Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(operation.getBytes(StandardCharsets.UTF_8));
+            digest.update(objectMapper.writeValueAsBytes(request));
+            return digest.digest();
+        } catch (NoSuchAlgorithmException | JsonProcessingException ex) {
+            throw new IllegalStateException("Request fingerprint cannot be computed", ex);
+        }
+    }
+
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null ? authentication.getName() : "anonymous";
+    }
+
+    private record ScopedKey(String scope, String key) {
+    }
+
+    private record Outcome<T>(T result, StoredRequest stored, boolean replayed) {
+    }
+}
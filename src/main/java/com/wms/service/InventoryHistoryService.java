@@ -0,0 +1,180 @@
+package com.wms.service;
+
+import com.wms.dto.response.InventoryAsOfResponse;
+import com.wms.dto.response.InventoryAsOfResponse.StockLine;
+import com.wms.repository.InventoryJdbcRepository.ProductLocation;
+import com.wms.repository.InventorySnapshotJdbcRepository;
+import com.wms.repository.InventorySnapshotJdbcRepository.Snapshot;
+import com.wms.repository.InventorySnapshotJdbcRepository.StockFilter;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Answers "what was on hand at this time" from inventory snapshots and stock movements.
+ * <p>
+ * {@link #takeScheduledSnapshot()} stores the on-hand stock every {@code app.inventory.snapshot.interval-ms}.
+ * A query starts from the snapshot nearest to the requested time and replays only the movements in between:
+ * forward from an earlier snapshot, or backward from a later one or from current inventory. The movement range is
+ * split into up to {@code app.inventory.as-of.parallelism} time slices summed concurrently; net changes add up
+ * in any order, so slices need no coordination and each is one range scan of {@code idx_stock_movements_date}.
+ * <p>
+ * Only stock changes recorded as movements are replayed, so every on-hand change, including direct inventory edits
+ * and imports, records a directional adjustment. A change without a movement would be back-dated to every earlier
+ * time, and adjustments recorded before adjustments carried a direction count as increases.
+ */
+@Service
+public class InventoryHistoryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(InventoryHistoryService.class);
+
+    // Shorter ranges are not worth a separate query
+    private static final Duration MIN_SLICE = Duration.ofHours(1);
+
+    private final InventorySnapshotJdbcRepository inventorySnapshotJdbcRepository;
+    private final TransactionTemplate snapshotTransaction;
+    private final int parallelism;
+    private final Duration settleTime;
+    private final ExecutorService executor;
+
+    public InventoryHistoryService(InventorySnapshotJdbcRepository inventorySnapshotJdbcRepository,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${app.inventory.as-of.parallelism:4}") int parallelism,
+                                   @Value("${app.inventory.snapshot.settle-ms:600000}") long settleMs) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("app.inventory.as-of.parallelism must be at least 1");
+        }
+        this.inventorySnapshotJdbcRepository = inventorySnapshotJdbcRepository;
+        this.snapshotTransaction = new TransactionTemplate(transactionManager);
+        this.parallelism = parallelism;
+        this.settleTime = Duration.ofMillis(settleMs);
+        this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("inventory-as-of-", 0).factory());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Stores a snapshot as of {@code app.inventory.snapshot.settle-ms} ago, so that every transaction that
+     * recorded movements up to that time has committed.
+     */
+    @Scheduled(initialDelayString = "${app.inventory.snapshot.interval-ms:86400000}",
+            fixedDelayString = "${app.inventory.snapshot.interval-ms:86400000}")
+    public void takeScheduledSnapshot() {
+        takeSnapshot(LocalDateTime.now().minus(settleTime));
+    }
+
+    /**
+     * Stores the on-hand stock as of a past time, derived from current inventory and the movements since.
+     *
+     * @return number of stored lines
+     */
+    public int takeSnapshot(LocalDateTime takenAt) {
+        long started = System.nanoTime();
+        int lines = snapshotTransaction.execute(status -> inventorySnapshotJdbcRepository.createSnapshot(takenAt));
+        logger.info("Stored inventory snapshot as of {} with {} lines in {} ms", takenAt, lines,
+                Duration.ofNanos(System.nanoTime() - started).toMillis());
+        return lines;
+    }
+
+    public InventoryAsOfResponse getInventoryAsOf(LocalDateTime asOf, Long warehouseId, Long productId,
+                                                  Long locationId) {
+        StockFilter filter = new StockFilter(warehouseId, productId, locationId);
+        LocalDateTime now = LocalDateTime.now();
+        Optional<Snapshot> before = inventorySnapshotJdbcRepository.findLatestAtOrBefore(asOf);
+        Optional<Snapshot> after = asOf.isBefore(now)
+                ? inventorySnapshotJdbcRepository.findEarliestAfter(asOf)
+                : Optional.empty();
+
+        Duration forward = before.map(snapshot -> Duration.between(snapshot.takenAt(), asOf)).orElse(null);
+        Duration backward = Duration.between(asOf, after.map(Snapshot::takenAt).orElse(now));
+
+        Snapshot start;
+        Map<ProductLocation, Long> quantities;
+        if (forward != null && forward.compareTo(backward) <= 0) {
+            start = before.get();
+            quantities = replay(start, start.takenAt(), asOf, false, filter);
+        } else if (after.isPresent()) {
+            start = after.get();
+            quantities = replay(start, asOf, start.takenAt(), true, filter);
+        } else {
+            // Nearer to now than to any snapshot: current inventory minus the movements since, in one statement
+            start = null;
+            quantities = inventorySnapshotJdbcRepository.sumOnHandAsOf(asOf, filter);
+        }
+
+        List<StockLine> lines = quantities.entrySet().stream()
+                .filter(entry -> entry.getValue() != 0)
+                .sorted(Map.Entry.comparingByKey(Comparator.comparingLong(ProductLocation::productId)
+                        .thenComparingLong(ProductLocation::locationId)))
+                .map(entry -> StockLine.builder()
+                        .productId(entry.getKey().productId())
+                        .locationId(entry.getKey().locationId())
+                        .quantity(entry.getValue())
+                        .build())
+                .toList();
+
+        return InventoryAsOfResponse.builder()
+                .asOf(asOf)
+                .snapshotTakenAt(start != null ? start.takenAt() : null)
+                .lines(lines)
+                .build();
+    }
+
+    // Snapshot lines plus the movements in (from, to], loaded concurrently
+    private Map<ProductLocation, Long> replay(Snapshot snapshot, LocalDateTime from, LocalDateTime to,
+                                             boolean reverse, StockFilter filter) {
+        Future<Map<ProductLocation, Long>> base =
+                executor.submit(() -> inventorySnapshotJdbcRepository.findLines(snapshot.id(), filter));
+
+        List<Future<Map<ProductLocation, Long>>> slices = new ArrayList<>();
+        long slicesNeeded = Math.max(1, Math.min(parallelism, Duration.between(from, to).dividedBy(MIN_SLICE)));
+        Duration step = Duration.between(from, to).dividedBy(slicesNeeded);
+        for (int i = 0; i < slicesNeeded; i++) {
+            LocalDateTime sliceFrom = from.plus(step.multipliedBy(i));
+            LocalDateTime sliceTo = i == slicesNeeded - 1 ? to : from.plus(step.multipliedBy(i + 1));
+            slices.add(executor.submit(() ->
+                    inventorySnapshotJdbcRepository.sumMovements(sliceFrom, sliceTo, reverse, filter)));
+        }
+
+        Map<ProductLocation, Long> quantities = new HashMap<>(await(base));
+        for (Future<Map<ProductLocation, Long>> slice : slices) {
+            await(slice).forEach((key, delta) -> quantities.merge(key, delta, Long::sum));
+        }
+        return quantities;
+    }
+
+    private static <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while replaying stock movements", ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Stock movement replay failed", ex.getCause());
+        }
+    }
+}
@@ -1,36 +1,78 @@
 package com.wms.service;
 
 import com.wms.dto.request.InventoryRequest;
+import com.wms.dto.response.CursorPageResponse;
+import com.wms.dto.response.InventoryImportResponse;
+import com.wms.dto.response.InventoryImportResponse.RowError;
 import com.wms.dto.response.InventoryResponse;
 import com.wms.entity.Inventory;
 import com.wms.entity.Location;
 import com.wms.entity.Product;
+import com.wms.enums.StockMovementType;
 import com.wms.exception.ResourceNotFoundException;
+import com.wms.repository.InventoryImportJdbcRepository;
+import com.wms.repository.InventoryImportJdbcRepository.BelowReserved;
+import com.wms.repository.InventoryImportJdbcRepository.LocationCode;
+import com.wms.repository.InventoryImportJdbcRepository.MergeResult;
+import com.wms.repository.InventoryImportJdbcRepository.QuantityChange;
+import com.wms.repository.InventoryQueryRepository;
+import com.wms.repository.InventoryQueryRepository.InventoryFilter;
 import com.wms.repository.InventoryRepository;
+import com.wms.repository.LocationJdbcRepository.LocationRef;
+import com.wms.repository.LocationJdbcRepository.WarehouseRef;
 import com.wms.repository.LocationRepository;
 import com.wms.repository.ProductRepository;
+import com.wms.repository.StockMovementJdbcRepository.NewMovement;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class InventoryService {
 
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final String CURSOR_PREFIX = "inv:";
+    private static final int MAX_REPORTED_IMPORT_ERRORS = 1000;
+
     private final InventoryRepository inventoryRepository;
+    private final InventoryQueryRepository inventoryQueryRepository;
+    private final InventoryImportJdbcRepository inventoryImportJdbcRepository;
     private final ProductRepository productRepository;
     private final LocationRepository locationRepository;
+    private final LocationTopology locationTopology;
+    private final AvailableToPromiseLedger atpLedger;
+    private final LowStockIndex lowStockIndex;
+    private final StockMovementJournal stockMovementJournal;
 
-    // Tüm stok kayıtları
+    // Stok kayıtları, id üzerinden keyset sayfalama ile
     @Transactional(readOnly = true)
-    public List<InventoryResponse> getAllInventory() {
-        return inventoryRepository.findAll()
-                .stream()
-                .map(this::toResponse)
-                .collect(Collectors.toList());
+    public CursorPageResponse<InventoryResponse> getInventoryPage(InventoryFilter filter, String cursor, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        // One extra row tells whether there is a next page without a count query
+        List<InventoryResponse> rows = inventoryQueryRepository.find(filter, decodeCursor(cursor), limit + 1);
+        boolean hasMore = rows.size() > limit;
+        List<InventoryResponse> items = hasMore ? rows.subList(0, limit) : rows;
+
+        return CursorPageResponse.<InventoryResponse>builder()
+                .items(items)
+                .hasMore(hasMore)
+                .nextCursor(hasMore ? encodeCursor(items.get(items.size() - 1).getId()) : null)
+                .build();
     }
 
     // Belirli ürünün tüm lokasyonlardaki stoğu
@@ -49,10 +91,10 @@ public class InventoryService {
     // Belirli lokasyonun stokları
     @Transactional(readOnly = true)
     public List<InventoryResponse> getInventoryByLocation(Long locationId) {
-        Location location = locationRepository.findById(locationId)
+        LocationRef location = locationTopology.findLocation(locationId)
                 .orElseThrow(() -> new ResourceNotFoundException("Location not found with id: " + locationId));
 
-        return inventoryRepository.findByLocationId(location.getId())
+        return inventoryRepository.findByLocationId(location.id())
                 .stream()
                 .map(this::toResponse)
                 .collect(Collectors.toList());
@@ -64,8 +106,7 @@ public class InventoryService {
         Product product = productRepository.findById(request.getProductId())
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found"));
 
-        Location location = locationRepository.findById(request.getLocationId())
-                .orElseThrow(() -> new ResourceNotFoundException("Location not found"));
+        Location location = findLocationReference(request.getLocationId());
 
         // Mevcut kayıt var mı bak (productId + locationId ile)
         Inventory inventory = inventoryRepository
@@ -78,6 +119,7 @@ public class InventoryService {
                     inv.setReservedQuantity(0);
                     return inv;
                 });
+        int oldQuantity = inventory.getQuantity();
 
         inventory.setQuantity(request.getQuantity());
         inventory.setReservedQuantity(
@@ -85,6 +127,9 @@ public class InventoryService {
         );
 
         Inventory saved = inventoryRepository.save(inventory);
+        atpLedger.invalidate(product.getId(), location.getId());
+        lowStockIndex.refresh(product.getId(), location.getId());
+        recordAdjustment(product.getId(), location.getId(), request.getQuantity() - oldQuantity, "Inventory Updated");
         return toResponse(saved);
     }
 
@@ -93,8 +138,7 @@ public class InventoryService {
     public InventoryResponse createInventory(InventoryRequest request) {
         Product product = productRepository.findById(request.getProductId())
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found"));
-        Location location = locationRepository.findById(request.getLocationId())
-                .orElseThrow(() -> new ResourceNotFoundException("Location not found"));
+        Location location = findLocationReference(request.getLocationId());
         // Duplicate kontrolü
         if (inventoryRepository.findByProductIdAndLocationId(product.getId(), location.getId()).isPresent()) {
             throw new IllegalArgumentException("Inventory for this product and location already exists");
@@ -106,6 +150,8 @@ public class InventoryService {
                 .reservedQuantity(request.getReservedQuantity() != null ? request.getReservedQuantity() : 0)
                 .build();
         Inventory saved = inventoryRepository.save(inventory);
+        lowStockIndex.refresh(product.getId(), location.getId());
+        recordAdjustment(product.getId(), location.getId(), request.getQuantity(), "Inventory Created");
         return toResponse(saved);
     }
 
@@ -122,22 +168,33 @@ public class InventoryService {
         inventory.setQuantity(newQty);
 
         Inventory saved = inventoryRepository.save(inventory);
+        atpLedger.invalidate(inventory.getProduct().getId(), inventory.getLocation().getId());
+        lowStockIndex.refresh(inventory.getProduct().getId(), inventory.getLocation().getId());
+        recordAdjustment(inventory.getProduct().getId(), inventory.getLocation().getId(), delta, "Inventory Adjusted");
         return toResponse(saved);
     }
 
     // Soft delete düşünmüyorsan burada gerçekten silebilirsin
     @Transactional
     public void deleteInventory(Long id) {
-        if (!inventoryRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Inventory not found");
-        }
-        inventoryRepository.deleteById(id);
+        Inventory inventory = inventoryRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Inventory not found"));
+        atpLedger.invalidate(inventory.getProduct().getId(), inventory.getLocation().getId());
+        lowStockIndex.refresh(inventory.getProduct().getId(), inventory.getLocation().getId());
+        recordAdjustment(inventory.getProduct().getId(), inventory.getLocation().getId(), -inventory.getQuantity(),
+                "Inventory Deleted");
+        inventoryRepository.delete(inventory);
     }
 
     @Transactional
     public InventoryResponse updateInventory(Long id, InventoryRequest request) {
         Inventory inventory = inventoryRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Inventory not found with id: " + id));
+        atpLedger.invalidate(inventory.getProduct().getId(), inventory.getLocation().getId());
+        lowStockIndex.refresh(inventory.getProduct().getId(), inventory.getLocation().getId());
+        long oldProductId = inventory.getProduct().getId();
+        long oldLocationId = inventory.getLocation().getId();
+        int oldQuantity = inventory.getQuantity();
 
         // Ürün ve lokasyon değiştirilmek isteniyorsa
         if (request.getProductId() != null) {
@@ -147,9 +204,7 @@ public class InventoryService {
         }
 
         if (request.getLocationId() != null) {
-            Location location = locationRepository.findById(request.getLocationId())
-                    .orElseThrow(() -> new ResourceNotFoundException("Location not found"));
-            inventory.setLocation(location);
+            inventory.setLocation(findLocationReference(request.getLocationId()));
         }
 
         inventory.setQuantity(request.getQuantity());
@@ -158,27 +213,224 @@ public class InventoryService {
         );
 
         Inventory saved = inventoryRepository.save(inventory);
+        atpLedger.invalidate(saved.getProduct().getId(), saved.getLocation().getId());
+        lowStockIndex.refresh(saved.getProduct().getId(), saved.getLocation().getId());
+
+        // A row moved to another product or location leaves the old pair and enters the new one
+        List<NewMovement> movements = new ArrayList<>(2);
+        if (oldProductId == saved.getProduct().getId() && oldLocationId == saved.getLocation().getId()) {
+            addAdjustment(movements, oldProductId, oldLocationId, saved.getQuantity() - oldQuantity,
+                    "Inventory Updated");
+        } else {
+            addAdjustment(movements, oldProductId, oldLocationId, -oldQuantity, "Inventory Updated");
+            addAdjustment(movements, saved.getProduct().getId(), saved.getLocation().getId(), saved.getQuantity(),
+                    "Inventory Updated");
+        }
+        stockMovementJournal.recordAll(movements);
         return toResponse(saved);
     }
 
+    // CSV ile toplu stok yükleme: sku, depo kodu, lokasyon kodu, miktar (miktar mutlak değerdir)
+    @Transactional
+    public InventoryImportResponse importInventory(Reader csv) {
+        // Pending ATP reservations must be in reserved_quantity before it is compared with the new quantities
+        atpLedger.flush();
+
+        Map<String, Long> productIds = inventoryImportJdbcRepository.loadProductIdsBySku();
+        Map<LocationCode, Long> locationIds = inventoryImportJdbcRepository.loadLocationIdsByCode();
+        ImportErrors errors = new ImportErrors();
+        long[] totalRows = new long[1];
+
+        long staged = inventoryImportJdbcRepository.stage(writer -> {
+            BufferedReader reader = csv instanceof BufferedReader buffered ? buffered : new BufferedReader(csv);
+            try {
+                String line;
+                long lineNo = 0;
+                while ((line = reader.readLine()) != null) {
+                    lineNo++;
+                    if (lineNo == 1 && line.startsWith("\uFEFF")) {
+                        line = line.substring(1);
+                    }
+                    if (line.isBlank()) {
+                        continue;
+                    }
+                    List<String> fields = splitCsvLine(line);
+                    if (lineNo == 1 && "sku".equalsIgnoreCase(fields.get(0))) {
+                        continue;
+                    }
+                    totalRows[0]++;
+                    if (fields.size() != 4) {
+                        errors.add(lineNo, "Expected 4 columns but found " + fields.size());
+                        continue;
+                    }
+                    Long productId = productIds.get(fields.get(0));
+                    if (productId == null) {
+                        errors.add(lineNo, "Unknown SKU: " + fields.get(0));
+                        continue;
+                    }
+                    Long locationId = locationIds.get(new LocationCode(fields.get(1), fields.get(2)));
+                    if (locationId == null) {
+                        errors.add(lineNo, "Unknown location: " + fields.get(1) + "/" + fields.get(2));
+                        continue;
+                    }
+                    int quantity;
+                    try {
+                        quantity = Integer.parseInt(fields.get(3));
+                    } catch (NumberFormatException ex) {
+                        errors.add(lineNo, "Invalid quantity: " + fields.get(3));
+                        continue;
+                    }
+                    if (quantity < 0) {
+                        errors.add(lineNo, "Quantity cannot be negative");
+                        continue;
+                    }
+                    writer.write(lineNo, productId, locationId, quantity);
+                }
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Could not read inventory import", ex);
+            }
+        });
+
+        if (staged == 0) {
+            return InventoryImportResponse.builder()
+                    .totalRows(totalRows[0])
+                    .errorCount(errors.count)
+                    .errors(errors.reported)
+                    .build();
+        }
+
+        int overridden = inventoryImportJdbcRepository.removeSuperseded();
+        for (BelowReserved row : inventoryImportJdbcRepository.removeBelowReserved()) {
+            errors.add(row.lineNo(), "Quantity " + row.quantity() + " is below reserved quantity "
+                    + row.reservedQuantity());
+        }
+        MergeResult merged = inventoryImportJdbcRepository.merge();
+
+        atpLedger.invalidateAll(merged.pairs());
+        lowStockIndex.refresh(merged.pairs());
+
+        List<NewMovement> movements = new ArrayList<>(merged.changes().size());
+        for (QuantityChange change : merged.changes()) {
+            addAdjustment(movements, change.productId(), change.locationId(), change.delta(), "Inventory Import");
+        }
+        stockMovementJournal.recordAll(movements);
+
+        errors.reported.sort((a, b) -> Long.compare(a.getLine(), b.getLine()));
+        return InventoryImportResponse.builder()
+                .totalRows(totalRows[0])
+                .importedRows(merged.pairs().size())
+                .insertedRows(merged.inserted())
+                .updatedRows(merged.pairs().size() - merged.inserted())
+                .overriddenRows(overridden)
+                .errorCount(errors.count)
+                .errors(errors.reported)
+                .build();
+    }
+
+    private void recordAdjustment(long productId, long locationId, int delta, String reason) {
+        List<NewMovement> movements = new ArrayList<>(1);
+        addAdjustment(movements, productId, locationId, delta, reason);
+        stockMovementJournal.recordAll(movements);
+    }
+
+    // Decreases leave the location and increases enter it, so as-of queries can replay the change
+    private static void addAdjustment(List<NewMovement> movements, long productId, long locationId, int delta,
+                                      String reason) {
+        if (delta < 0) {
+            movements.add(new NewMovement(StockMovementType.ADJUSTMENT, productId, locationId, null, -delta,
+                    reason, null));
+        } else if (delta > 0) {
+            movements.add(new NewMovement(StockMovementType.ADJUSTMENT, productId, null, locationId, delta,
+                    reason, null));
+        }
+    }
+
+    // Tırnaklı alanları destekleyen basit CSV ayrıştırıcı ("" kaçış olarak kabul edilir)
+    static List<String> splitCsvLine(String line) {
+        List<String> fields = new ArrayList<>(4);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString().trim());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString().trim());
+        return fields;
+    }
+
+    private static final class ImportErrors {
+        private final List<RowError> reported = new ArrayList<>();
+        private long count;
+
+        void add(long line, String message) {
+            count++;
+            if (reported.size() < MAX_REPORTED_IMPORT_ERRORS) {
+                reported.add(RowError.builder().line(line).message(message).build());
+            }
+        }
+    }
+
+    private static String encodeCursor(Long lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((CURSOR_PREFIX + lastId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Long decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!decoded.startsWith(CURSOR_PREFIX)) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return Long.valueOf(decoded.substring(CURSOR_PREFIX.length()));
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
 
+    // Existence is checked against the topology, the row itself is never selected
+    private Location findLocationReference(Long locationId) {
+        locationTopology.findLocation(locationId)
+                .orElseThrow(() -> new ResourceNotFoundException("Location not found"));
+        return locationRepository.getReferenceById(locationId);
+    }
 
     private InventoryResponse toResponse(Inventory inventory) {
         Product product = inventory.getProduct();
-        Location location = inventory.getLocation();
+        // Location and warehouse labels come from the topology, so a location reference is not loaded here
+        LocationRef location = inventory.getLocation() != null
+                ? locationTopology.describe(inventory.getLocation()) : null;
+        WarehouseRef warehouse = location != null
+                ? locationTopology.findWarehouse(location.warehouseId()).orElse(null) : null;
 
         return InventoryResponse.builder()
                 .id(inventory.getId())
                 .productId(product != null ? product.getId() : null)
                 .productName(product != null ? product.getName() : null)
                 .productSku(product != null ? product.getSku() : null)
-                .locationId(location != null ? location.getId() : null)
-                .locationCode(location != null ? location.getCode() : null)
-                .locationName(location != null ? location.getDescription() : null)
-                .warehouseId(location != null && location.getWarehouse() != null
-                        ? location.getWarehouse().getId() : null)
-                .warehouseName(location != null && location.getWarehouse() != null
-                        ? location.getWarehouse().getName() : null)
+                .locationId(location != null ? location.id() : null)
+                .locationCode(location != null ? location.code() : null)
+                .locationName(location != null ? location.description() : null)
+                .warehouseId(location != null ? location.warehouseId() : null)
+                .warehouseName(warehouse != null ? warehouse.name() : null)
                 .quantity(inventory.getQuantity())
                 .reservedQuantity(inventory.getReservedQuantity())
                 .availableQuantity(inventory.getAvailableQuantity())
@@ -20,6 +20,7 @@ public class LocationService {
 
     private final LocationRepository locationRepository;
     private final WarehouseRepository warehouseRepository;
+    private final LocationTopology locationTopology;
 
     @Transactional
     public LocationResponse createLocation(LocationRequest request) {
@@ -40,6 +41,7 @@ public class LocationService {
                 .build();
 
         location = locationRepository.save(location);
+        locationTopology.putLocation(location);
         return mapToResponse(location);
     }
 
@@ -87,6 +89,7 @@ public class LocationService {
         location.setWarehouse(warehouse);
 
         location = locationRepository.save(location);
+        locationTopology.putLocation(location);
         return mapToResponse(location);
     }
 
@@ -96,6 +99,7 @@ public class LocationService {
                 .orElseThrow(() -> new ResourceNotFoundException("Location not found with id: " + id));
 
         locationRepository.delete(location);  // Fiziksel silme
+        locationTopology.evictLocation(id);
     }
 
     private LocationResponse mapToResponse(Location location) {
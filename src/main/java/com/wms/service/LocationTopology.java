@@ -0,0 +1,148 @@
+package com.wms.service;
+
+import com.wms.entity.Location;
+import com.wms.entity.Warehouse;
+import com.wms.repository.LocationJdbcRepository;
+import com.wms.repository.LocationJdbcRepository.LocationRef;
+import com.wms.repository.LocationJdbcRepository.WarehouseRef;
+import org.hibernate.Hibernate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory copy of warehouses and locations, so write paths can validate ids and attach
+ * {@code getReferenceById} proxies without selecting the rows first.
+ * <p>
+ * Loaded on startup and rebuilt periodically. {@link LocationService} and {@link WarehouseService} report their
+ * writes after commit; ids that are not cached yet (e.g. rows inserted directly through the repositories) are
+ * read through from the database on first access.
+ */
+@Component
+public class LocationTopology {
+
+    private static final Logger logger = LoggerFactory.getLogger(LocationTopology.class);
+
+    private final LocationJdbcRepository locationJdbcRepository;
+    private final Map<Long, WarehouseRef> warehouses = new ConcurrentHashMap<>();
+    private final Map<Long, LocationRef> locations = new ConcurrentHashMap<>();
+    // Serializes rebuilds with write notifications so a rebuild cannot put back what a commit just changed
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    public LocationTopology(LocationJdbcRepository locationJdbcRepository) {
+        this.locationJdbcRepository = locationJdbcRepository;
+    }
+
+    public Optional<WarehouseRef> findWarehouse(long id) {
+        WarehouseRef cached = warehouses.get(id);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        Optional<WarehouseRef> loaded = locationJdbcRepository.findWarehouse(id);
+        loaded.ifPresent(warehouse -> warehouses.putIfAbsent(id, warehouse));
+        return loaded;
+    }
+
+    public Optional<LocationRef> findLocation(long id) {
+        LocationRef cached = locations.get(id);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        Optional<LocationRef> loaded = locationJdbcRepository.findLocation(id);
+        loaded.ifPresent(location -> locations.putIfAbsent(id, location));
+        return loaded;
+    }
+
+    /**
+     * Name of a warehouse that may be an uninitialized proxy, without loading it.
+     */
+    public String warehouseName(Warehouse warehouse) {
+        if (Hibernate.isInitialized(warehouse)) {
+            return warehouse.getName();
+        }
+        return findWarehouse(warehouse.getId()).map(WarehouseRef::name).orElseGet(warehouse::getName);
+    }
+
+    /**
+     * Fields of a location that may be an uninitialized proxy, without loading it.
+     */
+    public LocationRef describe(Location location) {
+        if (Hibernate.isInitialized(location)) {
+            return toRef(location);
+        }
+        return findLocation(location.getId()).orElseGet(() -> toRef(location));
+    }
+
+    public void putWarehouse(Warehouse warehouse) {
+        WarehouseRef ref = new WarehouseRef(warehouse.getId(), warehouse.getCode(), warehouse.getName());
+        afterCommit(() -> locked(() -> warehouses.put(ref.id(), ref)));
+    }
+
+    public void putLocation(Location location) {
+        LocationRef ref = toRef(location);
+        afterCommit(() -> locked(() -> locations.put(ref.id(), ref)));
+    }
+
+    public void evictLocation(long id) {
+        afterCommit(() -> locked(() -> locations.remove(id)));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${app.topology.rebuild-interval-ms:600000}",
+            fixedDelayString = "${app.topology.rebuild-interval-ms:600000}")
+    public void rebuild() {
+        locked(() -> {
+            Map<Long, WarehouseRef> loadedWarehouses = new HashMap<>();
+            Map<Long, LocationRef> loadedLocations = new HashMap<>();
+            locationJdbcRepository.forEachWarehouse(warehouse -> loadedWarehouses.put(warehouse.id(), warehouse));
+            locationJdbcRepository.forEachLocation(location -> loadedLocations.put(location.id(), location));
+
+            // Replace entry by entry so readers never see an empty topology
+            warehouses.putAll(loadedWarehouses);
+            warehouses.keySet().retainAll(loadedWarehouses.keySet());
+            locations.putAll(loadedLocations);
+            locations.keySet().retainAll(loadedLocations.keySet());
+            logger.debug("Location topology loaded with {} warehouses and {} locations",
+                    warehouses.size(), locations.size());
+        });
+    }
+
+    private static LocationRef toRef(Location location) {
+        return new LocationRef(location.getId(), location.getCode(), location.getDescription(), location.getAisle(),
+                location.getRack(), location.getBin(), location.getWarehouse().getId());
+    }
+
+    private void locked(Runnable action) {
+        writeLock.lock();
+        try {
+            action.run();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
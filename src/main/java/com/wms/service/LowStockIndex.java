@@ -0,0 +1,162 @@
+package com.wms.service;
+
+import com.wms.dto.response.LowStockReportResponse;
+import com.wms.repository.InventoryJdbcRepository;
+import com.wms.repository.InventoryJdbcRepository.ProductLocation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory index of inventory rows at or below their product's minimum stock level, sorted by deficit.
+ * <p>
+ * Services that change quantities report the touched (product, location) pairs through {@link #refresh};
+ * after their transaction commits only those rows are re-read, so the report is served in O(result size)
+ * without scanning inventory. A periodic {@link #rebuild()} catches changes made outside the services
+ * (e.g. renamed locations or manual SQL).
+ */
+@Component
+public class LowStockIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(LowStockIndex.class);
+
+    private static final Comparator<LowStockReportResponse> BY_DEFICIT =
+            Comparator.comparing(LowStockReportResponse::getDeficit).reversed()
+                    .thenComparing(LowStockReportResponse::getProductId)
+                    .thenComparing(LowStockReportResponse::getLocationId);
+
+    private final InventoryJdbcRepository inventoryJdbcRepository;
+    private final Map<ProductLocation, LowStockReportResponse> entries = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListSet<LowStockReportResponse> byDeficit = new ConcurrentSkipListSet<>(BY_DEFICIT);
+    // Serializes read-and-apply so an older read can never overwrite a newer one
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    public LowStockIndex(InventoryJdbcRepository inventoryJdbcRepository) {
+        this.inventoryJdbcRepository = inventoryJdbcRepository;
+    }
+
+    /**
+     * Low-stock rows ordered by deficit, largest first.
+     *
+     * @param limit maximum number of rows, or null for all
+     */
+    public List<LowStockReportResponse> top(Integer limit) {
+        int max = limit != null ? limit : Integer.MAX_VALUE;
+        List<LowStockReportResponse> result = new ArrayList<>(Math.min(max, byDeficit.size()));
+        for (LowStockReportResponse entry : byDeficit) {
+            if (result.size() >= max) {
+                break;
+            }
+            result.add(entry);
+        }
+        return result;
+    }
+
+    /**
+     * Re-reads the given pairs once the surrounding transaction commits (immediately without a transaction).
+     */
+    public void refresh(Collection<ProductLocation> pairs) {
+        List<ProductLocation> copy = List.copyOf(pairs);
+        afterCommit(() -> {
+            writeLock.lock();
+            try {
+                copy.forEach(this::remove);
+                inventoryJdbcRepository.forEachLowStock(copy, this::put);
+            } finally {
+                writeLock.unlock();
+            }
+        });
+    }
+
+    public void refresh(long productId, long locationId) {
+        refresh(List.of(new ProductLocation(productId, locationId)));
+    }
+
+    /**
+     * Re-reads every row of a product, e.g. after its minimum stock level changed.
+     */
+    public void refreshProduct(long productId) {
+        afterCommit(() -> {
+            writeLock.lock();
+            try {
+                entries.keySet().stream()
+                        .filter(key -> key.productId() == productId)
+                        .toList()
+                        .forEach(this::remove);
+                inventoryJdbcRepository.forEachLowStockOfProduct(productId, this::put);
+            } finally {
+                writeLock.unlock();
+            }
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${app.reports.low-stock.rebuild-interval-ms:300000}",
+            fixedDelayString = "${app.reports.low-stock.rebuild-interval-ms:300000}")
+    public void rebuild() {
+        writeLock.lock();
+        try {
+            // Diff against the current contents instead of clearing, so readers never see an empty report
+            Map<ProductLocation, LowStockReportResponse> current = new HashMap<>();
+            inventoryJdbcRepository.forEachLowStock(entry ->
+                    current.put(new ProductLocation(entry.getProductId(), entry.getLocationId()), entry));
+
+            entries.keySet().stream()
+                    .filter(key -> !current.containsKey(key))
+                    .toList()
+                    .forEach(this::remove);
+            current.values().forEach(this::put);
+            logger.debug("Low stock index rebuilt with {} rows", entries.size());
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void put(LowStockReportResponse entry) {
+        ProductLocation key = new ProductLocation(entry.getProductId(), entry.getLocationId());
+        remove(key);
+        entries.put(key, entry);
+        byDeficit.add(entry);
+    }
+
+    private void remove(ProductLocation key) {
+        LowStockReportResponse previous = entries.remove(key);
+        if (previous != null) {
+            byDeficit.remove(previous);
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                try {
+                    action.run();
+                } catch (RuntimeException ex) {
+                    // The committed change stands; the next rebuild picks it up
+                    logger.warn("Low stock index refresh failed: {}", ex.getMessage());
+                }
+            }
+        });
+    }
+}
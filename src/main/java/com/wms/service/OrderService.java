@@ -1,23 +1,36 @@
 package com.wms.service;
 
+import com.wms.dto.request.BatchReservationRequest;
+import com.wms.dto.request.OrderIntakeRequest;
 import com.wms.dto.request.OrderItemRequest;
 import com.wms.dto.request.OrderRequest;
+import com.wms.dto.response.BatchReservationResponse;
+import com.wms.dto.response.BatchReservationResponse.OrderReservationResult;
 import com.wms.dto.response.OrderResponse;
 import com.wms.entity.*;
 import com.wms.enums.OrderStatus;
-import com.wms.enums.StockMovementType;
 import com.wms.exception.BusinessRuleException;
 import com.wms.exception.InsufficientStockException;
 import com.wms.exception.ResourceNotFoundException;
+import com.wms.metrics.StockOperationMetrics;
 import com.wms.repository.*;
+import com.wms.repository.OrderJdbcRepository.ItemLine;
+import com.wms.repository.OrderJdbcRepository.LockedOrder;
+import com.wms.repository.OrderJdbcRepository.OrderLines;
+import com.wms.repository.StockReservationJdbcRepository.NewReservation;
+import com.wms.service.AvailableToPromiseLedger.Line;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -28,18 +41,25 @@ public class OrderService {
     private final WarehouseRepository warehouseRepository;
     private final ProductRepository productRepository;
     private final LocationRepository locationRepository;
+    private final LocationTopology locationTopology;
     private final OrderItemRepository orderItemRepository;
     private final InventoryRepository inventoryRepository;
     private final StockReservationRepository stockReservationRepository;
-    private final StockMovementRepository stockMovementRepository;
+    private final OrderJdbcRepository orderJdbcRepository;
+    private final StockReservationJdbcRepository stockReservationJdbcRepository;
+    private final AvailableToPromiseLedger atpLedger;
+    private final WaveShippingService waveShippingService;
+    private final StockOperationMetrics stockOperationMetrics;
+    private final DocumentNumberAllocator documentNumberAllocator;
 
     @Transactional
     public OrderResponse createOrder(OrderRequest request) {
-        Warehouse warehouse = warehouseRepository.findById(request.getWarehouseId())
+        locationTopology.findWarehouse(request.getWarehouseId())
                 .orElseThrow(() -> new ResourceNotFoundException("Warehouse not found"));
+        Warehouse warehouse = warehouseRepository.getReferenceById(request.getWarehouseId());
 
         Order order = Order.builder()
-                .orderNumber("ORD-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase())
+                .orderNumber(documentNumberAllocator.next(DocumentNumberAllocator.ORDER, request.getWarehouseId()))
                 .customerName(request.getCustomerName())
                 .shippingAddress(request.getShippingAddress())
                 .warehouse(warehouse)
@@ -63,8 +83,9 @@ public class OrderService {
         Product product = productRepository.findById(request.getProductId())
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found"));
 
-        Location location = locationRepository.findById(request.getLocationId())
+        locationTopology.findLocation(request.getLocationId())
                 .orElseThrow(() -> new ResourceNotFoundException("Location not found"));
+        Location location = locationRepository.getReferenceById(request.getLocationId());
 
         OrderItem item = OrderItem.builder()
                 .order(order)
@@ -76,6 +97,80 @@ public class OrderService {
         orderItemRepository.save(item);
     }
 
+    /**
+     * Creates an order with all its lines in one call, optionally reserving it in the same transaction.
+     * Products are checked with one query and locations against the topology; the order, its items and
+     * reservations are inserted in JDBC batches on flush.
+     */
+    @Transactional
+    public OrderResponse intakeOrder(OrderIntakeRequest request) {
+        if (request.isReserve()) {
+            return stockOperationMetrics.record(StockOperationMetrics.RESERVE, () -> doIntakeOrder(request));
+        }
+        return doIntakeOrder(request);
+    }
+
+    private OrderResponse doIntakeOrder(OrderIntakeRequest request) {
+        locationTopology.findWarehouse(request.getWarehouseId())
+                .orElseThrow(() -> new ResourceNotFoundException("Warehouse not found"));
+        stockOperationMetrics.warehouse(request.getWarehouseId());
+
+        List<OrderItemRequest> lines = request.getLines();
+        Set<Long> productIds = new HashSet<>();
+        for (OrderItemRequest line : lines) {
+            productIds.add(line.getProductId());
+            locationTopology.findLocation(line.getLocationId())
+                    .orElseThrow(() -> new ResourceNotFoundException("Location not found: " + line.getLocationId()));
+        }
+        Set<Long> existingProductIds = productRepository.findExistingIds(productIds);
+        for (Long productId : productIds) {
+            if (!existingProductIds.contains(productId)) {
+                throw new ResourceNotFoundException("Product not found: " + productId);
+            }
+        }
+
+        Order order = Order.builder()
+                .orderNumber(documentNumberAllocator.next(DocumentNumberAllocator.ORDER, request.getWarehouseId()))
+                .customerName(request.getCustomerName())
+                .shippingAddress(request.getShippingAddress())
+                .warehouse(warehouseRepository.getReferenceById(request.getWarehouseId()))
+                .status(request.isReserve() ? OrderStatus.RESERVED : OrderStatus.PENDING)
+                .orderDate(LocalDate.now())
+                .build();
+        for (OrderItemRequest line : lines) {
+            order.getItems().add(OrderItem.builder()
+                    .order(order)
+                    .product(productRepository.getReferenceById(line.getProductId()))
+                    .location(locationRepository.getReferenceById(line.getLocationId()))
+                    .quantity(line.getQuantity())
+                    .build());
+        }
+        // Items are cascaded, so the order and every line go out in the same flush
+        order = orderRepository.save(order);
+
+        if (request.isReserve()) {
+            List<Line> ledgerLines = lines.stream()
+                    .map(line -> new Line(line.getProductId(), line.getLocationId(), line.getQuantity()))
+                    .toList();
+            atpLedger.preload(ledgerLines);
+            long[] inventoryIds = atpLedger.reserveAll(ledgerLines);
+
+            List<StockReservation> reservations = new ArrayList<>(inventoryIds.length);
+            LocalDateTime now = LocalDateTime.now();
+            for (int i = 0; i < inventoryIds.length; i++) {
+                reservations.add(StockReservation.builder()
+                        .order(order)
+                        .inventory(inventoryRepository.getReferenceById(inventoryIds[i]))
+                        .quantity(lines.get(i).getQuantity())
+                        .reservedAt(now)
+                        .released(false)
+                        .build());
+            }
+            stockReservationRepository.saveAll(reservations);
+        }
+        return mapToResponse(order);
+    }
+
     @Transactional(readOnly = true)
     public List<OrderResponse> getAllOrders() {
         return orderRepository.findAll()
@@ -86,8 +181,13 @@ public class OrderService {
 
     @Transactional
     public void reserveStock(Long orderId) {
+        stockOperationMetrics.record(StockOperationMetrics.RESERVE, () -> doReserveStock(orderId));
+    }
+
+    private void doReserveStock(Long orderId) {
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new ResourceNotFoundException("Order not found"));
+        stockOperationMetrics.warehouse(order.getWarehouse().getId());
 
         if (order.getStatus() != OrderStatus.PENDING) {
             throw new BusinessRuleException("Only pending orders can reserve stock");
@@ -97,26 +197,18 @@ public class OrderService {
             throw new BusinessRuleException("Cannot reserve stock for order without items");
         }
 
-        // Check and reserve stock for each item
-        for (OrderItem item : order.getItems()) {
-            Inventory inventory = inventoryRepository
-                    .findByProductIdAndLocationId(item.getProduct().getId(), item.getLocation().getId())
-                    .orElseThrow(() -> new BusinessRuleException("No inventory found for product in location"));
-
-            if (inventory.getAvailableQuantity() < item.getQuantity()) {
-                throw new InsufficientStockException("Insufficient stock for product: " + item.getProduct().getName()
-                        + ". Available: " + inventory.getAvailableQuantity() + ", Required: " + item.getQuantity());
-            }
-
-            // Reserve stock
-            inventory.setReservedQuantity(inventory.getReservedQuantity() + item.getQuantity());
-            inventoryRepository.save(inventory);
+        // Reserve against the ATP ledger; reserved_quantity is written back after commit
+        List<OrderItem> items = order.getItems();
+        long[] inventoryIds = atpLedger.reserveAll(items.stream()
+                .map(item -> new Line(item.getProduct().getId(), item.getLocation().getId(), item.getQuantity()))
+                .toList());
 
+        for (int i = 0; i < items.size(); i++) {
             // Create reservation record
             StockReservation reservation = StockReservation.builder()
                     .order(order)
-                    .inventory(inventory)
-                    .quantity(item.getQuantity())
+                    .inventory(inventoryRepository.getReferenceById(inventoryIds[i]))
+                    .quantity(items.get(i).getQuantity())
                     .reservedAt(LocalDateTime.now())
                     .released(false)
                     .build();
@@ -127,49 +219,82 @@ public class OrderService {
         orderRepository.save(order);
     }
 
+    /**
+     * Reserves stock for many orders in one transaction. Each order is reserved completely or not at all;
+     * failed orders are reported in the result and do not affect the others.
+     */
+    @Transactional
+    public BatchReservationResponse reserveBatch(BatchReservationRequest request) {
+        Set<Long> orderIds = new LinkedHashSet<>(request.getOrderIds());
+        Map<Long, OrderLines> ordersById = orderJdbcRepository.lockAndLoadLines(orderIds);
+
+        // Load every (product, location) the batch touches into the ledger with one query
+        atpLedger.preload(ordersById.values().stream()
+                .flatMap(order -> order.items().stream())
+                .map(OrderService::toLedgerLine)
+                .toList());
+
+        List<OrderReservationResult> results = new ArrayList<>(orderIds.size());
+        List<NewReservation> reservations = new ArrayList<>();
+        List<Long> reservedOrderIds = new ArrayList<>();
+
+        for (Long orderId : orderIds) {
+            OrderLines order = ordersById.get(orderId);
+            try {
+                if (order == null) {
+                    throw new ResourceNotFoundException("Order not found");
+                }
+                if (order.status() != OrderStatus.PENDING) {
+                    throw new BusinessRuleException("Only pending orders can reserve stock");
+                }
+                if (order.items().isEmpty()) {
+                    throw new BusinessRuleException("Cannot reserve stock for order without items");
+                }
+
+                long[] inventoryIds = atpLedger.reserveAll(order.items().stream()
+                        .map(OrderService::toLedgerLine)
+                        .toList());
+                for (int i = 0; i < inventoryIds.length; i++) {
+                    reservations.add(new NewReservation(orderId, inventoryIds[i], order.items().get(i).quantity()));
+                }
+                reservedOrderIds.add(orderId);
+                results.add(OrderReservationResult.builder().orderId(orderId).success(true).build());
+            } catch (ResourceNotFoundException | BusinessRuleException | InsufficientStockException ex) {
+                results.add(OrderReservationResult.builder()
+                        .orderId(orderId)
+                        .success(false)
+                        .message(ex.getMessage())
+                        .build());
+            }
+        }
+
+        stockReservationJdbcRepository.insertAll(reservations);
+        orderJdbcRepository.updateStatus(reservedOrderIds, OrderStatus.PENDING, OrderStatus.RESERVED);
+
+        return BatchReservationResponse.builder()
+                .reservedCount(reservedOrderIds.size())
+                .failedCount(results.size() - reservedOrderIds.size())
+                .results(results)
+                .build();
+    }
+
     @Transactional
     public void shipOrder(Long orderId) {
-        Order order = orderRepository.findById(orderId)
+        stockOperationMetrics.record(StockOperationMetrics.SHIP, () -> doShipOrder(orderId));
+    }
+
+    private void doShipOrder(Long orderId) {
+        // Locked so a concurrent ship of the same order (alone or in a wave) waits and then sees SHIPPED
+        LockedOrder order = orderJdbcRepository.lockOrder(orderId)
                 .orElseThrow(() -> new ResourceNotFoundException("Order not found"));
+        stockOperationMetrics.warehouse(order.warehouseId());
 
-        if (order.getStatus() != OrderStatus.RESERVED) {
+        if (order.status() != OrderStatus.RESERVED) {
             throw new BusinessRuleException("Only reserved orders can be shipped");
         }
 
-        // Process each item
-        for (OrderItem item : order.getItems()) {
-            Inventory inventory = inventoryRepository
-                    .findByProductIdAndLocationId(item.getProduct().getId(), item.getLocation().getId())
-                    .orElseThrow(() -> new BusinessRuleException("Inventory not found"));
-
-            // Deduct from inventory
-            inventory.setQuantity(inventory.getQuantity() - item.getQuantity());
-            inventory.setReservedQuantity(inventory.getReservedQuantity() - item.getQuantity());
-            inventoryRepository.save(inventory);
-
-            // Record stock movement
-            StockMovement movement = StockMovement.builder()
-                    .type(StockMovementType.OUT)
-                    .product(item.getProduct())
-                    .fromLocation(item.getLocation())
-                    .quantity(item.getQuantity())
-                    .reason("Order Shipped")
-                    .referenceNumber(order.getOrderNumber())
-                    .movementDate(LocalDateTime.now())
-                    .build();
-            stockMovementRepository.save(movement);
-        }
-
-        // Release reservations
-        List<StockReservation> reservations = stockReservationRepository.findByOrderIdAndReleasedFalse(orderId);
-        reservations.forEach(reservation -> {
-            reservation.setReleased(true);
-            stockReservationRepository.save(reservation);
-        });
-
-        order.setStatus(OrderStatus.SHIPPED);
-        order.setShippedDate(LocalDate.now());
-        orderRepository.save(order);
+        // Same bulk path as wave shipping, for a single order
+        waveShippingService.shipOrders(List.of(orderId), "Order Shipped");
     }
 
     @Transactional(readOnly = true)
@@ -179,6 +304,10 @@ public class OrderService {
         return mapToResponse(order);
     }
 
+    private static Line toLedgerLine(ItemLine item) {
+        return new Line(item.productId(), item.locationId(), item.quantity());
+    }
+
     private OrderResponse mapToResponse(Order order) {
         return OrderResponse.builder()
                 .id(order.getId())
@@ -186,7 +315,7 @@ public class OrderService {
                 .customerName(order.getCustomerName())
                 .shippingAddress(order.getShippingAddress())
                 .warehouseId(order.getWarehouse().getId())
-                .warehouseName(order.getWarehouse().getName())
+                .warehouseName(locationTopology.warehouseName(order.getWarehouse()))
                 .status(order.getStatus().name())
                 .orderDate(order.getOrderDate())
                 .shippedDate(order.getShippedDate())
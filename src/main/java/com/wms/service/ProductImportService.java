@@ -0,0 +1,259 @@
+package com.wms.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.wms.dto.request.ProductRequest;
+import com.wms.dto.response.ProductImportResponse;
+import com.wms.dto.response.ProductImportResponse.ItemError;
+import com.wms.repository.ProductJdbcRepository;
+import com.wms.repository.ProductJdbcRepository.UpsertedProduct;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk catalog import for the nightly ERP sync. Products are read one by one from a JSON array or NDJSON
+ * stream, validated, grouped into chunks of {@code app.products.import.chunk-size} and upserted by SKU with
+ * one statement per chunk. Up to {@code app.products.import.parallelism} chunks are written concurrently.
+ * <p>
+ * Every chunk commits on its own, so a failure in a later chunk does not undo earlier ones. A chunk that
+ * fails as a whole (e.g. a barcode that already belongs to another SKU) is retried row by row so only the
+ * offending items are rejected.
+ */
+@Service
+public class ProductImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductImportService.class);
+
+    // 8 bind parameters per row; PostgreSQL accepts at most 32767 per statement
+    private static final int MAX_CHUNK_SIZE = 4000;
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    private final ProductJdbcRepository productJdbcRepository;
+    private final LowStockIndex lowStockIndex;
+    private final ProductLookupCache productLookupCache;
+    private final ObjectMapper objectMapper;
+    private final ObjectReader treeReader;
+    private final Validator validator;
+    private final TransactionTemplate chunkTransaction;
+    private final int chunkSize;
+    private final int parallelism;
+    private final ExecutorService executor;
+
+    public ProductImportService(ProductJdbcRepository productJdbcRepository,
+                                LowStockIndex lowStockIndex,
+                                ProductLookupCache productLookupCache,
+                                ObjectMapper objectMapper,
+                                Validator validator,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${app.products.import.chunk-size:1000}") int chunkSize,
+                                @Value("${app.products.import.parallelism:2}") int parallelism) {
+        if (chunkSize < 1 || chunkSize > MAX_CHUNK_SIZE) {
+            throw new IllegalArgumentException("app.products.import.chunk-size must be between 1 and " + MAX_CHUNK_SIZE);
+        }
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("app.products.import.parallelism must be at least 1");
+        }
+        this.productJdbcRepository = productJdbcRepository;
+        this.lowStockIndex = lowStockIndex;
+        this.productLookupCache = productLookupCache;
+        this.objectMapper = objectMapper;
+        this.treeReader = objectMapper.readerFor(JsonNode.class);
+        this.validator = validator;
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.parallelism = parallelism;
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("product-import-");
+        threadFactory.setDaemon(true);
+        this.executor = Executors.newFixedThreadPool(parallelism, threadFactory);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Upserts every product of the stream and reports created, updated and rejected counts. Item indexes in
+     * the error report are 0-based positions in the input.
+     */
+    public ProductImportResponse importProducts(InputStream input) {
+        Progress progress = new Progress();
+        Semaphore inFlight = new Semaphore(parallelism);
+        List<Item> chunk = new ArrayList<>(chunkSize);
+        long index = 0;
+
+        try (MappingIterator<JsonNode> nodes = treeReader.readValues(input)) {
+            while (nodes.hasNextValue()) {
+                JsonNode node = nodes.nextValue();
+                long itemIndex = index++;
+                progress.total++;
+                ProductRequest request;
+                try {
+                    request = objectMapper.treeToValue(node, ProductRequest.class);
+                } catch (JsonProcessingException ex) {
+                    progress.reject(itemIndex, node.path("sku").asText(null), "Unreadable product: " + ex.getOriginalMessage());
+                    continue;
+                }
+                String violations = violations(request);
+                if (violations != null) {
+                    progress.reject(itemIndex, request.getSku(), violations);
+                    continue;
+                }
+                chunk.add(new Item(itemIndex, request));
+                if (chunk.size() == chunkSize) {
+                    submit(chunk, progress, inFlight);
+                    chunk = new ArrayList<>(chunkSize);
+                }
+            }
+        } catch (JsonProcessingException ex) {
+            // Malformed JSON cannot be resynchronized; what was read so far is still imported
+            progress.reject(index, null, "Malformed input, import stopped: " + ex.getOriginalMessage());
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not read product import", ex);
+        } finally {
+            if (!chunk.isEmpty()) {
+                submit(chunk, progress, inFlight);
+            }
+            awaitAll(inFlight);
+        }
+
+        ProductImportResponse response = progress.toResponse();
+        if (response.getCreatedCount() > 0 || response.getUpdatedCount() > 0) {
+            productLookupCache.invalidateAll();
+        }
+        if (response.getUpdatedCount() > 0) {
+            // Minimum stock levels may have changed for many products; one scan is cheaper than one per product
+            lowStockIndex.rebuild();
+        }
+        logger.info("Product import finished: {} items, {} created, {} updated, {} rejected",
+                response.getTotalItems(), response.getCreatedCount(), response.getUpdatedCount(),
+                response.getRejectedCount());
+        return response;
+    }
+
+    private String violations(ProductRequest request) {
+        Set<ConstraintViolation<ProductRequest>> violations = validator.validate(request);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
+
+    private void submit(List<Item> chunk, Progress progress, Semaphore inFlight) {
+        inFlight.acquireUninterruptibly();
+        try {
+            executor.execute(() -> {
+                try {
+                    upsertChunk(chunk, progress);
+                } finally {
+                    inFlight.release();
+                }
+            });
+        } catch (RuntimeException ex) {
+            inFlight.release();
+            throw ex;
+        }
+    }
+
+    private void awaitAll(Semaphore inFlight) {
+        inFlight.acquireUninterruptibly(parallelism);
+        inFlight.release(parallelism);
+    }
+
+    private void upsertChunk(List<Item> chunk, Progress progress) {
+        // A single INSERT ... ON CONFLICT cannot touch the same row twice, the last item of a SKU wins
+        Map<String, Item> bySku = new LinkedHashMap<>();
+        for (Item item : chunk) {
+            Item previous = bySku.put(item.request.getSku(), item);
+            if (previous != null) {
+                progress.reject(previous.index, previous.request.getSku(),
+                        "Superseded by item " + item.index + " with the same SKU");
+            }
+        }
+        List<Item> items = new ArrayList<>(bySku.values());
+
+        try {
+            progress.record(chunkTransaction.execute(status ->
+                    productJdbcRepository.upsertBySku(items.stream().map(Item::request).toList())));
+        } catch (DataAccessException ex) {
+            logger.debug("Product import chunk failed, retrying row by row: {}", ex.getMostSpecificCause().getMessage());
+            for (Item item : items) {
+                try {
+                    progress.record(chunkTransaction.execute(status ->
+                            productJdbcRepository.upsertBySku(List.of(item.request))));
+                } catch (DataAccessException rowEx) {
+                    progress.reject(item.index, item.request.getSku(), rowEx.getMostSpecificCause().getMessage());
+                }
+            }
+        }
+    }
+
+    private record Item(long index, ProductRequest request) {
+    }
+
+    // Shared by the reading thread and the chunk workers
+    private static final class Progress {
+        private final List<ItemError> errors = new ArrayList<>();
+        private long total;
+        private long created;
+        private long updated;
+        private long rejected;
+
+        synchronized void record(List<UpsertedProduct> upserted) {
+            for (UpsertedProduct product : upserted) {
+                if (product.created()) {
+                    created++;
+                } else {
+                    updated++;
+                }
+            }
+        }
+
+        synchronized void reject(long index, String sku, String message) {
+            rejected++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(ItemError.builder().index(index).sku(sku).message(message).build());
+            }
+        }
+
+        synchronized ProductImportResponse toResponse() {
+            errors.sort(Comparator.comparingLong(ItemError::getIndex));
+            return ProductImportResponse.builder()
+                    .totalItems(total)
+                    .createdCount(created)
+                    .updatedCount(updated)
+                    .rejectedCount(rejected)
+                    .errors(errors)
+                    .build();
+        }
+    }
+}
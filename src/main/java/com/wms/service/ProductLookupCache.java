@@ -0,0 +1,163 @@
+package com.wms.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.wms.dto.response.ProductResponse;
+import com.wms.entity.Product;
+import com.wms.repository.ProductRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Read-through product cache for lookups by id, barcode and SKU (scanner traffic).
+ * <p>
+ * Products are held once, keyed by id and bounded by an estimated size in bytes; the barcode and SKU caches
+ * only map a code to the product id. Codes that match no product are cached as well, so a SKU scan does not
+ * query the barcode column every time; creating or importing products must therefore invalidate their codes.
+ * Hit rate and evictions are exported as {@code cache.*} meters tagged {@code cache=products.by-id},
+ * {@code products.by-barcode} and {@code products.by-sku}.
+ */
+@Component
+public class ProductLookupCache {
+
+    private static final long NOT_FOUND = -1L;
+
+    private final ProductRepository productRepository;
+    private final Cache<Long, ProductResponse> byId;
+    private final Cache<String, Long> idByBarcode;
+    private final Cache<String, Long> idBySku;
+
+    public ProductLookupCache(ProductRepository productRepository,
+                              MeterRegistry meterRegistry,
+                              @Value("${app.products.cache.max-weight-bytes:67108864}") long maxWeightBytes,
+                              @Value("${app.products.cache.max-codes:1000000}") long maxCodes,
+                              @Value("${app.products.cache.ttl-seconds:600}") long ttlSeconds) {
+        this.productRepository = productRepository;
+        Duration ttl = Duration.ofSeconds(ttlSeconds);
+        this.byId = Caffeine.newBuilder()
+                .maximumWeight(maxWeightBytes)
+                .weigher((Long id, ProductResponse product) -> weight(product))
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.idByBarcode = Caffeine.newBuilder()
+                .maximumSize(maxCodes)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.idBySku = Caffeine.newBuilder()
+                .maximumSize(maxCodes)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, byId, "products.by-id");
+        CaffeineCacheMetrics.monitor(meterRegistry, idByBarcode, "products.by-barcode");
+        CaffeineCacheMetrics.monitor(meterRegistry, idBySku, "products.by-sku");
+    }
+
+    public Optional<ProductResponse> findById(long id) {
+        return Optional.ofNullable(byId.get(id, key -> productRepository.findById(key)
+                .map(ProductLookupCache::toResponse)
+                .orElse(null)));
+    }
+
+    /**
+     * Resolves a scanned code, trying barcode first and SKU second.
+     */
+    public Optional<ProductResponse> findByCode(String code) {
+        long id = idByBarcode.get(code, key -> productRepository.findByBarcode(key).map(this::put).orElse(NOT_FOUND));
+        if (id == NOT_FOUND) {
+            id = idBySku.get(code, key -> productRepository.findBySku(key).map(this::put).orElse(NOT_FOUND));
+        }
+        return id == NOT_FOUND ? Optional.empty() : findById(id);
+    }
+
+    /**
+     * Drops a changed or deleted product now and again after the surrounding transaction commits. Code entries
+     * are only dropped while the product is still cached by id, so callers that change a product must also pass
+     * its previous codes to {@link #invalidateCodes}.
+     */
+    public void invalidate(long id) {
+        onNowAndAfterCommit(() -> {
+            ProductResponse cached = byId.getIfPresent(id);
+            if (cached != null) {
+                dropCodes(cached.getSku(), cached.getBarcode());
+            }
+            byId.invalidate(id);
+        });
+    }
+
+    /**
+     * Drops cached results for the given codes: "not found" for a new product, or the previous codes of a
+     * changed one.
+     */
+    public void invalidateCodes(String sku, String barcode) {
+        onNowAndAfterCommit(() -> dropCodes(sku, barcode));
+    }
+
+    public void invalidateAll() {
+        byId.invalidateAll();
+        idByBarcode.invalidateAll();
+        idBySku.invalidateAll();
+    }
+
+    static ProductResponse toResponse(Product product) {
+        return ProductResponse.builder()
+                .id(product.getId())
+                .sku(product.getSku())
+                .barcode(product.getBarcode())
+                .name(product.getName())
+                .description(product.getDescription())
+                .unit(product.getUnit())
+                .unitPrice(product.getUnitPrice())
+                .minStockLevel(product.getMinStockLevel())
+                .category(product.getCategory())
+                .build();
+    }
+
+    // A code is looked up in both caches, so both must forget it
+    private void dropCodes(String sku, String barcode) {
+        if (sku != null) {
+            idBySku.invalidate(sku);
+            idByBarcode.invalidate(sku);
+        }
+        if (barcode != null) {
+            idByBarcode.invalidate(barcode);
+            idBySku.invalidate(barcode);
+        }
+    }
+
+    private long put(Product product) {
+        byId.put(product.getId(), toResponse(product));
+        return product.getId();
+    }
+
+    // Rough heap footprint: object headers and boxed fields plus two bytes per character
+    private static int weight(ProductResponse product) {
+        return 160 + 2 * (length(product.getSku()) + length(product.getBarcode()) + length(product.getName())
+                + length(product.getDescription()) + length(product.getUnit()) + length(product.getCategory()));
+    }
+
+    private static int length(String value) {
+        return value != null ? value.length() : 0;
+    }
+
+    private static void onNowAndAfterCommit(Runnable action) {
+        action.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        }
+    }
+}
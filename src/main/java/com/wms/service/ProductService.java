@@ -6,9 +6,11 @@ import com.wms.entity.Product;
 import com.wms.exception.BusinessRuleException;
 import com.wms.exception.ResourceNotFoundException;
 import com.wms.repository.ProductRepository;
+import com.wms.repository.ProductSearchRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -17,6 +19,9 @@ import org.springframework.transaction.annotation.Transactional;
 public class ProductService {
 
     private final ProductRepository productRepository;
+    private final ProductSearchRepository productSearchRepository;
+    private final LowStockIndex lowStockIndex;
+    private final ProductLookupCache productLookupCache;
 
     @Transactional
     public ProductResponse createProduct(ProductRequest request) {
@@ -36,26 +41,47 @@ public class ProductService {
                 .build();
 
         product = productRepository.save(product);
+        // Codes may be cached as "not found" from earlier scans
+        productLookupCache.invalidateCodes(product.getSku(), product.getBarcode());
         return mapToResponse(product);
     }
 
-    @Transactional(readOnly = true)
+    // Cache'ten okunur; isabet durumunda transaction ve bağlantı açılmaz
     public ProductResponse getProduct(Long id) {
-        Product product = productRepository.findById(id)
+        return productLookupCache.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
-        return mapToResponse(product);
     }
 
+    // El terminali okutması: önce barkod, sonra SKU
+    public ProductResponse scanProduct(String code) {
+        return productLookupCache.findByCode(code.trim())
+                .orElseThrow(() -> new ResourceNotFoundException("Product not found with barcode or SKU: " + code));
+    }
+
+    // Arama terimi varsa sonuçlar alaka sırasına göre döner, pageable'daki sort yok sayılır
     @Transactional(readOnly = true)
     public Page<ProductResponse> searchProducts(String search, Pageable pageable) {
-        return productRepository.searchProducts(search, pageable)
-                .map(this::mapToResponse);
+        if (search == null || search.isBlank()) {
+            return productRepository.findAll(pageable).map(this::mapToResponse);
+        }
+        return productSearchRepository.search(search, pageable);
+    }
+
+    // Type-ahead: count sorgusu olmadan
+    @Transactional(readOnly = true)
+    public Slice<ProductResponse> suggestProducts(String search, Pageable pageable) {
+        if (search == null || search.isBlank()) {
+            return productRepository.findAllBy(pageable).map(this::mapToResponse);
+        }
+        return productSearchRepository.suggest(search, pageable);
     }
 
     @Transactional
     public ProductResponse updateProduct(Long id, ProductRequest request) {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
+        String oldSku = product.getSku();
+        String oldBarcode = product.getBarcode();
 
         product.setName(request.getName());
         product.setDescription(request.getDescription());
@@ -65,6 +91,10 @@ public class ProductService {
         product.setCategory(request.getCategory());
 
         product = productRepository.save(product);
+        productLookupCache.invalidate(product.getId());
+        productLookupCache.invalidateCodes(oldSku, oldBarcode);
+        // Min stock level, name or SKU may have changed
+        lowStockIndex.refreshProduct(product.getId());
         return mapToResponse(product);
     }
 
@@ -75,19 +105,10 @@ public class ProductService {
             throw new ResourceNotFoundException("Product not found with id: " + id);
         }
         productRepository.deleteById(id);
+        productLookupCache.invalidate(id);
     }
 
     private ProductResponse mapToResponse(Product product) {
-        return ProductResponse.builder()
-                .id(product.getId())
-                .sku(product.getSku())
-                .barcode(product.getBarcode())
-                .name(product.getName())
-                .description(product.getDescription())
-                .unit(product.getUnit())
-                .unitPrice(product.getUnitPrice())
-                .minStockLevel(product.getMinStockLevel())
-                .category(product.getCategory())
-                .build();
+        return ProductLookupCache.toResponse(product);
     }
 }
\ No newline at end of file
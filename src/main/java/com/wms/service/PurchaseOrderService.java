@@ -1,22 +1,34 @@
 package com.wms.service;
 
 import com.wms.dto.request.PurchaseOrderItemRequest;
+import com.wms.dto.request.PurchaseOrderReceiptLineRequest;
+import com.wms.dto.request.PurchaseOrderReceiptRequest;
 import com.wms.dto.request.PurchaseOrderRequest;
+import com.wms.dto.response.PurchaseOrderReceiptResponse;
 import com.wms.dto.response.PurchaseOrderResponse;
 import com.wms.entity.*;
 import com.wms.enums.PurchaseOrderStatus;
 import com.wms.enums.StockMovementType;
 import com.wms.exception.BusinessRuleException;
 import com.wms.exception.ResourceNotFoundException;
+import com.wms.metrics.StockOperationMetrics;
 import com.wms.repository.*;
+import com.wms.repository.InventoryJdbcRepository.ProductLocation;
+import com.wms.repository.PurchaseOrderJdbcRepository.ReceiptItem;
+import com.wms.repository.PurchaseOrderJdbcRepository.ReceiptOrder;
+import com.wms.repository.StockMovementJdbcRepository.NewMovement;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
-import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -28,20 +40,29 @@ public class PurchaseOrderService {
     private final WarehouseRepository warehouseRepository;
     private final ProductRepository productRepository;
     private final LocationRepository locationRepository;
+    private final LocationTopology locationTopology;
     private final PurchaseOrderItemRepository purchaseOrderItemRepository;
+    private final PurchaseOrderJdbcRepository purchaseOrderJdbcRepository;
     private final InventoryRepository inventoryRepository;
-    private final StockMovementRepository stockMovementRepository;
+    private final InventoryJdbcRepository inventoryJdbcRepository;
+    private final StockMovementJournal stockMovementJournal;
+    private final AvailableToPromiseLedger atpLedger;
+    private final LowStockIndex lowStockIndex;
+    private final StockOperationMetrics stockOperationMetrics;
+    private final DocumentNumberAllocator documentNumberAllocator;
 
     @Transactional
     public PurchaseOrderResponse createPurchaseOrder(PurchaseOrderRequest request) {
         Supplier supplier = supplierRepository.findById(request.getSupplierId())
                 .orElseThrow(() -> new ResourceNotFoundException("Supplier not found"));
 
-        Warehouse warehouse = warehouseRepository.findById(request.getWarehouseId())
+        locationTopology.findWarehouse(request.getWarehouseId())
                 .orElseThrow(() -> new ResourceNotFoundException("Warehouse not found"));
+        Warehouse warehouse = warehouseRepository.getReferenceById(request.getWarehouseId());
 
         PurchaseOrder purchaseOrder = PurchaseOrder.builder()
-                .orderNumber("PO-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase())
+                .orderNumber(documentNumberAllocator.next(DocumentNumberAllocator.PURCHASE_ORDER,
+                        request.getWarehouseId()))
                 .supplier(supplier)
                 .warehouse(warehouse)
                 .status(PurchaseOrderStatus.DRAFT)
@@ -65,8 +86,9 @@ public class PurchaseOrderService {
         Product product = productRepository.findById(request.getProductId())
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found"));
 
-        Location location = locationRepository.findById(request.getLocationId())
+        locationTopology.findLocation(request.getLocationId())
                 .orElseThrow(() -> new ResourceNotFoundException("Location not found"));
+        Location location = locationRepository.getReferenceById(request.getLocationId());
 
         PurchaseOrderItem item = PurchaseOrderItem.builder()
                 .purchaseOrder(purchaseOrder)
@@ -107,54 +129,154 @@ public class PurchaseOrderService {
 
     @Transactional
     public void receivePurchaseOrder(Long purchaseOrderId) {
-        PurchaseOrder purchaseOrder = purchaseOrderRepository.findById(purchaseOrderId)
+        stockOperationMetrics.record(StockOperationMetrics.RECEIVE, () -> doReceivePurchaseOrder(purchaseOrderId));
+    }
+
+    private void doReceivePurchaseOrder(Long purchaseOrderId) {
+        PurchaseOrder purchaseOrder = purchaseOrderRepository.findByIdForUpdate(purchaseOrderId)
                 .orElseThrow(() -> new ResourceNotFoundException("Purchase order not found"));
+        stockOperationMetrics.warehouse(purchaseOrder.getWarehouse().getId());
+
+        if (!isReceivable(purchaseOrder.getStatus())) {
+            throw new BusinessRuleException("Only approved or partially received purchase orders can be received");
+        }
 
-        if (purchaseOrder.getStatus() != PurchaseOrderStatus.APPROVED) {
-            throw new BusinessRuleException("Only approved purchase orders can be received");
+        // Load the existing inventory rows of all items with one query; a lookup per item would flush the
+        // session every time and defeat JDBC batching of the inserts and updates below
+        List<PurchaseOrderItem> items = purchaseOrder.getItems();
+        Map<ProductLocation, Inventory> inventories = new HashMap<>();
+        if (!items.isEmpty()) {
+            Set<Long> productIds = new HashSet<>();
+            Set<Long> locationIds = new HashSet<>();
+            for (PurchaseOrderItem item : items) {
+                productIds.add(item.getProduct().getId());
+                locationIds.add(item.getLocation().getId());
+            }
+            List<Inventory> existing =
+                    inventoryRepository.findByProductIdsAndLocationIdsForUpdate(productIds, locationIds);
+            for (Inventory inventory : existing) {
+                inventories.put(new ProductLocation(inventory.getProduct().getId(), inventory.getLocation().getId()),
+                        inventory);
+            }
         }
 
         // Process each item
-        for (PurchaseOrderItem item : purchaseOrder.getItems()) {
+        List<NewMovement> movements = new ArrayList<>();
+        List<ProductLocation> received = new ArrayList<>();
+        for (PurchaseOrderItem item : items) {
             int quantityToReceive = item.getOrderedQuantity() - item.getReceivedQuantity();
 
             if (quantityToReceive > 0) {
                 // Update or create inventory
-                Inventory inventory = inventoryRepository
-                        .findByProductIdAndLocationId(item.getProduct().getId(), item.getLocation().getId())
-                        .orElse(Inventory.builder()
-                                .product(item.getProduct())
-                                .location(item.getLocation())
-                                .quantity(0)
-                                .reservedQuantity(0)
-                                .build());
+                ProductLocation key = new ProductLocation(item.getProduct().getId(), item.getLocation().getId());
+                Inventory inventory = inventories.computeIfAbsent(key, k -> Inventory.builder()
+                        .product(item.getProduct())
+                        .location(item.getLocation())
+                        .quantity(0)
+                        .reservedQuantity(0)
+                        .build());
 
                 inventory.setQuantity(inventory.getQuantity() + quantityToReceive);
                 inventoryRepository.save(inventory);
+                atpLedger.applyOnHandDelta(key.productId(), key.locationId(), quantityToReceive);
+                received.add(key);
 
                 // Update received quantity
                 item.setReceivedQuantity(item.getOrderedQuantity());
-                purchaseOrderItemRepository.save(item);
 
-                // Record stock movement
-                StockMovement movement = StockMovement.builder()
-                        .type(StockMovementType.IN)
-                        .product(item.getProduct())
-                        .toLocation(item.getLocation())
-                        .quantity(quantityToReceive)
-                        .reason("Purchase Order Received")
-                        .referenceNumber(purchaseOrder.getOrderNumber())
-                        .movementDate(LocalDateTime.now())
-                        .build();
-                stockMovementRepository.save(movement);
+                movements.add(new NewMovement(StockMovementType.IN, key.productId(), null,
+                        key.locationId(), quantityToReceive, "Purchase Order Received",
+                        purchaseOrder.getOrderNumber()));
             }
         }
 
+        lowStockIndex.refresh(received);
+        stockMovementJournal.recordAll(movements);
+
         purchaseOrder.setStatus(PurchaseOrderStatus.RECEIVED);
         purchaseOrder.setReceivedDate(LocalDate.now());
         purchaseOrderRepository.save(purchaseOrder);
     }
 
+    /**
+     * Books a receipt of scanned quantities, which may cover only part of the order. Quantities are summed per
+     * (product, location) and spread over the open items of that pair, oldest first. All lines are applied with
+     * one batch of inventory upserts and one batch of item updates; the order stays PARTIALLY_RECEIVED until
+     * every item is fully received. Receipts of the same order are serialized by a row lock on the order.
+     */
+    @Transactional
+    public PurchaseOrderReceiptResponse receiveItems(Long purchaseOrderId, PurchaseOrderReceiptRequest request) {
+        return stockOperationMetrics.record(StockOperationMetrics.RECEIVE,
+                () -> doReceiveItems(purchaseOrderId, request));
+    }
+
+    private PurchaseOrderReceiptResponse doReceiveItems(Long purchaseOrderId, PurchaseOrderReceiptRequest request) {
+        ReceiptOrder order = purchaseOrderJdbcRepository.lockAndLoadItems(purchaseOrderId)
+                .orElseThrow(() -> new ResourceNotFoundException("Purchase order not found"));
+        stockOperationMetrics.warehouse(order.warehouseId());
+
+        if (!isReceivable(order.status())) {
+            throw new BusinessRuleException("Only approved or partially received purchase orders can be received");
+        }
+
+        Map<ProductLocation, Long> scanned = new LinkedHashMap<>();
+        for (PurchaseOrderReceiptLineRequest line : request.getLines()) {
+            scanned.merge(new ProductLocation(line.getProductId(), line.getLocationId()),
+                    (long) line.getQuantity(), Long::sum);
+        }
+
+        Map<Long, Integer> receivedByItem = new LinkedHashMap<>();
+        Map<ProductLocation, Long> onHand = new HashMap<>();
+        List<NewMovement> movements = new ArrayList<>();
+        int received = 0;
+        int remaining = 0;
+        for (ReceiptItem item : order.items()) {
+            ProductLocation key = new ProductLocation(item.productId(), item.locationId());
+            long open = scanned.getOrDefault(key, 0L);
+            int quantity = (int) Math.min(open, Math.max(item.remainingQuantity(), 0));
+            if (quantity > 0) {
+                scanned.put(key, open - quantity);
+                receivedByItem.put(item.itemId(), quantity);
+                onHand.merge(key, (long) quantity, Long::sum);
+                movements.add(new NewMovement(StockMovementType.IN, item.productId(), null, item.locationId(),
+                        quantity, "Purchase Order Received", order.orderNumber()));
+                received += quantity;
+            }
+            remaining += Math.max(item.remainingQuantity() - quantity, 0);
+        }
+
+        scanned.forEach((key, left) -> {
+            if (left > 0) {
+                throw new BusinessRuleException("Received quantity exceeds open quantity for product " +
+                        key.productId() + " at location " + key.locationId());
+            }
+        });
+
+        inventoryJdbcRepository.addOnHand(onHand);
+        purchaseOrderJdbcRepository.addReceivedQuantities(receivedByItem);
+        onHand.forEach((key, quantity) -> atpLedger.applyOnHandDelta(key.productId(), key.locationId(), quantity));
+        lowStockIndex.refresh(onHand.keySet());
+        stockMovementJournal.recordAll(movements);
+
+        PurchaseOrderStatus status = remaining == 0 ? PurchaseOrderStatus.RECEIVED
+                : PurchaseOrderStatus.PARTIALLY_RECEIVED;
+        if (status != order.status()) {
+            purchaseOrderJdbcRepository.updateStatus(order.id(), status);
+        }
+
+        return PurchaseOrderReceiptResponse.builder()
+                .purchaseOrderId(order.id())
+                .orderNumber(order.orderNumber())
+                .status(status.name())
+                .receivedQuantity(received)
+                .remainingQuantity(remaining)
+                .build();
+    }
+
+    private static boolean isReceivable(PurchaseOrderStatus status) {
+        return status == PurchaseOrderStatus.APPROVED || status == PurchaseOrderStatus.PARTIALLY_RECEIVED;
+    }
+
     @Transactional(readOnly = true)
     public PurchaseOrderResponse getPurchaseOrder(Long id) {
         PurchaseOrder purchaseOrder = purchaseOrderRepository.findById(id)
@@ -169,7 +291,7 @@ public class PurchaseOrderService {
                 .supplierId(po.getSupplier().getId())
                 .supplierName(po.getSupplier().getName())
                 .warehouseId(po.getWarehouse().getId())
-                .warehouseName(po.getWarehouse().getName())
+                .warehouseName(locationTopology.warehouseName(po.getWarehouse()))
                 .status(po.getStatus().name())
                 .orderDate(po.getOrderDate())
                 .expectedDeliveryDate(po.getExpectedDeliveryDate())
@@ -1,15 +1,23 @@
 package com.wms.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.wms.dto.response.LowStockReportResponse;
 import com.wms.dto.response.StockMovementResponse;
-import com.wms.entity.Inventory;
 import com.wms.entity.StockMovement;
-import com.wms.repository.InventoryRepository;
+import com.wms.enums.ReportFormat;
+import com.wms.repository.StockMovementJdbcRepository;
 import com.wms.repository.StockMovementRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -19,41 +27,93 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class ReportService {
 
-    private final InventoryRepository inventoryRepository;
+    private final LowStockIndex lowStockIndex;
     private final StockMovementRepository stockMovementRepository;
+    private final StockMovementJdbcRepository stockMovementJdbcRepository;
+    private final ObjectMapper objectMapper;
 
-    @Transactional(readOnly = true)
-    public List<LowStockReportResponse> getLowStockReport() {
-        List<Inventory> lowStockItems = inventoryRepository.findLowStockItems();
+    private static final String CSV_HEADER = "id,type,productId,productName,fromLocationId,fromLocationCode," +
+            "toLocationId,toLocationCode,quantity,reason,movementDate,referenceNumber";
 
-        return lowStockItems.stream()
-                .map(inv -> LowStockReportResponse.builder()
-                        .productId(inv.getProduct().getId())
-                        .productName(inv.getProduct().getName())
-                        .productSku(inv.getProduct().getSku())
-                        .locationId(inv.getLocation().getId())
-                        .locationCode(inv.getLocation().getCode())
-                        .warehouseId(inv.getLocation().getWarehouse().getId())
-                        .warehouseName(inv.getLocation().getWarehouse().getName())
-                        .currentQuantity(inv.getQuantity())
-                        .minStockLevel(inv.getProduct().getMinStockLevel())
-                        .deficit(inv.getProduct().getMinStockLevel() - inv.getQuantity())
-                        .build())
-                .collect(Collectors.toList());
+    // Served from the maintained low-stock index, largest deficit first
+    public List<LowStockReportResponse> getLowStockReport(Integer limit) {
+        if (limit != null && limit < 1) {
+            throw new IllegalArgumentException("limit must be positive");
+        }
+        return lowStockIndex.top(limit);
     }
 
     @Transactional(readOnly = true)
     public List<StockMovementResponse> getMovementReport(LocalDate from, LocalDate to) {
         LocalDateTime fromDateTime = from.atStartOfDay();
-        LocalDateTime toDateTime = to.atTime(23, 59, 59);
+        // Half-open range, so movements in the last second of the day are included
+        LocalDateTime toDateTime = to.plusDays(1).atStartOfDay();
 
-        List<StockMovement> movements = stockMovementRepository.findByMovementDateBetween(fromDateTime, toDateTime);
+        List<StockMovement> movements = stockMovementRepository.findByMovementDateRange(fromDateTime, toDateTime);
 
         return movements.stream()
                 .map(this::mapToResponse)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Writes the movement report row by row to the output stream as NDJSON or CSV. Rows come from a JDBC cursor
+     * and are never collected, so memory use does not grow with the size of the date range.
+     */
+    @Transactional(readOnly = true)
+    public void streamMovementReport(LocalDate from, LocalDate to, ReportFormat format, OutputStream out)
+            throws IOException {
+        LocalDateTime fromDateTime = from.atStartOfDay();
+        LocalDateTime toDateTime = to.plusDays(1).atStartOfDay();
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        if (format == ReportFormat.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+
+        try {
+            stockMovementJdbcRepository.streamByMovementDate(fromDateTime, toDateTime, movement -> {
+                try {
+                    writer.write(format == ReportFormat.CSV ? toCsvRow(movement) : objectMapper.writeValueAsString(movement));
+                    writer.write('\n');
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+        writer.flush();
+    }
+
+    private static String toCsvRow(StockMovementResponse movement) {
+        return String.join(",",
+                csv(movement.getId()),
+                csv(movement.getType()),
+                csv(movement.getProductId()),
+                csv(movement.getProductName()),
+                csv(movement.getFromLocationId()),
+                csv(movement.getFromLocationCode()),
+                csv(movement.getToLocationId()),
+                csv(movement.getToLocationCode()),
+                csv(movement.getQuantity()),
+                csv(movement.getReason()),
+                csv(movement.getMovementDate()),
+                csv(movement.getReferenceNumber()));
+    }
+
+    private static String csv(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+
     private StockMovementResponse mapToResponse(StockMovement movement) {
         return StockMovementResponse.builder()
                 .id(movement.getId())
@@ -0,0 +1,269 @@
+package com.wms.service;
+
+import com.wms.repository.StockMovementJdbcRepository;
+import com.wms.repository.StockMovementJdbcRepository.NewMovement;
+import com.wms.repository.StockMovementJdbcRepository.OutboxBatch;
+import com.wms.repository.StockMovementJdbcRepository.OutboxPage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind journal for stock movements.
+ * <p>
+ * Movements recorded in a transaction are written to {@code stock_movement_outbox} with one batched insert just
+ * before it commits, so they are as durable as the stock change itself. After commit the batch is handed to a
+ * bounded in-memory buffer, and {@link #drain()} moves buffered batches to {@code stock_movements} in large
+ * multi-row inserts, deleting them from the outbox in the same transaction. Movements therefore show up in
+ * {@code stock_movements} up to {@code app.stock.journal.drain-interval-ms} after the commit.
+ * <p>
+ * When the buffer is full, recording threads wait up to {@code app.stock.journal.max-wait-ms} for the drain to
+ * catch up. Batches that still do not fit, or whose move failed, stay in the outbox and are moved by a recovery
+ * pass that reads the table; the same pass runs on startup for batches left behind by a crash.
+ * <p>
+ * {@code wms.stock.movement.journal.pending} and {@code wms.stock.movement.journal.lag} report the buffered
+ * batches and the age of the oldest one, {@code wms.stock.movement.journal.spilled} counts batches that had to
+ * go through recovery.
+ */
+@Component
+public class StockMovementJournal {
+
+    private static final Logger logger = LoggerFactory.getLogger(StockMovementJournal.class);
+
+    private static final long RECOVERY_BACKOFF_MS = 30_000;
+
+    private final StockMovementJdbcRepository stockMovementJdbcRepository;
+    private final TransactionTemplate drainTransaction;
+    private final ArrayBlockingQueue<Entry> buffer;
+    private final int batchSize;
+    private final long maxWaitMs;
+    private final ReentrantLock drainLock = new ReentrantLock();
+    // Lock and condition rather than a monitor, which would pin a waiting virtual thread to its carrier
+    private final ReentrantLock notFullLock = new ReentrantLock();
+    private final Condition notFull = notFullLock.newCondition();
+    private final Counter spilled;
+    private volatile boolean recoveryNeeded;
+    private long nextRecoveryAt;
+
+    public StockMovementJournal(StockMovementJdbcRepository stockMovementJdbcRepository,
+                                PlatformTransactionManager transactionManager,
+                                MeterRegistry meterRegistry,
+                                @Value("${app.stock.journal.capacity:10000}") int capacity,
+                                @Value("${app.stock.journal.batch-size:1000}") int batchSize,
+                                @Value("${app.stock.journal.max-wait-ms:50}") long maxWaitMs) {
+        this.stockMovementJdbcRepository = stockMovementJdbcRepository;
+        this.drainTransaction = new TransactionTemplate(transactionManager);
+        this.drainTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.buffer = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.maxWaitMs = maxWaitMs;
+
+        Gauge.builder("wms.stock.movement.journal.pending", buffer, ArrayBlockingQueue::size)
+                .description("Committed movement batches waiting to be moved to stock_movements")
+                .register(meterRegistry);
+        TimeGauge.builder("wms.stock.movement.journal.lag", this, TimeUnit.NANOSECONDS, StockMovementJournal::lagNanos)
+                .description("Age of the oldest buffered movement batch")
+                .register(meterRegistry);
+        this.spilled = Counter.builder("wms.stock.movement.journal.spilled")
+                .description("Movement batches left in the outbox for the recovery pass")
+                .register(meterRegistry);
+    }
+
+    public void record(NewMovement movement) {
+        recordAll(List.of(movement));
+    }
+
+    /**
+     * Records movements as one outbox batch. Inside a transaction the batch is written just before commit and
+     * dropped on rollback; without one it is written immediately.
+     */
+    public void recordAll(List<NewMovement> movements) {
+        if (movements.isEmpty()) {
+            return;
+        }
+
+        awaitCapacity();
+        OutboxBatch batch = new OutboxBatch(UUID.randomUUID(), LocalDateTime.now(), List.copyOf(movements));
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            stockMovementJdbcRepository.appendToOutbox(batch);
+            enqueue(batch);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                stockMovementJdbcRepository.appendToOutbox(batch);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    enqueue(batch);
+                } else if (status == STATUS_UNKNOWN) {
+                    // The outbox row may or may not exist; recovery finds it if it does
+                    requestRecovery();
+                }
+            }
+        });
+    }
+
+    /**
+     * Moves all buffered batches to stock_movements, then runs a recovery pass if one is due.
+     */
+    @Scheduled(fixedDelayString = "${app.stock.journal.drain-interval-ms:200}")
+    public void drain() {
+        drainLock.lock();
+        try {
+            while (true) {
+                List<OutboxBatch> chunk = new ArrayList<>();
+                int movements = 0;
+                Entry entry;
+                while (movements < batchSize && (entry = buffer.poll()) != null) {
+                    chunk.add(entry.batch());
+                    movements += entry.batch().movements().size();
+                }
+                if (chunk.isEmpty()) {
+                    break;
+                }
+                signalNotFull();
+
+                try {
+                    drainTransaction.executeWithoutResult(status -> stockMovementJdbcRepository.moveFromOutbox(chunk));
+                } catch (RuntimeException ex) {
+                    logger.error("Could not move {} movement batches out of the outbox, leaving them for recovery",
+                            chunk.size(), ex);
+                    requestRecovery();
+                }
+            }
+
+            if (recoveryNeeded && System.currentTimeMillis() >= nextRecoveryAt) {
+                recoveryNeeded = false;
+                if (!recoverOutbox()) {
+                    recoveryNeeded = true;
+                    nextRecoveryAt = System.currentTimeMillis() + RECOVERY_BACKOFF_MS;
+                }
+            }
+        } finally {
+            drainLock.unlock();
+        }
+    }
+
+    /**
+     * Moves every batch found in the outbox, e.g. batches committed before a crash.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recover() {
+        requestRecovery();
+        drain();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        drain();
+    }
+
+    // Runs under drainLock; returns false if a batch could not be moved
+    private boolean recoverOutbox() {
+        boolean clean = true;
+        int moved = 0;
+        long afterId = 0;
+        while (true) {
+            OutboxPage page = stockMovementJdbcRepository.findOutboxBatches(afterId, batchSize);
+            if (page.batches().isEmpty() && page.lastId() == afterId) {
+                break;
+            }
+            afterId = page.lastId();
+
+            try {
+                moved += drainTransaction.execute(status -> stockMovementJdbcRepository.moveFromOutbox(page.batches()));
+            } catch (RuntimeException ex) {
+                // Move batch by batch so one bad batch does not hold back the rest
+                for (OutboxBatch batch : page.batches()) {
+                    try {
+                        moved += drainTransaction.execute(status ->
+                                stockMovementJdbcRepository.moveFromOutbox(List.of(batch)));
+                    } catch (RuntimeException batchEx) {
+                        logger.error("Could not move movement batch {} out of the outbox", batch.batchId(), batchEx);
+                        clean = false;
+                    }
+                }
+            }
+        }
+
+        if (moved > 0) {
+            logger.info("Recovered {} stock movements from the outbox", moved);
+        }
+        return clean;
+    }
+
+    private void enqueue(OutboxBatch batch) {
+        if (!buffer.offer(new Entry(batch, System.nanoTime()))) {
+            spilled.increment();
+            requestRecovery();
+        }
+    }
+
+    private void requestRecovery() {
+        recoveryNeeded = true;
+    }
+
+    // Back-pressure: hold the recording thread while the drain is behind, but never fail the business operation
+    private void awaitCapacity() {
+        if (buffer.remainingCapacity() > 0) {
+            return;
+        }
+
+        long remaining = TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
+        notFullLock.lock();
+        try {
+            while (buffer.remainingCapacity() == 0 && remaining > 0) {
+                remaining = notFull.awaitNanos(remaining);
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } finally {
+            notFullLock.unlock();
+        }
+    }
+
+    private void signalNotFull() {
+        notFullLock.lock();
+        try {
+            notFull.signalAll();
+        } finally {
+            notFullLock.unlock();
+        }
+    }
+
+    private double lagNanos() {
+        Entry oldest = buffer.peek();
+        return oldest != null ? System.nanoTime() - oldest.enqueuedAt() : 0;
+    }
+
+    private record Entry(OutboxBatch batch, long enqueuedAt) {
+    }
+}
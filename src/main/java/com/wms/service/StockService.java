@@ -8,74 +8,65 @@ import com.wms.enums.StockMovementType;
 import com.wms.exception.BusinessRuleException;
 import com.wms.exception.InsufficientStockException;
 import com.wms.exception.ResourceNotFoundException;
+import com.wms.metrics.StockOperationMetrics;
 import com.wms.repository.*;
+import com.wms.repository.InventoryQueryRepository.InventoryFilter;
+import com.wms.repository.LocationJdbcRepository.LocationRef;
+import com.wms.repository.StockMovementJdbcRepository.NewMovement;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDateTime;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class StockService {
 
     private final InventoryRepository inventoryRepository;
+    private final InventoryJdbcRepository inventoryJdbcRepository;
+    private final InventoryQueryRepository inventoryQueryRepository;
     private final ProductRepository productRepository;
-    private final LocationRepository locationRepository;
-    private final StockMovementRepository stockMovementRepository;
+    private final LocationTopology locationTopology;
+    private final StockMovementJournal stockMovementJournal;
+    private final AvailableToPromiseLedger atpLedger;
+    private final LowStockIndex lowStockIndex;
+    private final StockOperationMetrics stockOperationMetrics;
 
     @Transactional
     public void transferStock(StockTransferRequest request) {
+        stockOperationMetrics.record(StockOperationMetrics.TRANSFER, () -> doTransferStock(request));
+    }
+
+    private void doTransferStock(StockTransferRequest request) {
         Product product = productRepository.findById(request.getProductId())
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found"));
 
-        Location fromLocation = locationRepository.findById(request.getFromLocationId())
+        LocationRef fromLocation = locationTopology.findLocation(request.getFromLocationId())
                 .orElseThrow(() -> new ResourceNotFoundException("Source location not found"));
+        stockOperationMetrics.warehouse(fromLocation.warehouseId());
 
-        Location toLocation = locationRepository.findById(request.getToLocationId())
+        LocationRef toLocation = locationTopology.findLocation(request.getToLocationId())
                 .orElseThrow(() -> new ResourceNotFoundException("Destination location not found"));
 
-        // Get or create source inventory
-        Inventory fromInventory = inventoryRepository
-                .findByProductIdAndLocationId(product.getId(), fromLocation.getId())
-                .orElseThrow(() -> new BusinessRuleException("No stock in source location"));
+        // Unflushed reservations only live in the ATP ledger, so it has the final say
+        atpLedger.consume(product.getId(), fromLocation.id(), request.getQuantity());
 
-        // Check available quantity
-        if (fromInventory.getAvailableQuantity() < request.getQuantity()) {
-            throw new InsufficientStockException("Insufficient stock in source location. Available: "
-                    + fromInventory.getAvailableQuantity());
+        // Touch rows in location id order so opposing concurrent transfers cannot deadlock;
+        // a failed deduction rolls back the destination upsert with the transaction
+        if (fromLocation.id() <= toLocation.id()) {
+            deductFromSource(product.getId(), fromLocation.id(), request.getQuantity());
+            inventoryJdbcRepository.addOnHand(product.getId(), toLocation.id(), request.getQuantity());
+        } else {
+            inventoryJdbcRepository.addOnHand(product.getId(), toLocation.id(), request.getQuantity());
+            deductFromSource(product.getId(), fromLocation.id(), request.getQuantity());
         }
+        atpLedger.applyOnHandDelta(product.getId(), toLocation.id(), request.getQuantity());
+        lowStockIndex.refresh(product.getId(), fromLocation.id());
+        lowStockIndex.refresh(product.getId(), toLocation.id());
 
-        // Deduct from source
-        fromInventory.setQuantity(fromInventory.getQuantity() - request.getQuantity());
-        inventoryRepository.save(fromInventory);
-
-        // Add to destination
-        Inventory toInventory = inventoryRepository
-                .findByProductIdAndLocationId(product.getId(), toLocation.getId())
-                .orElse(Inventory.builder()
-                        .product(product)
-                        .location(toLocation)
-                        .quantity(0)
-                        .reservedQuantity(0)
-                        .build());
-
-        toInventory.setQuantity(toInventory.getQuantity() + request.getQuantity());
-        inventoryRepository.save(toInventory);
-
-        // Record movement
-        StockMovement movement = StockMovement.builder()
-                .type(StockMovementType.TRANSFER)
-                .product(product)
-                .fromLocation(fromLocation)
-                .toLocation(toLocation)
-                .quantity(request.getQuantity())
-                .reason(request.getReason())
-                .movementDate(LocalDateTime.now())
-                .build();
-        stockMovementRepository.save(movement);
+        stockMovementJournal.record(new NewMovement(StockMovementType.TRANSFER, product.getId(), fromLocation.id(),
+                toLocation.id(), request.getQuantity(), request.getReason(), null));
     }
 
     @Transactional
@@ -83,75 +74,46 @@ public class StockService {
         Product product = productRepository.findById(request.getProductId())
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found"));
 
-        Location location = locationRepository.findById(request.getLocationId())
+        LocationRef location = locationTopology.findLocation(request.getLocationId())
                 .orElseThrow(() -> new ResourceNotFoundException("Location not found"));
 
-        Inventory inventory = inventoryRepository
-                .findByProductIdAndLocationId(product.getId(), location.getId())
-                .orElse(Inventory.builder()
-                        .product(product)
-                        .location(location)
-                        .quantity(0)
-                        .reservedQuantity(0)
-                        .build());
-
-        int oldQuantity = inventory.getQuantity();
         int newQuantity = request.getNewQuantity();
 
-        if (newQuantity < inventory.getReservedQuantity()) {
-            throw new BusinessRuleException("Cannot adjust below reserved quantity: " + inventory.getReservedQuantity());
-        }
+        // Load the ATP slot before the row is locked: loading waits for a running ledger flush, which may
+        // have to update this row
+        atpLedger.preload(List.of(new AvailableToPromiseLedger.Line(product.getId(), location.id(), 0)));
 
-        inventory.setQuantity(newQuantity);
-        inventoryRepository.save(inventory);
-
-        // Record movement
-        StockMovement movement = StockMovement.builder()
-                .type(StockMovementType.ADJUSTMENT)
-                .product(product)
-                .toLocation(location)
-                .quantity(Math.abs(newQuantity - oldQuantity))
-                .reason(request.getReason())
-                .movementDate(LocalDateTime.now())
-                .build();
-        stockMovementRepository.save(movement);
-    }
+        // Single conditional update (or insert for a new row) that refuses to go below the reserved quantity
+        int oldQuantity = inventoryJdbcRepository.setQuantity(product.getId(), location.id(), newQuantity)
+                .orElseThrow(() -> new BusinessRuleException("Cannot adjust below reserved quantity"));
 
-    @Transactional(readOnly = true)
-    public List<InventoryResponse> getInventory(Long warehouseId, Long productId) {
-        List<Inventory> inventories;
-
-        if (warehouseId != null && productId != null) {
-            inventories = inventoryRepository.findByWarehouseId(warehouseId).stream()
-                    .filter(inv -> inv.getProduct().getId().equals(productId))
-                    .collect(Collectors.toList());
-        } else if (warehouseId != null) {
-            inventories = inventoryRepository.findByWarehouseId(warehouseId);
-        } else if (productId != null) {
-            inventories = inventoryRepository.findByProductId(productId);
-        } else {
-            inventories = inventoryRepository.findAll();
+        int delta = newQuantity - oldQuantity;
+        if (delta < 0) {
+            atpLedger.consume(product.getId(), location.id(), -delta);
+        } else if (delta > 0) {
+            atpLedger.applyOnHandDelta(product.getId(), location.id(), delta);
         }
+        lowStockIndex.refresh(product.getId(), location.id());
+
+        // Decreases leave the location and increases enter it, so the movement can be replayed
+        if (delta < 0) {
+            stockMovementJournal.record(new NewMovement(StockMovementType.ADJUSTMENT, product.getId(),
+                    location.id(), null, -delta, request.getReason(), null));
+        } else if (delta > 0) {
+            stockMovementJournal.record(new NewMovement(StockMovementType.ADJUSTMENT, product.getId(), null,
+                    location.id(), delta, request.getReason(), null));
+        }
+    }
 
-        return inventories.stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+    private void deductFromSource(Long productId, Long locationId, Integer quantity) {
+        if (inventoryRepository.deductAvailable(productId, locationId, quantity) == 0) {
+            throw new InsufficientStockException("Insufficient stock in source location");
+        }
     }
 
-    private InventoryResponse mapToResponse(Inventory inventory) {
-        return InventoryResponse.builder()
-                .id(inventory.getId())
-                .productId(inventory.getProduct().getId())
-                .productName(inventory.getProduct().getName())
-                .productSku(inventory.getProduct().getSku())
-                .locationId(inventory.getLocation().getId())
-                .locationCode(inventory.getLocation().getCode())
-                .warehouseId(inventory.getLocation() != null && inventory.getLocation().getWarehouse() != null
-                        ? inventory.getLocation().getWarehouse().getId() : null)
-                .warehouseName(inventory.getLocation().getWarehouse().getName())
-                .quantity(inventory.getQuantity())
-                .reservedQuantity(inventory.getReservedQuantity())
-                .availableQuantity(inventory.getAvailableQuantity())
-                .build();
+    // All filter combinations are pushed into a single projection query
+    @Transactional(readOnly = true)
+    public List<InventoryResponse> getInventory(Long warehouseId, Long productId) {
+        return inventoryQueryRepository.find(new InventoryFilter(warehouseId, productId, null, null), null, 0);
     }
 }
\ No newline at end of file
@@ -0,0 +1,37 @@
+package com.wms.service;
+
+import com.wms.entity.User;
+import com.wms.exception.ResourceNotFoundException;
+import com.wms.repository.UserRepository;
+import com.wms.security.UserDetailsCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+@RequiredArgsConstructor
+public class UserService {
+
+    private final UserRepository userRepository;
+    private final UserDetailsCache userDetailsCache;
+
+    @Transactional
+    public void activateUser(Long id) {
+        setActive(id, true);
+    }
+
+    @Transactional
+    public void deactivateUser(Long id) {
+        setActive(id, false);
+    }
+
+    private void setActive(Long id, boolean active) {
+        User user = userRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+
+        user.setActive(active);
+        userRepository.save(user);
+        // Tokens stay valid until expiry, so the cached details are what actually locks the user out
+        userDetailsCache.invalidate(user.getEmail());
+    }
+}
@@ -18,6 +18,7 @@ import java.util.stream.Collectors;
 public class WarehouseService {
 
     private final WarehouseRepository warehouseRepository;
+    private final LocationTopology locationTopology;
 
     @Transactional
     public WarehouseResponse createWarehouse(WarehouseRequest request) {
@@ -34,6 +35,7 @@ public class WarehouseService {
                 .build();
 
         warehouse = warehouseRepository.save(warehouse);
+        locationTopology.putWarehouse(warehouse);
         return mapToResponse(warehouse);
     }
 
@@ -0,0 +1,219 @@
+package com.wms.service;
+
+import com.wms.dto.response.WaveResponse;
+import com.wms.entity.ShippingWave;
+import com.wms.enums.StockMovementType;
+import com.wms.enums.WaveStatus;
+import com.wms.exception.BusinessRuleException;
+import com.wms.exception.ResourceNotFoundException;
+import com.wms.metrics.SqlStatementCounter;
+import com.wms.repository.InventoryJdbcRepository;
+import com.wms.repository.InventoryJdbcRepository.ProductLocation;
+import com.wms.repository.OrderJdbcRepository;
+import com.wms.repository.OrderJdbcRepository.ShipmentLine;
+import com.wms.repository.ShippingWaveRepository;
+import com.wms.repository.StockMovementJdbcRepository.NewMovement;
+import com.wms.repository.StockReservationJdbcRepository;
+import com.wms.repository.WarehouseRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Groups reserved orders into per-warehouse waves and ships a whole wave with a fixed number of
+ * set-based statements, independent of how many orders and lines it contains.
+ */
+@Service
+public class WaveShippingService {
+
+    private final ShippingWaveRepository shippingWaveRepository;
+    private final WarehouseRepository warehouseRepository;
+    private final OrderJdbcRepository orderJdbcRepository;
+    private final InventoryJdbcRepository inventoryJdbcRepository;
+    private final StockMovementJournal stockMovementJournal;
+    private final StockReservationJdbcRepository stockReservationJdbcRepository;
+    private final AvailableToPromiseLedger atpLedger;
+    private final LowStockIndex lowStockIndex;
+    private final SqlStatementCounter sqlStatementCounter;
+    private final DocumentNumberAllocator documentNumberAllocator;
+
+    private final DistributionSummary waveOrders;
+    private final DistributionSummary waveLines;
+    private final DistributionSummary waveStatements;
+    private final Timer waveShipTimer;
+
+    public WaveShippingService(ShippingWaveRepository shippingWaveRepository,
+                               WarehouseRepository warehouseRepository,
+                               OrderJdbcRepository orderJdbcRepository,
+                               InventoryJdbcRepository inventoryJdbcRepository,
+                               StockMovementJournal stockMovementJournal,
+                               StockReservationJdbcRepository stockReservationJdbcRepository,
+                               AvailableToPromiseLedger atpLedger,
+                               LowStockIndex lowStockIndex,
+                               SqlStatementCounter sqlStatementCounter,
+                               DocumentNumberAllocator documentNumberAllocator,
+                               MeterRegistry meterRegistry) {
+        this.shippingWaveRepository = shippingWaveRepository;
+        this.warehouseRepository = warehouseRepository;
+        this.orderJdbcRepository = orderJdbcRepository;
+        this.inventoryJdbcRepository = inventoryJdbcRepository;
+        this.stockMovementJournal = stockMovementJournal;
+        this.stockReservationJdbcRepository = stockReservationJdbcRepository;
+        this.atpLedger = atpLedger;
+        this.lowStockIndex = lowStockIndex;
+        this.sqlStatementCounter = sqlStatementCounter;
+        this.documentNumberAllocator = documentNumberAllocator;
+
+        this.waveOrders = DistributionSummary.builder("wms.wave.orders")
+                .description("Orders shipped per wave")
+                .register(meterRegistry);
+        this.waveLines = DistributionSummary.builder("wms.wave.lines")
+                .description("Order lines shipped per wave")
+                .register(meterRegistry);
+        this.waveStatements = DistributionSummary.builder("wms.wave.statements")
+                .description("SQL statements issued to ship a wave")
+                .register(meterRegistry);
+        this.waveShipTimer = Timer.builder("wms.wave.ship")
+                .description("Wall time to ship a wave")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Puts all reserved orders that are not in a wave yet into new waves, one or more per warehouse.
+     */
+    @Transactional
+    public List<WaveResponse> planWaves(int maxOrdersPerWave) {
+        if (maxOrdersPerWave <= 0) {
+            throw new IllegalArgumentException("maxOrdersPerWave must be positive");
+        }
+
+        List<WaveResponse> waves = new ArrayList<>();
+        for (Long warehouseId : orderJdbcRepository.findWarehousesWithUnassignedReservedOrders()) {
+            int assigned;
+            do {
+                ShippingWave wave = shippingWaveRepository.save(ShippingWave.builder()
+                        .waveNumber(documentNumberAllocator.next(DocumentNumberAllocator.WAVE, warehouseId))
+                        .warehouse(warehouseRepository.getReferenceById(warehouseId))
+                        .status(WaveStatus.PLANNED)
+                        .build());
+
+                assigned = orderJdbcRepository.assignToWave(wave.getId(), warehouseId, maxOrdersPerWave);
+                if (assigned == 0) {
+                    shippingWaveRepository.delete(wave);
+                } else {
+                    waves.add(mapToResponse(wave, warehouseId, assigned, 0));
+                }
+            } while (assigned == maxOrdersPerWave);
+        }
+        return waves;
+    }
+
+    @Transactional
+    public WaveResponse shipWave(Long waveId) {
+        long start = System.nanoTime();
+        long statementsAtStart = sqlStatementCounter.current();
+
+        ShippingWave wave = shippingWaveRepository.findByIdForUpdate(waveId)
+                .orElseThrow(() -> new ResourceNotFoundException("Wave not found"));
+
+        if (wave.getStatus() != WaveStatus.PLANNED) {
+            throw new BusinessRuleException("Only planned waves can be shipped");
+        }
+
+        List<Long> orderIds = orderJdbcRepository.lockReservedOrderIdsByWave(waveId);
+        if (orderIds.isEmpty()) {
+            throw new BusinessRuleException("Wave has no reserved orders");
+        }
+
+        ShipmentSummary summary = shipOrders(orderIds, "Shipped in wave " + wave.getWaveNumber());
+
+        wave.setStatus(WaveStatus.SHIPPED);
+        wave.setShippedAt(LocalDateTime.now());
+        shippingWaveRepository.save(wave);
+
+        waveOrders.record(orderIds.size());
+        waveLines.record(summary.lines());
+        // Counted once committed, so the wave update flushed and the movements written at commit are included
+        afterCommit(() -> waveStatements.record(sqlStatementCounter.current() - statementsAtStart));
+        waveShipTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+        return mapToResponse(wave, wave.getWarehouse().getId(), orderIds.size(), summary.lines());
+    }
+
+    /**
+     * Ships already locked, reserved orders: one order status update, one batched inventory decrement, one batched
+     * movement outbox insert and one reservation release. Fails before touching inventory unless every order was
+     * still reserved.
+     */
+    @Transactional
+    public ShipmentSummary shipOrders(List<Long> orderIds, String reason) {
+        if (orderJdbcRepository.markShipped(orderIds) != orderIds.size()) {
+            throw new BusinessRuleException("Only reserved orders can be shipped");
+        }
+
+        // Make sure these orders' reservations have reached reserved_quantity before deducting them
+        atpLedger.flush();
+
+        List<ShipmentLine> lines = orderJdbcRepository.findShipmentLines(orderIds);
+
+        Map<ProductLocation, Long> quantities = new LinkedHashMap<>();
+        List<NewMovement> movements = new ArrayList<>(lines.size());
+        for (ShipmentLine line : lines) {
+            quantities.merge(new ProductLocation(line.productId(), line.locationId()), (long) line.quantity(), Long::sum);
+            movements.add(new NewMovement(StockMovementType.OUT, line.productId(), line.locationId(), null,
+                    line.quantity(), reason, line.orderNumber()));
+        }
+
+        if (!inventoryJdbcRepository.deductShipped(quantities).isEmpty()) {
+            throw new BusinessRuleException("Inventory not found");
+        }
+        stockMovementJournal.recordAll(movements);
+        stockReservationJdbcRepository.releaseByOrderIds(orderIds);
+        lowStockIndex.refresh(quantities.keySet());
+
+        return new ShipmentSummary(lines.size());
+    }
+
+    /**
+     * Result of {@link #shipOrders(List, String)}: number of shipped lines.
+     */
+    public record ShipmentSummary(int lines) {
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private WaveResponse mapToResponse(ShippingWave wave, Long warehouseId, int orderCount, int lineCount) {
+        return WaveResponse.builder()
+                .id(wave.getId())
+                .waveNumber(wave.getWaveNumber())
+                .warehouseId(warehouseId)
+                .status(wave.getStatus().name())
+                .orderCount(orderCount)
+                .lineCount(lineCount)
+                .shippedAt(wave.getShippedAt())
+                .build();
+    }
+}
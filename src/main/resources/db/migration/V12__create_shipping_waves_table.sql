@@ -0,0 +1,21 @@
+CREATE TABLE shipping_waves (
+                                id BIGSERIAL PRIMARY KEY,
+                                wave_number VARCHAR(50) NOT NULL UNIQUE,
+                                warehouse_id BIGINT NOT NULL,
+                                status VARCHAR(20) NOT NULL,
+                                shipped_at TIMESTAMP,
+                                created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+                                updated_at TIMESTAMP,
+                                created_by VARCHAR(255),
+                                last_modified_by VARCHAR(255),
+                                deleted BOOLEAN NOT NULL DEFAULT FALSE,
+                                CONSTRAINT fk_shipping_waves_warehouse FOREIGN KEY (warehouse_id) REFERENCES warehouses(id)
+);
+
+CREATE INDEX idx_shipping_waves_status ON shipping_waves(status);
+
+ALTER TABLE orders ADD COLUMN wave_id BIGINT;
+ALTER TABLE orders ADD CONSTRAINT fk_orders_wave FOREIGN KEY (wave_id) REFERENCES shipping_waves(id);
+
+CREATE INDEX idx_orders_wave ON orders(wave_id);
+CREATE INDEX idx_stock_reservations_order_released ON stock_reservations(order_id) WHERE released = false;
@@ -0,0 +1,7 @@
+-- Keyset pagination filters by product or location and orders by id
+DROP INDEX IF EXISTS idx_inventory_product;
+DROP INDEX IF EXISTS idx_inventory_location;
+
+CREATE INDEX idx_inventory_product_id ON inventory(product_id, id);
+CREATE INDEX idx_inventory_location_id ON inventory(location_id, id);
+CREATE INDEX idx_products_category ON products(category);
@@ -0,0 +1,10 @@
+-- Product search: trigram GIN indexes serve LIKE '%term%' and fuzzy (<%) matches on name and SKU,
+-- text_pattern_ops btrees serve prefix matches on SKU, barcode and name
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX idx_products_name_trgm ON products USING gin (lower(name) gin_trgm_ops);
+CREATE INDEX idx_products_sku_trgm ON products USING gin (lower(sku) gin_trgm_ops);
+
+CREATE INDEX idx_products_sku_prefix ON products (lower(sku) text_pattern_ops);
+CREATE INDEX idx_products_name_prefix ON products (lower(name) text_pattern_ops);
+CREATE INDEX idx_products_barcode_prefix ON products (barcode text_pattern_ops);
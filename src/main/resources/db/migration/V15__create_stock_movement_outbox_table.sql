@@ -0,0 +1,15 @@
+-- Movements are committed here with the stock change and moved to stock_movements in batches
+CREATE TABLE stock_movement_outbox (
+                                       id BIGSERIAL PRIMARY KEY,
+                                       batch_id UUID NOT NULL,
+                                       type VARCHAR(20) NOT NULL,
+                                       product_id BIGINT NOT NULL,
+                                       from_location_id BIGINT,
+                                       to_location_id BIGINT,
+                                       quantity INTEGER NOT NULL,
+                                       reason VARCHAR(500),
+                                       reference_number VARCHAR(100),
+                                       movement_date TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_stock_movement_outbox_batch ON stock_movement_outbox(batch_id);
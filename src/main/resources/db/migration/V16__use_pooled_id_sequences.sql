@@ -0,0 +1,15 @@
+-- Entities take ids from the BIGSERIAL sequences in blocks of 50 (pooled-lo), which lets Hibernate batch inserts.
+-- Must match the allocation size; plain JDBC inserts that use the column default consume one block per row.
+ALTER SEQUENCE users_id_seq INCREMENT BY 50;
+ALTER SEQUENCE warehouses_id_seq INCREMENT BY 50;
+ALTER SEQUENCE locations_id_seq INCREMENT BY 50;
+ALTER SEQUENCE products_id_seq INCREMENT BY 50;
+ALTER SEQUENCE inventory_id_seq INCREMENT BY 50;
+ALTER SEQUENCE suppliers_id_seq INCREMENT BY 50;
+ALTER SEQUENCE purchase_orders_id_seq INCREMENT BY 50;
+ALTER SEQUENCE purchase_order_items_id_seq INCREMENT BY 50;
+ALTER SEQUENCE orders_id_seq INCREMENT BY 50;
+ALTER SEQUENCE order_items_id_seq INCREMENT BY 50;
+ALTER SEQUENCE stock_movements_id_seq INCREMENT BY 50;
+ALTER SEQUENCE stock_reservations_id_seq INCREMENT BY 50;
+ALTER SEQUENCE shipping_waves_id_seq INCREMENT BY 50;
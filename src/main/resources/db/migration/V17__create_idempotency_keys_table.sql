@@ -0,0 +1,11 @@
+-- Results of stock-mutating requests by Idempotency-Key, so a retried request replays the stored result
+CREATE TABLE idempotency_keys (
+                                  scope VARCHAR(150) NOT NULL,
+                                  idempotency_key VARCHAR(255) NOT NULL,
+                                  request_hash BYTEA NOT NULL,
+                                  response TEXT,
+                                  created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+                                  PRIMARY KEY (scope, idempotency_key)
+);
+
+CREATE INDEX idx_idempotency_keys_created_at ON idempotency_keys(created_at);
@@ -0,0 +1,8 @@
+-- Order / purchase order numbers are leased from here in blocks, one counter per prefix, warehouse and day
+CREATE TABLE document_number_blocks (
+                                        prefix VARCHAR(10) NOT NULL,
+                                        warehouse_id BIGINT NOT NULL,
+                                        business_date DATE NOT NULL,
+                                        next_value BIGINT NOT NULL,
+                                        PRIMARY KEY (prefix, warehouse_id, business_date)
+);
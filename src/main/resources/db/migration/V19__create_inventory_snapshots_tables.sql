@@ -0,0 +1,21 @@
+-- Periodic on-hand snapshots; stock as of any time is a snapshot plus the movements between the two
+CREATE TABLE inventory_snapshots (
+                                     id BIGSERIAL PRIMARY KEY,
+                                     taken_at TIMESTAMP NOT NULL,
+                                     created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_inventory_snapshots_taken_at ON inventory_snapshots(taken_at);
+
+-- Only non-zero quantities are kept
+CREATE TABLE inventory_snapshot_lines (
+                                          snapshot_id BIGINT NOT NULL,
+                                          product_id BIGINT NOT NULL,
+                                          location_id BIGINT NOT NULL,
+                                          quantity BIGINT NOT NULL,
+                                          PRIMARY KEY (snapshot_id, product_id, location_id),
+                                          CONSTRAINT fk_inventory_snapshot_lines_snapshot
+                                              FOREIGN KEY (snapshot_id) REFERENCES inventory_snapshots(id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_inventory_snapshot_lines_location ON inventory_snapshot_lines(snapshot_id, location_id);
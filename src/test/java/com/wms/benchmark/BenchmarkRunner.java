@@ -0,0 +1,47 @@
+package com.wms.benchmark;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+
+/**
+ * Entry point of the {@code benchmark} Maven profile. Runs the selected benchmarks and writes the JMH results
+ * as JSON, so runs on two commits can be diffed (e.g. with jmh.morethan.io or a plain JSON diff).
+ * <p>
+ * System properties:
+ * <ul>
+ *     <li>{@code benchmark.include} - regex of benchmarks to run</li>
+ *     <li>{@code benchmark.profile} - Spring profile of the data source: {@code test} (embedded H2)
+ *     or {@code local} (local PostgreSQL)</li>
+ *     <li>{@code benchmark.products} - number of products in the generated data set</li>
+ *     <li>{@code benchmark.result} - JSON result file</li>
+ * </ul>
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        String result = System.getProperty("benchmark.result", "target/jmh/jmh-result.json");
+        new File(result).getAbsoluteFile().getParentFile().mkdirs();
+
+        ChainedOptionsBuilder options = new OptionsBuilder()
+                .include(System.getProperty("benchmark.include", "ServiceHotPathBenchmark|DtoMapperBenchmark"))
+                .resultFormat(ResultFormatType.JSON)
+                .result(result);
+        String profile = System.getProperty("benchmark.profile");
+        if (profile != null && !profile.isBlank()) {
+            options.param("profile", profile);
+        }
+        String products = System.getProperty("benchmark.products");
+        if (products != null && !products.isBlank()) {
+            options.param("products", products);
+        }
+        new Runner(options.build()).run();
+    }
+}
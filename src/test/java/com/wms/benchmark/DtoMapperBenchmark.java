@@ -0,0 +1,120 @@
+package com.wms.benchmark;
+
+import com.wms.WmsApplication;
+import com.wms.entity.*;
+import com.wms.enums.OrderStatus;
+import com.wms.enums.PurchaseOrderStatus;
+import com.wms.service.InventoryService;
+import com.wms.service.OrderService;
+import com.wms.service.ProductService;
+import com.wms.service.PurchaseOrderService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.util.AopTestUtils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the private entity-to-DTO mappers of the services (mapToResponse/toResponse) on in-memory entities,
+ * i.e. without any database access. The mappers are reached through method handles on the unproxied beans.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class DtoMapperBenchmark {
+
+    private ConfigurableApplicationContext context;
+
+    private MethodHandle productMapper;
+    private MethodHandle inventoryMapper;
+    private MethodHandle orderMapper;
+    private MethodHandle purchaseOrderMapper;
+
+    private Product product;
+    private Inventory inventory;
+    private Order order;
+    private PurchaseOrder purchaseOrder;
+
+    @Setup(Level.Trial)
+    public void setUp() throws ReflectiveOperationException {
+        context = new SpringApplicationBuilder(WmsApplication.class)
+                .profiles("test")
+                .properties("server.port=0")
+                .run();
+
+        productMapper = mapper(ProductService.class, "mapToResponse", Product.class);
+        inventoryMapper = mapper(InventoryService.class, "toResponse", Inventory.class);
+        orderMapper = mapper(OrderService.class, "mapToResponse", Order.class);
+        purchaseOrderMapper = mapper(PurchaseOrderService.class, "mapToResponse", PurchaseOrder.class);
+
+        Warehouse warehouse = Warehouse.builder().code("WH-001").name("Main Warehouse").build();
+        warehouse.setId(1L);
+        Location location = Location.builder().code("A-01-01").description("Aisle A").warehouse(warehouse).build();
+        location.setId(2L);
+        product = Product.builder()
+                .sku("SKU-001").barcode("8690000000001").name("Product 1").description("Benchmark product")
+                .unit("PCS").unitPrice(BigDecimal.TEN).minStockLevel(5).category("CAT-1")
+                .build();
+        product.setId(3L);
+        inventory = Inventory.builder().product(product).location(location).quantity(100).reservedQuantity(10).build();
+        inventory.setId(4L);
+        inventory.setCreatedAt(LocalDateTime.now());
+        inventory.setUpdatedAt(LocalDateTime.now());
+
+        order = Order.builder()
+                .orderNumber("ORD-0001").customerName("Customer").shippingAddress("Address")
+                .warehouse(warehouse).status(OrderStatus.RESERVED).orderDate(LocalDate.now())
+                .build();
+        order.setId(5L);
+        Supplier supplier = Supplier.builder().code("SUP-1").name("Supplier").build();
+        supplier.setId(6L);
+        purchaseOrder = PurchaseOrder.builder()
+                .orderNumber("PO-0001").supplier(supplier).warehouse(warehouse)
+                .status(PurchaseOrderStatus.APPROVED).orderDate(LocalDate.now())
+                .build();
+        purchaseOrder.setId(7L);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private MethodHandle mapper(Class<?> serviceType, String name, Class<?> entityType)
+            throws ReflectiveOperationException {
+        Object target = AopTestUtils.getUltimateTargetObject(context.getBean(serviceType));
+        MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(serviceType, MethodHandles.lookup());
+        Class<?> returnType = serviceType.getDeclaredMethod(name, entityType).getReturnType();
+        return lookup.findVirtual(serviceType, name, MethodType.methodType(returnType, entityType)).bindTo(target);
+    }
+
+    @Benchmark
+    public Object productToResponse() throws Throwable {
+        return productMapper.invoke(product);
+    }
+
+    @Benchmark
+    public Object inventoryToResponse() throws Throwable {
+        return inventoryMapper.invoke(inventory);
+    }
+
+    @Benchmark
+    public Object orderToResponse() throws Throwable {
+        return orderMapper.invoke(order);
+    }
+
+    @Benchmark
+    public Object purchaseOrderToResponse() throws Throwable {
+        return purchaseOrderMapper.invoke(purchaseOrder);
+    }
+}
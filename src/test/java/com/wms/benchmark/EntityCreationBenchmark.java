@@ -0,0 +1,190 @@
+package com.wms.benchmark;
+
+import com.wms.WmsApplication;
+import com.wms.dto.request.OrderIntakeRequest;
+import com.wms.dto.request.OrderItemRequest;
+import com.wms.dto.request.OrderRequest;
+import com.wms.dto.request.PurchaseOrderItemRequest;
+import com.wms.dto.request.PurchaseOrderRequest;
+import com.wms.entity.Location;
+import com.wms.entity.Product;
+import com.wms.entity.Supplier;
+import com.wms.entity.Warehouse;
+import com.wms.repository.LocationRepository;
+import com.wms.repository.ProductRepository;
+import com.wms.repository.SupplierRepository;
+import com.wms.repository.WarehouseRepository;
+import com.wms.service.OrderService;
+import com.wms.service.PurchaseOrderService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Throughput of the insert-heavy paths: creating orders and purchase orders with {@code items} lines, and
+ * receiving a purchase order of {@code items} lines into an empty location, so every line inserts an inventory row.
+ * Compare runs before and after a change to id generation or JDBC batching. {@code createOrder} adds lines one
+ * call at a time, {@code intakeOrder} sends them in a single call; intake has to sustain 1000 orders per minute
+ * (~17 ops/s) with 30 lines.
+ * <p>
+ * {@code profile=test} runs against embedded H2, {@code profile=local} against the PostgreSQL configured in
+ * application-local.yml. Run through {@link BenchmarkRunner} ({@code mvn -Pbenchmark verify}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class EntityCreationBenchmark {
+
+    @Param({"test"})
+    private String profile;
+
+    @Param({"1000"})
+    private int products;
+
+    @Param({"10", "30", "100"})
+    private int items;
+
+    private ConfigurableApplicationContext context;
+    private OrderService orderService;
+    private PurchaseOrderService purchaseOrderService;
+    private LocationRepository locationRepository;
+
+    private Warehouse warehouse;
+    private long supplierId;
+    private long locationId;
+    private long[] productIds;
+    private final AtomicLong locationSequence = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(WmsApplication.class)
+                .profiles(profile)
+                .properties("server.port=0")
+                .run();
+        orderService = context.getBean(OrderService.class);
+        purchaseOrderService = context.getBean(PurchaseOrderService.class);
+        locationRepository = context.getBean(LocationRepository.class);
+
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        warehouse = context.getBean(WarehouseRepository.class).save(Warehouse.builder()
+                .code("WH-CREATE-" + suffix)
+                .name("Creation Benchmark Warehouse")
+                .build());
+        locationId = locationRepository.save(Location.builder().code("CREATE-A").warehouse(warehouse).build()).getId();
+        supplierId = context.getBean(SupplierRepository.class).save(Supplier.builder()
+                .code("SUP-CREATE-" + suffix)
+                .name("Creation Benchmark Supplier")
+                .active(true)
+                .build()).getId();
+
+        List<Product> chunk = new ArrayList<>(products);
+        for (int i = 0; i < products; i++) {
+            chunk.add(Product.builder()
+                    .sku("SKU-CREATE-" + suffix + "-" + i)
+                    .name("Create Product " + i)
+                    .unit("PCS")
+                    .unitPrice(BigDecimal.ONE)
+                    .minStockLevel(0)
+                    .build());
+        }
+        productIds = context.getBean(ProductRepository.class).saveAll(chunk).stream()
+                .mapToLong(Product::getId)
+                .toArray();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private long product(int line) {
+        int start = ThreadLocalRandom.current().nextInt(productIds.length);
+        return productIds[(start + line) % productIds.length];
+    }
+
+    private long createPurchaseOrder(long toLocationId) {
+        PurchaseOrderRequest request = new PurchaseOrderRequest();
+        request.setSupplierId(supplierId);
+        request.setWarehouseId(warehouse.getId());
+        long purchaseOrderId = purchaseOrderService.createPurchaseOrder(request).getId();
+        for (int i = 0; i < items; i++) {
+            PurchaseOrderItemRequest item = new PurchaseOrderItemRequest();
+            item.setProductId(productIds[i % productIds.length]);
+            item.setLocationId(toLocationId);
+            item.setQuantity(1);
+            item.setUnitPrice(BigDecimal.ONE);
+            purchaseOrderService.addItem(purchaseOrderId, item);
+        }
+        return purchaseOrderId;
+    }
+
+    @State(Scope.Thread)
+    public static class ApprovedPurchaseOrder {
+        long purchaseOrderId;
+
+        @Setup(Level.Invocation)
+        public void create(EntityCreationBenchmark data) {
+            // A new location per receipt, so the receipt inserts inventory rows instead of updating them
+            long emptyLocationId = data.locationRepository.save(Location.builder()
+                    .code("CREATE-R-" + data.locationSequence.incrementAndGet())
+                    .warehouse(data.warehouse)
+                    .build()).getId();
+            purchaseOrderId = data.createPurchaseOrder(emptyLocationId);
+            data.purchaseOrderService.approvePurchaseOrder(purchaseOrderId);
+        }
+    }
+
+    @Benchmark
+    public long createOrder() {
+        long orderId = orderService.createOrder(OrderRequest.builder()
+                .customerName("Benchmark Customer")
+                .warehouseId(warehouse.getId())
+                .build()).getId();
+        for (int i = 0; i < items; i++) {
+            OrderItemRequest item = new OrderItemRequest();
+            item.setProductId(product(i));
+            item.setLocationId(locationId);
+            item.setQuantity(1);
+            orderService.addItem(orderId, item);
+        }
+        return orderId;
+    }
+
+    @Benchmark
+    public long intakeOrder() {
+        List<OrderItemRequest> lines = new ArrayList<>(items);
+        for (int i = 0; i < items; i++) {
+            OrderItemRequest item = new OrderItemRequest();
+            item.setProductId(product(i));
+            item.setLocationId(locationId);
+            item.setQuantity(1);
+            lines.add(item);
+        }
+        return orderService.intakeOrder(OrderIntakeRequest.builder()
+                .customerName("Benchmark Customer")
+                .warehouseId(warehouse.getId())
+                .lines(lines)
+                .build()).getId();
+    }
+
+    @Benchmark
+    public long createPurchaseOrder() {
+        return createPurchaseOrder(locationId);
+    }
+
+    @Benchmark
+    public void receivePurchaseOrder(ApprovedPurchaseOrder purchaseOrder) {
+        purchaseOrderService.receivePurchaseOrder(purchaseOrder.purchaseOrderId);
+    }
+}
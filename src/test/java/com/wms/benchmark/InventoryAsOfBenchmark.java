@@ -0,0 +1,126 @@
+package com.wms.benchmark;
+
+import com.wms.WmsApplication;
+import com.wms.dto.response.InventoryAsOfResponse;
+import com.wms.service.InventoryHistoryService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of GET /api/inventory/as-of over a 6-month movement history (2M movements, 200 locations), for a
+ * single location and a whole warehouse at random times, with no snapshots, weekly snapshots and daily
+ * snapshots. Without snapshots every query replays back from current inventory; with them only the movements
+ * up to the nearest snapshot are read. Needs Docker for PostgreSQL.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class InventoryAsOfBenchmark {
+
+    private static final int HISTORY_DAYS = 180;
+    private static final int LOCATIONS = 200;
+    private static final int PRODUCTS = 2_000;
+    private static final int MOVEMENTS = 2_000_000;
+
+    // 0 = no snapshots
+    @Param({"0", "7", "1"})
+    private int snapshotEveryDays;
+
+    private PostgreSQLContainer<?> postgres;
+    private ConfigurableApplicationContext context;
+    private InventoryHistoryService inventoryHistoryService;
+    private LocalDateTime now;
+    private long warehouseId;
+    private long firstLocationId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+        postgres.start();
+
+        context = new SpringApplicationBuilder(WmsApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=" + postgres.getJdbcUrl(),
+                        "spring.datasource.username=" + postgres.getUsername(),
+                        "spring.datasource.password=" + postgres.getPassword())
+                .run();
+        inventoryHistoryService = context.getBean(InventoryHistoryService.class);
+
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        warehouseId = jdbcTemplate.queryForObject(
+                "INSERT INTO warehouses (code, name) VALUES ('WH-ASOF', 'As-of Warehouse') RETURNING id", Long.class);
+        jdbcTemplate.update("INSERT INTO locations (code, warehouse_id) " +
+                "SELECT 'ASOF-' || g, ? FROM generate_series(1, ?) g", warehouseId, LOCATIONS);
+        jdbcTemplate.update("INSERT INTO products (sku, name, unit, unit_price) " +
+                "SELECT 'SKU-ASOF-' || g, 'As-of Product ' || g, 'PCS', 1 FROM generate_series(1, ?) g", PRODUCTS);
+        firstLocationId = jdbcTemplate.queryForObject(
+                "SELECT MIN(id) FROM locations WHERE warehouse_id = ?", Long.class, warehouseId);
+        long firstProductId = jdbcTemplate.queryForObject(
+                "SELECT MIN(id) FROM products WHERE sku LIKE 'SKU-ASOF-%'", Long.class);
+
+        // Receipts and transfers spread evenly over the history, then inventory set to what they add up to
+        now = LocalDateTime.now();
+        jdbcTemplate.update("INSERT INTO stock_movements (type, product_id, from_location_id, to_location_id, " +
+                        "quantity, movement_date) " +
+                        "SELECT CASE WHEN g % 4 = 0 THEN 'IN' ELSE 'TRANSFER' END, ? + g % ?, " +
+                        "CASE WHEN g % 4 = 0 THEN NULL ELSE ? + (g / 7) % ? END, ? + g % ?, 1 + g % 10, " +
+                        "? - (g * ? / ?) * INTERVAL '1 second' FROM generate_series(1, ?) g",
+                firstProductId, PRODUCTS, firstLocationId, LOCATIONS, firstLocationId, LOCATIONS,
+                now, HISTORY_DAYS * 86_400L, MOVEMENTS, MOVEMENTS);
+        jdbcTemplate.update("INSERT INTO inventory (product_id, location_id, quantity, reserved_quantity) " +
+                "SELECT product_id, location_id, SUM(quantity), 0 FROM (" +
+                "SELECT product_id, to_location_id AS location_id, quantity FROM stock_movements " +
+                "UNION ALL SELECT product_id, from_location_id, -quantity FROM stock_movements " +
+                "WHERE from_location_id IS NOT NULL) d GROUP BY product_id, location_id");
+        jdbcTemplate.execute("ANALYZE");
+
+        if (snapshotEveryDays > 0) {
+            for (int day = HISTORY_DAYS; day > 0; day -= snapshotEveryDays) {
+                inventoryHistoryService.takeSnapshot(now.minusDays(day));
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        postgres.stop();
+    }
+
+    private LocalDateTime randomTime() {
+        return now.minusSeconds(ThreadLocalRandom.current().nextLong(HISTORY_DAYS * 86_400L));
+    }
+
+    @Benchmark
+    public InventoryAsOfResponse locationAsOf() {
+        long locationId = firstLocationId + ThreadLocalRandom.current().nextInt(LOCATIONS);
+        return inventoryHistoryService.getInventoryAsOf(randomTime(), null, null, locationId);
+    }
+
+    @Benchmark
+    public InventoryAsOfResponse warehouseAsOf() {
+        return inventoryHistoryService.getInventoryAsOf(randomTime(), warehouseId, null, null);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(InventoryAsOfBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,108 @@
+package com.wms.benchmark;
+
+import com.wms.WmsApplication;
+import com.wms.dto.response.CursorPageResponse;
+import com.wms.dto.response.InventoryResponse;
+import com.wms.repository.InventoryQueryRepository.InventoryFilter;
+import com.wms.service.InventoryService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load test for keyset-paginated GET /api/inventory: page latency (including p99 from the sample-time mode)
+ * for the first page, a page deep into the table and a filtered page, at 10k and 5M inventory rows.
+ * With keyset pagination the numbers should stay flat as the table grows. Needs Docker for PostgreSQL.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class InventoryPageBenchmark {
+
+    private static final int LOCATIONS = 1_000;
+    private static final int PAGE_SIZE = 100;
+
+    @Param({"10000", "5000000"})
+    private int rows;
+
+    private PostgreSQLContainer<?> postgres;
+    private ConfigurableApplicationContext context;
+    private InventoryService inventoryService;
+    private String deepCursor;
+    private long warehouseId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+        postgres.start();
+
+        context = new SpringApplicationBuilder(WmsApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=" + postgres.getJdbcUrl(),
+                        "spring.datasource.username=" + postgres.getUsername(),
+                        "spring.datasource.password=" + postgres.getPassword())
+                .run();
+        inventoryService = context.getBean(InventoryService.class);
+
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        warehouseId = jdbcTemplate.queryForObject(
+                "INSERT INTO warehouses (code, name) VALUES ('WH-LOAD', 'Load Warehouse') RETURNING id", Long.class);
+        jdbcTemplate.update("INSERT INTO locations (code, warehouse_id) " +
+                "SELECT 'LOAD-' || g, ? FROM generate_series(1, ?) g", warehouseId, LOCATIONS);
+        jdbcTemplate.update("INSERT INTO products (sku, name, unit, unit_price, category) " +
+                "SELECT 'SKU-LOAD-' || g, 'Load Product ' || g, 'PCS', 1, 'CAT-' || (g % 20) " +
+                "FROM generate_series(1, ?) g", (rows + LOCATIONS - 1) / LOCATIONS);
+        jdbcTemplate.update("INSERT INTO inventory (product_id, location_id, quantity, reserved_quantity) " +
+                "SELECT p.id, l.id, (random() * 100)::int, 0 FROM products p CROSS JOIN locations l " +
+                "WHERE p.sku LIKE 'SKU-LOAD-%' AND l.warehouse_id = ? LIMIT ?", warehouseId, rows);
+        jdbcTemplate.execute("ANALYZE");
+
+        long deepId = jdbcTemplate.queryForObject(
+                "SELECT id FROM inventory ORDER BY id OFFSET ? LIMIT 1", Long.class, rows - rows / 10);
+        deepCursor = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(("inv:" + deepId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        postgres.stop();
+    }
+
+    @Benchmark
+    public CursorPageResponse<InventoryResponse> firstPage() {
+        return inventoryService.getInventoryPage(new InventoryFilter(null, null, null, null), null, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public CursorPageResponse<InventoryResponse> deepPage() {
+        return inventoryService.getInventoryPage(new InventoryFilter(null, null, null, null), deepCursor, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public CursorPageResponse<InventoryResponse> filteredPage() {
+        return inventoryService.getInventoryPage(
+                new InventoryFilter(warehouseId, null, "CAT-7", 50), null, PAGE_SIZE);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(InventoryPageBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,126 @@
+package com.wms.benchmark;
+
+import com.wms.WmsApplication;
+import com.wms.entity.User;
+import com.wms.enums.Role;
+import com.wms.repository.UserRepository;
+import com.wms.security.JwtAuthenticationFilter;
+import com.wms.security.JwtTokenProvider;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of authenticating one API request: the previous filter path (key rebuilt from the secret, token parsed
+ * twice, user loaded from the database) against the current one (cached key and parser, single parse,
+ * cached user details), plus end-to-end requests per second on GET /api/warehouses.
+ * For the "before" RPS figure run {@link #getWarehouses()} on the commit preceding this change.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class JwtFilterBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private JwtAuthenticationFilter filter;
+    private UserDetailsService userDetailsService;
+    private HttpClient httpClient;
+    private HttpRequest warehousesRequest;
+    private String secret;
+    private String token;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(WmsApplication.class)
+                .profiles("test")
+                .properties("server.port=0")
+                .run();
+
+        filter = context.getBean(JwtAuthenticationFilter.class);
+        userDetailsService = context.getBean(UserDetailsService.class);
+        secret = context.getEnvironment().getRequiredProperty("app.jwt.secret");
+
+        User user = context.getBean(UserRepository.class).save(User.builder()
+                .fullName("Benchmark User")
+                .email("bench+" + UUID.randomUUID() + "@test.com")
+                .password("password")
+                .role(Role.ROLE_WORKER)
+                .active(true)
+                .build());
+        UserDetails userDetails = userDetailsService.loadUserByUsername(user.getEmail());
+        token = context.getBean(JwtTokenProvider.class).generateToken(new UsernamePasswordAuthenticationToken(
+                userDetails, null, List.of(new SimpleGrantedAuthority(user.getRole().name()))));
+
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        httpClient = HttpClient.newHttpClient();
+        warehousesRequest = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/warehouses"))
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object cachedFilter() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/warehouses");
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        Object authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+
+    @Benchmark
+    public UserDetails legacyFilter() {
+        // Previous path: validateToken and getUsernameFromToken each rebuilt the key and parsed the token
+        Jwts.parser().verifyWith(Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8))).build()
+                .parseSignedClaims(token);
+        String username = Jwts.parser().verifyWith(Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8)))
+                .build().parseSignedClaims(token).getPayload().getSubject();
+        return userDetailsService.loadUserByUsername(username);
+    }
+
+    @Benchmark
+    @Threads(16)
+    public int getWarehouses() throws Exception {
+        return httpClient.send(warehousesRequest, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(JwtFilterBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,108 @@
+package com.wms.benchmark;
+
+import com.wms.WmsApplication;
+import com.wms.dto.response.ProductImportResponse;
+import com.wms.service.ProductImportService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Product catalog import throughput in rows per second (the {@code rows} secondary result). Every invocation
+ * streams {@code rows} products as NDJSON through {@link ProductImportService}: {@code createProducts} with
+ * SKUs that do not exist yet, {@code updateProducts} with the same SKUs every time.
+ * <p>
+ * The upsert relies on {@code INSERT ... ON CONFLICT DO UPDATE}, so this benchmark needs PostgreSQL
+ * ({@code profile=local}):
+ * {@code mvn -Pbenchmark verify -Dbenchmark.include=ProductImportBenchmark -Dbenchmark.profile=local}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class ProductImportBenchmark {
+
+    @Param({"local"})
+    private String profile;
+
+    @Param({"10000"})
+    private int rows;
+
+    @Param({"1000"})
+    private int chunkSize;
+
+    @Param({"1", "4"})
+    private int parallelism;
+
+    private ConfigurableApplicationContext context;
+    private ProductImportService productImportService;
+    private byte[] existingProducts;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(WmsApplication.class)
+                .profiles(profile)
+                .properties("server.port=0",
+                        "app.products.import.chunk-size=" + chunkSize,
+                        "app.products.import.parallelism=" + parallelism)
+                .run();
+        productImportService = context.getBean(ProductImportService.class);
+
+        existingProducts = ndjson("SKU-IMP-" + UUID.randomUUID().toString().substring(0, 8), rows);
+        productImportService.importProducts(new ByteArrayInputStream(existingProducts));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    static byte[] ndjson(String skuPrefix, int count) {
+        StringBuilder body = new StringBuilder(count * 160);
+        for (int i = 0; i < count; i++) {
+            body.append("{\"sku\":\"").append(skuPrefix).append('-').append(i)
+                    .append("\",\"name\":\"Imported Product ").append(i)
+                    .append("\",\"description\":\"Nightly ERP sync\",\"unit\":\"PCS\",\"unitPrice\":")
+                    .append(1 + i % 500).append(".99,\"minStockLevel\":").append(i % 50)
+                    .append(",\"category\":\"CAT-").append(i % 20).append("\"}\n");
+        }
+        return body.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Rows {
+        public long rows;
+    }
+
+    @State(Scope.Thread)
+    public static class NewProducts {
+        byte[] body;
+
+        @Setup(Level.Invocation)
+        public void create(ProductImportBenchmark data) {
+            body = ndjson("SKU-IMP-" + UUID.randomUUID().toString().substring(0, 8), data.rows);
+        }
+    }
+
+    @Benchmark
+    public ProductImportResponse createProducts(NewProducts products, Rows counter) {
+        ProductImportResponse response = productImportService.importProducts(new ByteArrayInputStream(products.body));
+        counter.rows += response.getCreatedCount();
+        return response;
+    }
+
+    @Benchmark
+    public ProductImportResponse updateProducts(Rows counter) {
+        ProductImportResponse response = productImportService.importProducts(new ByteArrayInputStream(existingProducts));
+        counter.rows += response.getUpdatedCount();
+        return response;
+    }
+}
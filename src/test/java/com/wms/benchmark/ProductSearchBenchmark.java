@@ -0,0 +1,116 @@
+package com.wms.benchmark;
+
+import com.wms.WmsApplication;
+import com.wms.dto.response.ProductResponse;
+import com.wms.entity.Product;
+import com.wms.service.ProductService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Product search against an existing catalog, meant for 1M products generated with
+ * {@link com.wms.datagen.DataGenerator} ({@code products=1000000}) in the local PostgreSQL:
+ * {@code mvn -Pbenchmark verify -Dbenchmark.include=ProductSearchBenchmark -Dbenchmark.profile=local}
+ * <p>
+ * Search terms are sampled from the catalog: name fragments, SKU prefixes, full barcodes and two-character
+ * type-ahead prefixes. {@code legacyLike} runs the previous {@code LOWER(..) LIKE '%term%'} JPQL query with its
+ * count query as the baseline.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class ProductSearchBenchmark {
+
+    private static final int SAMPLE_SIZE = 1000;
+
+    @Param({"local"})
+    private String profile;
+
+    private ConfigurableApplicationContext context;
+    private ProductService productService;
+    private EntityManagerFactory entityManagerFactory;
+    private String[] terms;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(WmsApplication.class)
+                .profiles(profile)
+                .properties("server.port=0")
+                .run();
+        productService = context.getBean(ProductService.class);
+        entityManagerFactory = context.getBean(EntityManagerFactory.class);
+
+        List<Map<String, Object>> sample = context.getBean(JdbcTemplate.class).queryForList(
+                "SELECT sku, barcode, name FROM products ORDER BY random() LIMIT " + SAMPLE_SIZE);
+        if (sample.isEmpty()) {
+            throw new IllegalStateException("No products to search, run DataGenerator first");
+        }
+        List<String> generated = new ArrayList<>();
+        for (Map<String, Object> row : sample) {
+            String name = (String) row.get("name");
+            String sku = (String) row.get("sku");
+            generated.add(name.substring(Math.max(0, name.length() - 8)));
+            generated.add(sku.length() > 2 ? sku.substring(0, sku.length() - 2) : sku);
+            if (row.get("barcode") != null) {
+                generated.add((String) row.get("barcode"));
+            }
+            generated.add(name.substring(0, Math.min(2, name.length())));
+        }
+        terms = generated.toArray(String[]::new);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private String randomTerm() {
+        return terms[ThreadLocalRandom.current().nextInt(terms.length)];
+    }
+
+    @Benchmark
+    public Page<ProductResponse> searchPage() {
+        return productService.searchProducts(randomTerm(), PageRequest.of(0, 20));
+    }
+
+    @Benchmark
+    public Slice<ProductResponse> suggest() {
+        return productService.suggestProducts(randomTerm(), PageRequest.of(0, 10));
+    }
+
+    @Benchmark
+    public long legacyLike() {
+        String term = randomTerm();
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            String where = " WHERE LOWER(p.name) LIKE LOWER(CONCAT('%', :search, '%')) " +
+                    "OR LOWER(p.sku) LIKE LOWER(CONCAT('%', :search, '%'))";
+            List<Product> page = entityManager.createQuery("SELECT p FROM Product p" + where, Product.class)
+                    .setParameter("search", term)
+                    .setMaxResults(20)
+                    .getResultList();
+            Long count = entityManager.createQuery("SELECT count(p) FROM Product p" + where, Long.class)
+                    .setParameter("search", term)
+                    .getSingleResult();
+            return page.size() + count;
+        } finally {
+            entityManager.close();
+        }
+    }
+}
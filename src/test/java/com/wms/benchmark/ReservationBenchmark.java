@@ -0,0 +1,129 @@
+package com.wms.benchmark;
+
+import com.wms.WmsApplication;
+import com.wms.entity.Inventory;
+import com.wms.entity.Location;
+import com.wms.entity.Product;
+import com.wms.entity.Warehouse;
+import com.wms.exception.InsufficientStockException;
+import com.wms.repository.InventoryRepository;
+import com.wms.repository.LocationRepository;
+import com.wms.repository.ProductRepository;
+import com.wms.repository.WarehouseRepository;
+import com.wms.service.AvailableToPromiseLedger;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reservation throughput of the ATP ledger against the previous read-check-save JPA path,
+ * both hammering a single hot SKU. Run {@link #main(String[])} to get results for 1, 8 and 64 threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class ReservationBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private AvailableToPromiseLedger ledger;
+    private InventoryRepository inventoryRepository;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private long inventoryId;
+    private long productId;
+    private long locationId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(WmsApplication.class)
+                .profiles("test")
+                .properties("server.port=0")
+                .run();
+
+        ledger = context.getBean(AvailableToPromiseLedger.class);
+        inventoryRepository = context.getBean(InventoryRepository.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+
+        String suffix = UUID.randomUUID().toString();
+        Warehouse warehouse = context.getBean(WarehouseRepository.class).save(Warehouse.builder()
+                .code("WH-BENCH-" + suffix)
+                .name("Benchmark Warehouse")
+                .build());
+        Location location = context.getBean(LocationRepository.class).save(Location.builder()
+                .code("LOC-BENCH")
+                .warehouse(warehouse)
+                .build());
+        Product product = context.getBean(ProductRepository.class).save(Product.builder()
+                .sku("SKU-BENCH-" + suffix)
+                .name("Benchmark Product")
+                .unit("PCS")
+                .unitPrice(BigDecimal.ONE)
+                .minStockLevel(0)
+                .build());
+        Inventory inventory = inventoryRepository.save(Inventory.builder()
+                .product(product)
+                .location(location)
+                .quantity(Integer.MAX_VALUE)
+                .reservedQuantity(0)
+                .build());
+
+        inventoryId = inventory.getId();
+        productId = product.getId();
+        locationId = location.getId();
+    }
+
+    @Setup(Level.Iteration)
+    public void resetReservations() {
+        ledger.flush();
+        jdbcTemplate.update("UPDATE inventory SET reserved_quantity = 0 WHERE id = ?", inventoryId);
+        ledger.invalidate(productId, locationId);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public long ledgerReserve() {
+        return ledger.reserve(productId, locationId, 1);
+    }
+
+    @Benchmark
+    public void jpaReadCheckSave() {
+        transactionTemplate.executeWithoutResult(status -> {
+            Inventory inventory = inventoryRepository.findByProductIdAndLocationId(productId, locationId)
+                    .orElseThrow();
+            if (inventory.getAvailableQuantity() < 1) {
+                throw new InsufficientStockException("Benchmark inventory exhausted");
+            }
+            inventory.setReservedQuantity(inventory.getReservedQuantity() + 1);
+            inventoryRepository.save(inventory);
+        });
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        for (int threads : new int[]{1, 8, 64}) {
+            Options options = new OptionsBuilder()
+                    .include(ReservationBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .build();
+            new Runner(options).run();
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package com.wms.benchmark;
+
+import com.wms.WmsApplication;
+import com.wms.dto.request.OrderItemRequest;
+import com.wms.dto.request.OrderRequest;
+import com.wms.dto.request.PurchaseOrderItemRequest;
+import com.wms.dto.request.PurchaseOrderRequest;
+import com.wms.dto.request.StockTransferRequest;
+import com.wms.dto.response.ProductResponse;
+import com.wms.entity.Inventory;
+import com.wms.entity.Location;
+import com.wms.entity.Product;
+import com.wms.entity.Supplier;
+import com.wms.entity.Warehouse;
+import com.wms.repository.InventoryRepository;
+import com.wms.repository.LocationRepository;
+import com.wms.repository.ProductRepository;
+import com.wms.repository.SupplierRepository;
+import com.wms.repository.WarehouseRepository;
+import com.wms.service.OrderService;
+import com.wms.service.ProductService;
+import com.wms.service.PurchaseOrderService;
+import com.wms.service.StockService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service-layer hot paths end to end (transaction, SQL, commit): order reservation and shipping, stock transfer,
+ * purchase order receipt, product search and scanner lookups. The data set is generated on start-up with {@code products}
+ * products stocked in two locations.
+ * <p>
+ * {@code profile=test} runs against embedded H2, {@code profile=local} against the PostgreSQL configured in
+ * application-local.yml. Run through {@link BenchmarkRunner} ({@code mvn -Pbenchmark verify}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class ServiceHotPathBenchmark {
+
+    private static final int ITEMS_PER_ORDER = 3;
+    private static final int INITIAL_QUANTITY = 100_000_000;
+    private static final int SEED_CHUNK = 1_000;
+
+    @Param({"test"})
+    private String profile;
+
+    @Param({"1000"})
+    private int products;
+
+    private ConfigurableApplicationContext context;
+    private OrderService orderService;
+    private StockService stockService;
+    private PurchaseOrderService purchaseOrderService;
+    private ProductService productService;
+
+    private long warehouseId;
+    private long supplierId;
+    private long locationA;
+    private long locationB;
+    private long[] productIds;
+    private String[] skus;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(WmsApplication.class)
+                .profiles(profile)
+                .properties("server.port=0")
+                .run();
+        orderService = context.getBean(OrderService.class);
+        stockService = context.getBean(StockService.class);
+        purchaseOrderService = context.getBean(PurchaseOrderService.class);
+        productService = context.getBean(ProductService.class);
+
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        Warehouse warehouse = context.getBean(WarehouseRepository.class).save(Warehouse.builder()
+                .code("WH-BENCH-" + suffix)
+                .name("Benchmark Warehouse")
+                .build());
+        LocationRepository locationRepository = context.getBean(LocationRepository.class);
+        Location a = locationRepository.save(Location.builder().code("BENCH-A").warehouse(warehouse).build());
+        Location b = locationRepository.save(Location.builder().code("BENCH-B").warehouse(warehouse).build());
+        Supplier supplier = context.getBean(SupplierRepository.class).save(Supplier.builder()
+                .code("SUP-BENCH-" + suffix)
+                .name("Benchmark Supplier")
+                .active(true)
+                .build());
+
+        ProductRepository productRepository = context.getBean(ProductRepository.class);
+        InventoryRepository inventoryRepository = context.getBean(InventoryRepository.class);
+        productIds = new long[products];
+        skus = new String[products];
+        for (int start = 0; start < products; start += SEED_CHUNK) {
+            List<Product> chunk = new ArrayList<>();
+            for (int i = start; i < Math.min(products, start + SEED_CHUNK); i++) {
+                chunk.add(Product.builder()
+                        .sku("SKU-BENCH-" + suffix + "-" + i)
+                        .name("Bench Product " + i)
+                        .unit("PCS")
+                        .unitPrice(BigDecimal.ONE)
+                        .minStockLevel(10)
+                        .category("CAT-" + (i % 20))
+                        .build());
+            }
+            List<Inventory> inventory = new ArrayList<>();
+            for (Product product : productRepository.saveAll(chunk)) {
+                productIds[inventory.size() / 2 + start] = product.getId();
+                skus[inventory.size() / 2 + start] = product.getSku();
+                inventory.add(Inventory.builder().product(product).location(a)
+                        .quantity(INITIAL_QUANTITY).reservedQuantity(0).build());
+                inventory.add(Inventory.builder().product(product).location(b)
+                        .quantity(INITIAL_QUANTITY).reservedQuantity(0).build());
+            }
+            inventoryRepository.saveAll(inventory);
+        }
+
+        warehouseId = warehouse.getId();
+        supplierId = supplier.getId();
+        locationA = a.getId();
+        locationB = b.getId();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private long randomProduct() {
+        return productIds[ThreadLocalRandom.current().nextInt(productIds.length)];
+    }
+
+    private long createOrder() {
+        long orderId = orderService.createOrder(OrderRequest.builder()
+                .customerName("Benchmark Customer")
+                .warehouseId(warehouseId)
+                .build()).getId();
+        for (int i = 0; i < ITEMS_PER_ORDER; i++) {
+            OrderItemRequest item = new OrderItemRequest();
+            item.setProductId(randomProduct());
+            item.setLocationId(locationA);
+            item.setQuantity(1);
+            orderService.addItem(orderId, item);
+        }
+        return orderId;
+    }
+
+    @State(Scope.Thread)
+    public static class PendingOrder {
+        long orderId;
+
+        @Setup(Level.Invocation)
+        public void create(ServiceHotPathBenchmark data) {
+            orderId = data.createOrder();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ReservedOrder {
+        long orderId;
+
+        @Setup(Level.Invocation)
+        public void create(ServiceHotPathBenchmark data) {
+            orderId = data.createOrder();
+            data.orderService.reserveStock(orderId);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ApprovedPurchaseOrder {
+        long purchaseOrderId;
+
+        @Setup(Level.Invocation)
+        public void create(ServiceHotPathBenchmark data) {
+            PurchaseOrderRequest request = new PurchaseOrderRequest();
+            request.setSupplierId(data.supplierId);
+            request.setWarehouseId(data.warehouseId);
+            purchaseOrderId = data.purchaseOrderService.createPurchaseOrder(request).getId();
+            for (int i = 0; i < ITEMS_PER_ORDER; i++) {
+                PurchaseOrderItemRequest item = new PurchaseOrderItemRequest();
+                item.setProductId(data.randomProduct());
+                item.setLocationId(data.locationB);
+                item.setQuantity(1);
+                item.setUnitPrice(BigDecimal.ONE);
+                data.purchaseOrderService.addItem(purchaseOrderId, item);
+            }
+            data.purchaseOrderService.approvePurchaseOrder(purchaseOrderId);
+        }
+    }
+
+    @Benchmark
+    public void reserveStock(PendingOrder order) {
+        orderService.reserveStock(order.orderId);
+    }
+
+    @Benchmark
+    public void shipOrder(ReservedOrder order) {
+        orderService.shipOrder(order.orderId);
+    }
+
+    @Benchmark
+    public void transferStock() {
+        // Random direction keeps both locations stocked over a long run
+        boolean forward = ThreadLocalRandom.current().nextBoolean();
+        stockService.transferStock(StockTransferRequest.builder()
+                .productId(randomProduct())
+                .fromLocationId(forward ? locationA : locationB)
+                .toLocationId(forward ? locationB : locationA)
+                .quantity(1)
+                .reason("Benchmark")
+                .build());
+    }
+
+    @Benchmark
+    public void receivePurchaseOrder(ApprovedPurchaseOrder purchaseOrder) {
+        purchaseOrderService.receivePurchaseOrder(purchaseOrder.purchaseOrderId);
+    }
+
+    @Benchmark
+    public Page<ProductResponse> searchProducts() {
+        return productService.searchProducts("Bench Product " + ThreadLocalRandom.current().nextInt(100),
+                PageRequest.of(0, 20));
+    }
+
+    @Benchmark
+    public ProductResponse scanProduct() {
+        return productService.scanProduct(skus[ThreadLocalRandom.current().nextInt(skus.length)]);
+    }
+}
@@ -0,0 +1,257 @@
+package com.wms.benchmark;
+
+import com.wms.WmsApplication;
+import com.wms.entity.Inventory;
+import com.wms.entity.Location;
+import com.wms.entity.Product;
+import com.wms.entity.User;
+import com.wms.entity.Warehouse;
+import com.wms.enums.Role;
+import com.wms.repository.InventoryRepository;
+import com.wms.repository.LocationRepository;
+import com.wms.repository.ProductRepository;
+import com.wms.repository.UserRepository;
+import com.wms.repository.WarehouseRepository;
+import com.wms.security.JwtTokenProvider;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Closed-loop HTTP load test of request handling on platform threads against virtual threads. For each mode the
+ * application is started with {@code spring.threads.virtual.enabled} set accordingly, and every client count
+ * runs that many concurrent clients issuing {@code GET /api/stock/inventory} (one JDBC statement per request)
+ * back to back. Throughput, p50/p99 latency and failed requests are printed as a table and written as JSON.
+ * <p>
+ * JMH does not fit here: latency percentiles per request at a varying number of clients are the point.
+ * <p>
+ * Usage: {@code VirtualThreadLoadRunner profile=local clients=10,100,1000 warmupSeconds=5 seconds=20
+ * result=target/load/threads.json}.
+ */
+public final class VirtualThreadLoadRunner {
+
+    private static final int PRODUCTS = 200;
+
+    /**
+     * Outcome of one (mode, clients) run.
+     */
+    public record Result(String threads, int clients, long requests, long errors, double requestsPerSecond,
+                         double p50Millis, double p99Millis) {
+    }
+
+    private VirtualThreadLoadRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq < 0) {
+                throw new IllegalArgumentException("Expected key=value but got: " + arg);
+            }
+            options.put(arg.substring(0, eq), arg.substring(eq + 1));
+        }
+        String profile = options.getOrDefault("profile", "test");
+        int[] clientCounts = Arrays.stream(options.getOrDefault("clients", "10,100,1000").split(","))
+                .mapToInt(value -> Integer.parseInt(value.trim()))
+                .toArray();
+        Duration warmup = Duration.ofSeconds(Long.parseLong(options.getOrDefault("warmupSeconds", "5")));
+        Duration measurement = Duration.ofSeconds(Long.parseLong(options.getOrDefault("seconds", "20")));
+        Path result = Path.of(options.getOrDefault("result", "target/load/threads.json"));
+
+        List<Result> results = new ArrayList<>();
+        for (boolean virtual : new boolean[]{false, true}) {
+            ConfigurableApplicationContext context = new SpringApplicationBuilder(WmsApplication.class)
+                    .profiles(profile)
+                    .properties("server.port=0", "spring.threads.virtual.enabled=" + virtual)
+                    .run();
+            try {
+                List<URI> targets = seed(context);
+                String token = token(context);
+                for (int clients : clientCounts) {
+                    Result run = run(virtual ? "virtual" : "platform", clients, targets, token, warmup, measurement);
+                    System.out.printf("%-8s clients=%5d  %10.1f req/s  p50=%8.2f ms  p99=%8.2f ms  errors=%d%n",
+                            run.threads(), run.clients(), run.requestsPerSecond(), run.p50Millis(),
+                            run.p99Millis(), run.errors());
+                    results.add(run);
+                }
+            } finally {
+                context.close();
+            }
+        }
+        write(result, results);
+    }
+
+    private static Result run(String threads, int clients, List<URI> targets, String token, Duration warmup,
+                              Duration measurement) throws Exception {
+        long measureFrom = System.nanoTime() + warmup.toNanos();
+        long measureUntil = measureFrom + measurement.toNanos();
+
+        // The load generator itself runs on virtual threads, so 1000 clients do not need 1000 platform threads
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            HttpClient httpClient = HttpClient.newBuilder()
+                    .executor(executor)
+                    .connectTimeout(Duration.ofSeconds(10))
+                    .build();
+            List<Future<long[]>> futures = new ArrayList<>(clients);
+            for (int c = 0; c < clients; c++) {
+                futures.add(executor.submit(() -> client(httpClient, targets, token, measureFrom, measureUntil)));
+            }
+
+            long[] latencies = new long[0];
+            long errors = 0;
+            for (Future<long[]> future : futures) {
+                long[] client = future.get();
+                // Last slot carries the client's error count
+                errors += client[client.length - 1];
+                int start = latencies.length;
+                latencies = Arrays.copyOf(latencies, start + client.length - 1);
+                System.arraycopy(client, 0, latencies, start, client.length - 1);
+            }
+            Arrays.sort(latencies);
+            double seconds = measurement.toNanos() / 1e9;
+            return new Result(threads, clients, latencies.length, errors, latencies.length / seconds,
+                    percentile(latencies, 0.50), percentile(latencies, 0.99));
+        }
+    }
+
+    // Returns the latencies (ns) of successful requests inside the measurement window, followed by the error count
+    private static long[] client(HttpClient httpClient, List<URI> targets, String token, long measureFrom,
+                                 long measureUntil) {
+        long[] latencies = new long[1024];
+        int count = 0;
+        long errors = 0;
+        long now;
+        while ((now = System.nanoTime()) < measureUntil) {
+            URI target = targets.get(ThreadLocalRandom.current().nextInt(targets.size()));
+            HttpRequest request = HttpRequest.newBuilder(target)
+                    .header("Authorization", "Bearer " + token)
+                    .timeout(Duration.ofSeconds(60))
+                    .GET()
+                    .build();
+            boolean ok;
+            try {
+                ok = httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+            } catch (IOException ex) {
+                ok = false;
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            long end = System.nanoTime();
+            if (now < measureFrom) {
+                continue;
+            }
+            if (!ok) {
+                errors++;
+                continue;
+            }
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = end - now;
+        }
+        long[] result = Arrays.copyOf(latencies, count + 1);
+        result[count] = errors;
+        return result;
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return Double.NaN;
+        }
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(quantile * sorted.length) - 1);
+        return sorted[Math.max(index, 0)] / 1e6;
+    }
+
+    private static List<URI> seed(ConfigurableApplicationContext context) {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        Warehouse warehouse = context.getBean(WarehouseRepository.class).save(Warehouse.builder()
+                .code("WH-LOAD-" + suffix)
+                .name("Load Test Warehouse")
+                .build());
+        Location location = context.getBean(LocationRepository.class).save(Location.builder()
+                .code("LOAD-A")
+                .warehouse(warehouse)
+                .build());
+
+        List<Product> products = new ArrayList<>(PRODUCTS);
+        for (int i = 0; i < PRODUCTS; i++) {
+            products.add(Product.builder()
+                    .sku("SKU-LOAD-" + suffix + "-" + i)
+                    .name("Load Product " + i)
+                    .unit("PCS")
+                    .unitPrice(BigDecimal.ONE)
+                    .minStockLevel(0)
+                    .build());
+        }
+        List<Inventory> inventory = new ArrayList<>(PRODUCTS);
+        List<URI> targets = new ArrayList<>(PRODUCTS);
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        for (Product product : context.getBean(ProductRepository.class).saveAll(products)) {
+            inventory.add(Inventory.builder().product(product).location(location)
+                    .quantity(1000).reservedQuantity(0).build());
+            targets.add(URI.create("http://localhost:" + port + "/api/stock/inventory?warehouseId=" +
+                    warehouse.getId() + "&productId=" + product.getId()));
+        }
+        context.getBean(InventoryRepository.class).saveAll(inventory);
+        return targets;
+    }
+
+    private static String token(ConfigurableApplicationContext context) {
+        User user = context.getBean(UserRepository.class).save(User.builder()
+                .fullName("Load Test User")
+                .email("load+" + UUID.randomUUID() + "@test.com")
+                .password("password")
+                .role(Role.ROLE_WORKER)
+                .active(true)
+                .build());
+        UserDetails userDetails = context.getBean(UserDetailsService.class).loadUserByUsername(user.getEmail());
+        return context.getBean(JwtTokenProvider.class).generateToken(new UsernamePasswordAuthenticationToken(
+                userDetails, null, List.of(new SimpleGrantedAuthority(user.getRole().name()))));
+    }
+
+    private static void write(Path file, List<Result> results) throws IOException {
+        StringBuilder json = new StringBuilder("[\n");
+        for (int i = 0; i < results.size(); i++) {
+            Result r = results.get(i);
+            json.append(String.format(Locale.ROOT,
+                    "  {\"threads\": \"%s\", \"clients\": %d, \"requests\": %d, \"errors\": %d, " +
+                            "\"requestsPerSecond\": %.1f, \"p50Millis\": %.3f, \"p99Millis\": %.3f}%s%n",
+                    r.threads(), r.clients(), r.requests(), r.errors(), r.requestsPerSecond(), r.p50Millis(),
+                    r.p99Millis(), i < results.size() - 1 ? "," : ""));
+        }
+        json.append("]\n");
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Files.writeString(file, json.toString());
+        System.out.println("Results written to " + file.toAbsolutePath());
+    }
+}
@@ -0,0 +1,98 @@
+package com.wms.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class JdbcAdmissionGateTest {
+
+    @Mock
+    private DataSource target;
+
+    @Mock
+    private Connection connection;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        lenient().when(target.getConnection()).thenReturn(connection);
+    }
+
+    private DataSource gated(long maxWaitMs, int maxQueue) {
+        return (DataSource) new JdbcAdmissionGate(true, 2, 1, maxWaitMs, maxQueue)
+                .postProcessAfterInitialization(target, "dataSource");
+    }
+
+    private static Throwable failureOnOtherThread(DataSource dataSource) throws Exception {
+        CompletableFuture<Connection> other = CompletableFuture.supplyAsync(() -> {
+            try {
+                return dataSource.getConnection();
+            } catch (Exception ex) {
+                throw new IllegalStateException(ex);
+            }
+        });
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> other.get(5, TimeUnit.SECONDS));
+        return failure.getCause().getCause();
+    }
+
+    @Test
+    void getConnection_NoPermitLeft_TimesOutUntilClosed() throws Exception {
+        DataSource dataSource = gated(50, 100);
+
+        Connection held = dataSource.getConnection();
+        assertInstanceOf(SQLTransientConnectionException.class, failureOnOtherThread(dataSource));
+
+        held.close();
+        held.close();
+        verify(connection, times(1)).close();
+        assertTrue(held.isClosed());
+        verify(connection, never()).isClosed();
+        assertNotNull(CompletableFuture.supplyAsync(() -> {
+            try {
+                return dataSource.getConnection();
+            } catch (Exception ex) {
+                throw new IllegalStateException(ex);
+            }
+        }).get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void getConnection_NestedOnSameThread_RidesOnOuterPermit() throws Exception {
+        DataSource dataSource = gated(50, 100);
+
+        try (Connection outer = dataSource.getConnection(); Connection inner = dataSource.getConnection()) {
+            assertNotNull(outer);
+            assertNotNull(inner);
+        }
+        verify(connection, times(2)).close();
+    }
+
+    @Test
+    void getConnection_QueueFull_RejectsWithoutWaiting() throws Exception {
+        DataSource dataSource = gated(60_000, 0);
+
+        try (Connection ignored = dataSource.getConnection()) {
+            long start = System.nanoTime();
+            assertInstanceOf(SQLTransientConnectionException.class, failureOnOtherThread(dataSource));
+            assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+        }
+    }
+
+    @Test
+    void constructor_NoHeadroomForNestedConnections_Rejected() {
+        assertThrows(IllegalArgumentException.class, () -> new JdbcAdmissionGate(true, 10, 0, 50, 100));
+        assertThrows(IllegalArgumentException.class, () -> new JdbcAdmissionGate(true, 2, 2, 50, 100));
+    }
+}
@@ -0,0 +1,167 @@
+package com.wms.datagen;
+
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Streams rows into one {@code COPY ... FROM STDIN} in PostgreSQL text format, flushing in 1 MB chunks
+ * so memory stays flat regardless of the row count.
+ * <p>
+ * A connection can only run one COPY at a time, so tables written side by side (e.g. orders and their items)
+ * use {@link #spooled} streams: rows go to a temporary file that is copied in when the stream is closed.
+ */
+final class CopyStream implements AutoCloseable {
+
+    private static final int FLUSH_BYTES = 1 << 20;
+
+    private final CopyManager copyManager;
+    private final String sql;
+    private final CopyIn copyIn;
+    private final Path spoolFile;
+    private final Writer spool;
+    private final StringBuilder buffer = new StringBuilder(FLUSH_BYTES + 4096);
+    private boolean firstColumn = true;
+    private long rows;
+
+    private CopyStream(CopyManager copyManager, String table, String columns, boolean spooled) throws SQLException {
+        this.copyManager = copyManager;
+        this.sql = "COPY " + table + " (" + columns + ") FROM STDIN";
+        try {
+            this.spoolFile = spooled ? Files.createTempFile("wms-datagen-" + table, ".copy") : null;
+            this.spool = spooled ? Files.newBufferedWriter(spoolFile, StandardCharsets.UTF_8) : null;
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        this.copyIn = spooled ? null : copyManager.copyIn(sql);
+    }
+
+    static CopyStream direct(CopyManager copyManager, String table, String columns) throws SQLException {
+        return new CopyStream(copyManager, table, columns, false);
+    }
+
+    static CopyStream spooled(CopyManager copyManager, String table, String columns) throws SQLException {
+        return new CopyStream(copyManager, table, columns, true);
+    }
+
+    CopyStream add(long value) {
+        separator();
+        buffer.append(value);
+        return this;
+    }
+
+    CopyStream add(Long value) {
+        return value == null ? addNull() : add(value.longValue());
+    }
+
+    CopyStream add(boolean value) {
+        separator();
+        buffer.append(value ? 't' : 'f');
+        return this;
+    }
+
+    CopyStream add(BigDecimal value) {
+        return value == null ? addNull() : add(value.toPlainString());
+    }
+
+    CopyStream add(LocalDate value) {
+        return value == null ? addNull() : add(value.toString());
+    }
+
+    CopyStream add(LocalDateTime value) {
+        return value == null ? addNull() : add(value.toString());
+    }
+
+    CopyStream add(String value) {
+        if (value == null) {
+            return addNull();
+        }
+        separator();
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\' -> buffer.append("\\\\");
+                case '\t' -> buffer.append("\\t");
+                case '\n' -> buffer.append("\\n");
+                case '\r' -> buffer.append("\\r");
+                default -> buffer.append(c);
+            }
+        }
+        return this;
+    }
+
+    CopyStream addNull() {
+        separator();
+        buffer.append("\\N");
+        return this;
+    }
+
+    void endRow() throws SQLException {
+        buffer.append('\n');
+        firstColumn = true;
+        rows++;
+        if (buffer.length() >= FLUSH_BYTES) {
+            flush();
+        }
+    }
+
+    long rows() {
+        return rows;
+    }
+
+    private void separator() {
+        if (!firstColumn) {
+            buffer.append('\t');
+        }
+        firstColumn = false;
+    }
+
+    private void flush() throws SQLException {
+        if (spool != null) {
+            try {
+                spool.append(buffer);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        } else {
+            byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+            copyIn.writeToCopy(bytes, 0, bytes.length);
+        }
+        buffer.setLength(0);
+    }
+
+    @Override
+    public void close() throws SQLException {
+        flush();
+        if (copyIn != null) {
+            copyIn.endCopy();
+            return;
+        }
+
+        try {
+            spool.close();
+            try (Reader reader = Files.newBufferedReader(spoolFile, StandardCharsets.UTF_8)) {
+                copyManager.copyIn(sql, reader);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        } finally {
+            try {
+                Files.deleteIfExists(spoolFile);
+            } catch (IOException ignored) {
+                // Temp file, the OS cleans it up eventually
+            }
+        }
+    }
+}
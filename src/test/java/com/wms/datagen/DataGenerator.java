@@ -0,0 +1,512 @@
+package com.wms.datagen;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Fills a migrated PostgreSQL schema with a large synthetic warehouse data set for load tests and benchmarks.
+ * <p>
+ * Warehouses are split into aisle/rack/bin locations, SKU popularity follows a Zipf distribution (popular SKUs
+ * are stocked in more bins and appear in most order lines), and orders, purchase orders and the matching
+ * stock movements are spread over the year before {@code asOf}. Every table is loaded with one {@code COPY}
+ * and explicit ids, so the same seed and settings always produce the same rows. Codes are prefixed with the
+ * seed, so data sets with different seeds can live in the same database.
+ * <p>
+ * Usage: {@code DataGenerator url=jdbc:postgresql://localhost:5432/wmsdb user=postgres password=... seed=42
+ * products=1000000 orders=2000000}. See {@link Settings} for all keys.
+ */
+public final class DataGenerator {
+
+    private static final String[] CATEGORIES = {
+            "Electronics", "Hardware", "Fasteners", "Packaging", "Tools", "Chemicals", "Textiles",
+            "Food", "Office", "Automotive", "Plumbing", "Electrical", "Garden", "Safety", "Cleaning"};
+    private static final String[] UNITS = {"PCS", "PCS", "PCS", "BOX", "KG", "LT", "M"};
+    private static final String[] CITIES = {"Istanbul", "Ankara", "Izmir", "Bursa", "Kocaeli", "Adana", "Konya"};
+    private static final String BASE_COLUMNS = "id, created_at, deleted";
+
+    /**
+     * Size and shape of the data set; every field can be overridden with a {@code key=value} argument.
+     */
+    public record Settings(long seed, LocalDate asOf, int warehouses, int aisles, int racks, int bins,
+                           int products, int suppliers, double zipfExponent, int maxSlotsPerProduct,
+                           int orders, int maxLinesPerOrder, int purchaseOrders, int maxLinesPerPurchaseOrder,
+                           int extraMovements) {
+
+        public static Settings defaults() {
+            return new Settings(42L, LocalDate.of(2025, 1, 1), 4, 20, 10, 8, 100_000, 500, 1.07, 6,
+                    500_000, 5, 50_000, 10, 500_000);
+        }
+
+        public static Settings parse(Map<String, String> args) {
+            Settings d = defaults();
+            return new Settings(
+                    Long.parseLong(args.getOrDefault("seed", String.valueOf(d.seed))),
+                    LocalDate.parse(args.getOrDefault("asOf", d.asOf.toString())),
+                    Integer.parseInt(args.getOrDefault("warehouses", String.valueOf(d.warehouses))),
+                    Integer.parseInt(args.getOrDefault("aisles", String.valueOf(d.aisles))),
+                    Integer.parseInt(args.getOrDefault("racks", String.valueOf(d.racks))),
+                    Integer.parseInt(args.getOrDefault("bins", String.valueOf(d.bins))),
+                    Integer.parseInt(args.getOrDefault("products", String.valueOf(d.products))),
+                    Integer.parseInt(args.getOrDefault("suppliers", String.valueOf(d.suppliers))),
+                    Double.parseDouble(args.getOrDefault("zipfExponent", String.valueOf(d.zipfExponent))),
+                    Integer.parseInt(args.getOrDefault("maxSlotsPerProduct", String.valueOf(d.maxSlotsPerProduct))),
+                    Integer.parseInt(args.getOrDefault("orders", String.valueOf(d.orders))),
+                    Integer.parseInt(args.getOrDefault("maxLinesPerOrder", String.valueOf(d.maxLinesPerOrder))),
+                    Integer.parseInt(args.getOrDefault("purchaseOrders", String.valueOf(d.purchaseOrders))),
+                    Integer.parseInt(args.getOrDefault("maxLinesPerPurchaseOrder",
+                            String.valueOf(d.maxLinesPerPurchaseOrder))),
+                    Integer.parseInt(args.getOrDefault("extraMovements", String.valueOf(d.extraMovements))));
+        }
+
+        int locationsPerWarehouse() {
+            return aisles * racks * bins;
+        }
+    }
+
+    private final Settings settings;
+    private final SplittableRandom random;
+    private final String prefix;
+
+    // Ids of the rows written in this run
+    private long warehouseBase;
+    private long locationBase;
+    private long productBase;
+    private long supplierBase;
+
+    // Inventory slots per product: locations of product p are slotLocations[slotStart[p] .. slotStart[p + 1])
+    private int[] slotStart;
+    private int[] slotLocations;
+    // Popularity rank to product index, so popular SKUs are not simply the lowest ids
+    private int[] productByRank;
+    private ZipfSampler popularity;
+    private BigDecimal[] unitPrices;
+
+    public DataGenerator(Settings settings) {
+        this.settings = settings;
+        this.random = new SplittableRandom(settings.seed());
+        this.prefix = "S" + settings.seed() + "-";
+    }
+
+    public static void main(String[] args) throws SQLException {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq < 0) {
+                throw new IllegalArgumentException("Expected key=value but got: " + arg);
+            }
+            options.put(arg.substring(0, eq), arg.substring(eq + 1));
+        }
+        Settings settings = Settings.parse(options);
+        try (Connection connection = DriverManager.getConnection(
+                options.getOrDefault("url", "jdbc:postgresql://localhost:5432/wmsdb"),
+                options.getOrDefault("user", "postgres"),
+                options.getOrDefault("password", ""))) {
+            new DataGenerator(settings).generate(connection);
+        }
+    }
+
+    /**
+     * Generates the whole data set in one transaction on the given PostgreSQL connection.
+     */
+    public void generate(Connection connection) throws SQLException {
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try {
+            CopyManager copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+            warehouseBase = nextId(connection, "warehouses");
+            locationBase = nextId(connection, "locations");
+            productBase = nextId(connection, "products");
+            supplierBase = nextId(connection, "suppliers");
+
+            log("warehouses", writeWarehouses(copyManager));
+            log("locations", writeLocations(copyManager));
+            log("products", writeProducts(copyManager));
+            log("suppliers", writeSuppliers(copyManager));
+            log("inventory", writeInventory(copyManager, nextId(connection, "inventory")));
+            log("orders", writeOrders(copyManager, nextId(connection, "orders"),
+                    nextId(connection, "order_items"), nextId(connection, "stock_movements")));
+            log("purchase orders", writePurchaseOrders(copyManager, nextId(connection, "purchase_orders"),
+                    nextId(connection, "purchase_order_items"), nextId(connection, "stock_movements")));
+            log("extra movements", writeExtraMovements(copyManager, nextId(connection, "stock_movements")));
+
+            for (String table : new String[]{"warehouses", "locations", "products", "suppliers", "inventory",
+                    "orders", "order_items", "purchase_orders", "purchase_order_items", "stock_movements"}) {
+                syncSequence(connection, table);
+            }
+            connection.commit();
+        } catch (SQLException | RuntimeException ex) {
+            connection.rollback();
+            throw ex;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ANALYZE");
+        }
+    }
+
+    private long writeWarehouses(CopyManager copyManager) throws SQLException {
+        try (CopyStream copy = CopyStream.direct(copyManager, "warehouses",
+                BASE_COLUMNS + ", code, name, city, country")) {
+            for (int w = 0; w < settings.warehouses(); w++) {
+                copy.add(warehouseBase + w).add(settings.asOf().atStartOfDay().minusYears(2)).add(false)
+                        .add(prefix + "WH-" + (w + 1))
+                        .add("Warehouse " + (w + 1))
+                        .add(CITIES[w % CITIES.length])
+                        .add("Turkey");
+                copy.endRow();
+            }
+            return copy.rows();
+        }
+    }
+
+    private long writeLocations(CopyManager copyManager) throws SQLException {
+        try (CopyStream copy = CopyStream.direct(copyManager, "locations",
+                BASE_COLUMNS + ", code, description, aisle, rack, bin, warehouse_id")) {
+            long id = locationBase;
+            for (int w = 0; w < settings.warehouses(); w++) {
+                for (int a = 1; a <= settings.aisles(); a++) {
+                    for (int r = 1; r <= settings.racks(); r++) {
+                        for (int b = 1; b <= settings.bins(); b++) {
+                            String aisle = aisleName(a);
+                            copy.add(id++).add(settings.asOf().atStartOfDay().minusYears(2)).add(false)
+                                    .add(String.format("%s-%02d-%02d", aisle, r, b))
+                                    .add("Aisle " + aisle + ", rack " + r + ", bin " + b)
+                                    .add(aisle)
+                                    .add(String.valueOf(r))
+                                    .add(String.valueOf(b))
+                                    .add(warehouseBase + w);
+                            copy.endRow();
+                        }
+                    }
+                }
+            }
+            return copy.rows();
+        }
+    }
+
+    private long writeProducts(CopyManager copyManager) throws SQLException {
+        int products = settings.products();
+        popularity = new ZipfSampler(products, settings.zipfExponent());
+        productByRank = new int[products];
+        for (int i = 0; i < products; i++) {
+            productByRank[i] = i;
+        }
+        for (int i = products - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = productByRank[i];
+            productByRank[i] = productByRank[j];
+            productByRank[j] = tmp;
+        }
+
+        unitPrices = new BigDecimal[products];
+        try (CopyStream copy = CopyStream.direct(copyManager, "products",
+                BASE_COLUMNS + ", sku, barcode, name, description, unit, unit_price, min_stock_level, category")) {
+            for (int p = 0; p < products; p++) {
+                String category = CATEGORIES[random.nextInt(CATEGORIES.length)];
+                // Log-normal-ish prices between ~0.5 and ~5000
+                unitPrices[p] = BigDecimal.valueOf(Math.exp(random.nextDouble(-0.7, 8.5)))
+                        .setScale(2, RoundingMode.HALF_UP);
+                copy.add(productBase + p).add(settings.asOf().atStartOfDay().minusYears(2)).add(false)
+                        .add(prefix + String.format("SKU-%07d", p + 1))
+                        .add(String.format("869%d%09d", settings.seed(), p + 1))
+                        .add(category + " item " + (p + 1))
+                        .add("Synthetic " + category.toLowerCase() + " product")
+                        .add(UNITS[random.nextInt(UNITS.length)])
+                        .add(unitPrices[p])
+                        .add(random.nextInt(0, 50))
+                        .add(category);
+                copy.endRow();
+            }
+            return copy.rows();
+        }
+    }
+
+    private long writeSuppliers(CopyManager copyManager) throws SQLException {
+        try (CopyStream copy = CopyStream.direct(copyManager, "suppliers",
+                BASE_COLUMNS + ", code, name, email, phone, address, active")) {
+            for (int s = 0; s < settings.suppliers(); s++) {
+                copy.add(supplierBase + s).add(settings.asOf().atStartOfDay().minusYears(2)).add(false)
+                        .add(prefix + "SUP-" + (s + 1))
+                        .add("Supplier " + (s + 1))
+                        .add("supplier" + (s + 1) + "@example.com")
+                        .add(String.format("+90555%07d", s + 1))
+                        .add(CITIES[s % CITIES.length])
+                        .add(random.nextInt(20) != 0);
+                copy.endRow();
+            }
+            return copy.rows();
+        }
+    }
+
+    private long writeInventory(CopyManager copyManager, long inventoryBase) throws SQLException {
+        int products = settings.products();
+        int totalLocations = settings.warehouses() * settings.locationsPerWarehouse();
+        int[] rankOf = new int[products];
+        for (int rank = 0; rank < products; rank++) {
+            rankOf[productByRank[rank]] = rank;
+        }
+
+        slotStart = new int[products + 1];
+        int[] slots = new int[products * Math.min(settings.maxSlotsPerProduct(), totalLocations)];
+        int used = 0;
+        try (CopyStream copy = CopyStream.direct(copyManager, "inventory",
+                BASE_COLUMNS + ", product_id, location_id, quantity, reserved_quantity")) {
+            for (int p = 0; p < products; p++) {
+                slotStart[p] = used;
+                double weight = popularity.relativeWeight(rankOf[p]);
+                // Popular SKUs sit in more bins and in larger quantities
+                int slotCount = Math.max(1, Math.min(settings.maxSlotsPerProduct(),
+                        (int) Math.round(settings.maxSlotsPerProduct() * Math.pow(weight, 0.25))));
+                slotCount = Math.min(slotCount, totalLocations);
+                for (int s = 0; s < slotCount; s++) {
+                    int location = distinctLocation(slots, slotStart[p], used, totalLocations);
+                    slots[used++] = location;
+                    int quantity = (int) Math.round(random.nextDouble(0, 200) * (1 + 50 * Math.sqrt(weight)));
+                    copy.add(inventoryBase + used - 1).add(settings.asOf().atStartOfDay().minusDays(random.nextInt(365)))
+                            .add(false)
+                            .add(productBase + p)
+                            .add(locationBase + location)
+                            .add(quantity)
+                            .add(0L);
+                    copy.endRow();
+                }
+            }
+            slotStart[products] = used;
+            slotLocations = slots;
+            return copy.rows();
+        }
+    }
+
+    private long writeOrders(CopyManager copyManager, long orderBase, long itemBase, long movementBase)
+            throws SQLException {
+        long itemId = itemBase;
+        long movementId = movementBase;
+        // orders is declared last so it is copied first; the spooled order_items rows reference it
+        try (CopyStream items = CopyStream.spooled(copyManager, "order_items",
+                BASE_COLUMNS + ", order_id, product_id, location_id, quantity");
+             CopyStream movements = movementStream(copyManager, true);
+             CopyStream orders = CopyStream.direct(copyManager, "orders", BASE_COLUMNS
+                     + ", order_number, customer_name, shipping_address, warehouse_id, status, order_date, shipped_date")) {
+            for (int o = 0; o < settings.orders(); o++) {
+                long orderId = orderBase + o;
+                LocalDate orderDate = settings.asOf().minusDays(random.nextInt(365));
+                // Older orders are shipped, the last two weeks still have open ones
+                boolean recent = orderDate.isAfter(settings.asOf().minusDays(14));
+                int roll = random.nextInt(100);
+                String status = !recent ? (roll < 3 ? "CANCELLED" : roll < 40 ? "DELIVERED" : "SHIPPED")
+                        : (roll < 60 ? "PENDING" : roll < 65 ? "CANCELLED" : "SHIPPED");
+                boolean shipped = status.equals("SHIPPED") || status.equals("DELIVERED");
+                LocalDate shippedDate = shipped ? orderDate.plusDays(random.nextInt(1, 4)) : null;
+                String orderNumber = prefix + String.format("ORD-%09d", o + 1);
+
+                int firstProduct = popularProduct();
+                int firstLocation = slotLocations[randomSlot(firstProduct)];
+                int warehouse = firstLocation / settings.locationsPerWarehouse();
+                int lines = random.nextInt(1, settings.maxLinesPerOrder() + 1);
+                for (int l = 0; l < lines; l++) {
+                    int product = l == 0 ? firstProduct : popularProduct();
+                    int location = l == 0 ? firstLocation : slotInWarehouse(product, warehouse);
+                    if (location < 0) {
+                        continue;
+                    }
+                    int quantity = random.nextInt(1, 11);
+                    items.add(itemId++).add(orderDate.atTime(9, 0)).add(false)
+                            .add(orderId)
+                            .add(productBase + product)
+                            .add(locationBase + location)
+                            .add(quantity);
+                    items.endRow();
+                    if (shipped) {
+                        movement(movements, movementId++, "OUT", product, (long) location, null, quantity,
+                                "Order Shipped", orderNumber, shippedDate.atTime(random.nextInt(8, 18), 0));
+                    }
+                }
+
+                orders.add(orderId).add(orderDate.atTime(9, 0)).add(false)
+                        .add(orderNumber)
+                        .add("Customer " + random.nextInt(1, 50_000))
+                        .add(CITIES[random.nextInt(CITIES.length)] + ", street " + random.nextInt(1, 500))
+                        .add(warehouseBase + warehouse)
+                        .add(status)
+                        .add(orderDate)
+                        .add(shippedDate);
+                orders.endRow();
+            }
+            return orders.rows();
+        }
+    }
+
+    private long writePurchaseOrders(CopyManager copyManager, long purchaseOrderBase, long itemBase,
+                                     long movementBase) throws SQLException {
+        long itemId = itemBase;
+        long movementId = movementBase;
+        try (CopyStream items = CopyStream.spooled(copyManager, "purchase_order_items", BASE_COLUMNS
+                + ", purchase_order_id, product_id, location_id, ordered_quantity, received_quantity, unit_price");
+             CopyStream movements = movementStream(copyManager, true);
+             CopyStream purchaseOrders = CopyStream.direct(copyManager, "purchase_orders", BASE_COLUMNS
+                     + ", order_number, supplier_id, warehouse_id, status, order_date, expected_delivery_date, received_date")) {
+            for (int po = 0; po < settings.purchaseOrders(); po++) {
+                long purchaseOrderId = purchaseOrderBase + po;
+                LocalDate orderDate = settings.asOf().minusDays(random.nextInt(365));
+                LocalDate expected = orderDate.plusDays(random.nextInt(3, 21));
+                boolean due = expected.isBefore(settings.asOf());
+                int roll = random.nextInt(100);
+                String status = due ? (roll < 5 ? "CANCELLED" : "RECEIVED") : (roll < 30 ? "DRAFT" : "APPROVED");
+                boolean received = status.equals("RECEIVED");
+                String orderNumber = prefix + String.format("PO-%08d", po + 1);
+                int warehouse = random.nextInt(settings.warehouses());
+
+                int lines = random.nextInt(1, settings.maxLinesPerPurchaseOrder() + 1);
+                for (int l = 0; l < lines; l++) {
+                    int product = popularProduct();
+                    int location = slotInWarehouse(product, warehouse);
+                    if (location < 0) {
+                        continue;
+                    }
+                    int quantity = random.nextInt(1, 21) * 10;
+                    items.add(itemId++).add(orderDate.atTime(10, 0)).add(false)
+                            .add(purchaseOrderId)
+                            .add(productBase + product)
+                            .add(locationBase + location)
+                            .add(quantity)
+                            .add(received ? quantity : 0)
+                            .add(unitPrices[product].multiply(BigDecimal.valueOf(0.7)).setScale(2, RoundingMode.HALF_UP));
+                    items.endRow();
+                    if (received) {
+                        movement(movements, movementId++, "IN", product, null, (long) location, quantity,
+                                "Purchase Order Received", orderNumber, expected.atTime(random.nextInt(8, 18), 0));
+                    }
+                }
+
+                purchaseOrders.add(purchaseOrderId).add(orderDate.atTime(10, 0)).add(false)
+                        .add(orderNumber)
+                        .add(supplierBase + random.nextInt(settings.suppliers()))
+                        .add(warehouseBase + warehouse)
+                        .add(status)
+                        .add(orderDate)
+                        .add(expected)
+                        .add(received ? expected : null);
+                purchaseOrders.endRow();
+            }
+            return purchaseOrders.rows();
+        }
+    }
+
+    private long writeExtraMovements(CopyManager copyManager, long movementBase) throws SQLException {
+        try (CopyStream movements = movementStream(copyManager, false)) {
+            for (int m = 0; m < settings.extraMovements(); m++) {
+                int product = popularProduct();
+                int from = slotLocations[randomSlot(product)];
+                LocalDateTime at = settings.asOf().atStartOfDay().minusMinutes(random.nextInt(365 * 24 * 60));
+                if (random.nextInt(4) == 0) {
+                    movement(movements, movementBase + m, "ADJUSTMENT", product, null, (long) from,
+                            random.nextInt(1, 20), "Cycle count", null, at);
+                } else {
+                    int to = slotLocations[randomSlot(product)];
+                    movement(movements, movementBase + m, "TRANSFER", product, (long) from, (long) to,
+                            random.nextInt(1, 50), "Replenishment", null, at);
+                }
+            }
+            return movements.rows();
+        }
+    }
+
+    private CopyStream movementStream(CopyManager copyManager, boolean spooled) throws SQLException {
+        String columns = BASE_COLUMNS
+                + ", type, product_id, from_location_id, to_location_id, quantity, reason, movement_date, reference_number";
+        return spooled
+                ? CopyStream.spooled(copyManager, "stock_movements", columns)
+                : CopyStream.direct(copyManager, "stock_movements", columns);
+    }
+
+    private void movement(CopyStream movements, long id, String type, int product, Long fromLocation,
+                          Long toLocation, int quantity, String reason, String reference, LocalDateTime at)
+            throws SQLException {
+        movements.add(id).add(at).add(false)
+                .add(type)
+                .add(productBase + product)
+                .add(fromLocation == null ? null : locationBase + fromLocation)
+                .add(toLocation == null ? null : locationBase + toLocation)
+                .add(quantity)
+                .add(reason)
+                .add(at)
+                .add(reference);
+        movements.endRow();
+    }
+
+    private int popularProduct() {
+        return productByRank[popularity.sample(random)];
+    }
+
+    private int randomSlot(int product) {
+        return slotStart[product] + random.nextInt(slotStart[product + 1] - slotStart[product]);
+    }
+
+    private int slotInWarehouse(int product, int warehouse) {
+        int start = slotStart[product];
+        int count = slotStart[product + 1] - start;
+        int offset = random.nextInt(count);
+        for (int i = 0; i < count; i++) {
+            int location = slotLocations[start + (offset + i) % count];
+            if (location / settings.locationsPerWarehouse() == warehouse) {
+                return location;
+            }
+        }
+        return -1;
+    }
+
+    private int distinctLocation(int[] slots, int from, int to, int totalLocations) {
+        while (true) {
+            int location = random.nextInt(totalLocations);
+            boolean taken = false;
+            for (int i = from; i < to; i++) {
+                taken |= slots[i] == location;
+            }
+            if (!taken) {
+                return location;
+            }
+        }
+    }
+
+    private static String aisleName(int aisle) {
+        StringBuilder name = new StringBuilder();
+        for (int n = aisle; n > 0; n = (n - 1) / 26) {
+            name.insert(0, (char) ('A' + (n - 1) % 26));
+        }
+        return name.toString();
+    }
+
+    private static long nextId(Connection connection, String table) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT COALESCE(MAX(id), 0) + 1 FROM " + table)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    private static void syncSequence(Connection connection, String table) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SELECT setval(pg_get_serial_sequence('" + table + "', 'id'), "
+                    + "(SELECT COALESCE(MAX(id), 1) FROM " + table + "))");
+        }
+    }
+
+    private static void log(String what, long rows) {
+        System.out.printf("%,12d %s%n", rows, what);
+    }
+}
@@ -0,0 +1,40 @@
+package com.wms.datagen;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Draws ranks 0..n-1 with probability proportional to 1 / (rank + 1)^exponent, so a few SKUs get most of the
+ * order lines. Uses a precomputed CDF and binary search.
+ */
+final class ZipfSampler {
+
+    private final double[] cdf;
+
+    ZipfSampler(int n, double exponent) {
+        cdf = new double[n];
+        double sum = 0;
+        for (int rank = 0; rank < n; rank++) {
+            sum += 1.0 / Math.pow(rank + 1, exponent);
+            cdf[rank] = sum;
+        }
+        for (int rank = 0; rank < n; rank++) {
+            cdf[rank] /= sum;
+        }
+    }
+
+    int sample(SplittableRandom random) {
+        int index = Arrays.binarySearch(cdf, random.nextDouble());
+        int rank = index >= 0 ? index : -index - 1;
+        return Math.min(rank, cdf.length - 1);
+    }
+
+    /**
+     * Probability mass of the given rank relative to the most popular one (1.0 for rank 0).
+     */
+    double relativeWeight(int rank) {
+        double first = cdf[0];
+        double mass = rank == 0 ? first : cdf[rank] - cdf[rank - 1];
+        return mass / first;
+    }
+}
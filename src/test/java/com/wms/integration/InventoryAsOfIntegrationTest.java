@@ -0,0 +1,132 @@
+package com.wms.integration;
+
+import com.wms.dto.response.InventoryAsOfResponse;
+import com.wms.entity.Inventory;
+import com.wms.entity.Location;
+import com.wms.entity.Product;
+import com.wms.entity.Warehouse;
+import com.wms.enums.StockMovementType;
+import com.wms.repository.InventoryRepository;
+import com.wms.repository.LocationRepository;
+import com.wms.repository.ProductRepository;
+import com.wms.repository.StockMovementJdbcRepository;
+import com.wms.repository.StockMovementJdbcRepository.NewMovement;
+import com.wms.repository.StockMovementJdbcRepository.OutboxBatch;
+import com.wms.repository.WarehouseRepository;
+import com.wms.service.InventoryHistoryService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Stock as of a past time must come out the same whether it is replayed forward from an earlier snapshot,
+ * backward from a later one or backward from current inventory.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class InventoryAsOfIntegrationTest {
+
+    @Autowired
+    private InventoryHistoryService inventoryHistoryService;
+    @Autowired
+    private StockMovementJdbcRepository stockMovementJdbcRepository;
+    @Autowired
+    private WarehouseRepository warehouseRepository;
+    @Autowired
+    private LocationRepository locationRepository;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private InventoryRepository inventoryRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final LocalDateTime now = LocalDateTime.now();
+    private Long productId;
+    private Long locationA;
+    private Long locationB;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = UUID.randomUUID().toString();
+        Warehouse warehouse = warehouseRepository.save(Warehouse.builder()
+                .code("WH-ASOF-" + suffix)
+                .name("As-of Warehouse")
+                .build());
+        Location a = locationRepository.save(Location.builder().code("ASOF-A").warehouse(warehouse).build());
+        Location b = locationRepository.save(Location.builder().code("ASOF-B").warehouse(warehouse).build());
+        Product product = productRepository.save(Product.builder()
+                .sku("SKU-ASOF-" + suffix)
+                .name("As-of Product")
+                .unit("PCS")
+                .unitPrice(BigDecimal.ONE)
+                .minStockLevel(0)
+                .build());
+        productId = product.getId();
+        locationA = a.getId();
+        locationB = b.getId();
+
+        // Received 100 into A, moved 30 to B, then counted 10 short in A
+        movement(now.minusDays(3), new NewMovement(StockMovementType.IN, productId, null, locationA, 100, "PO", null));
+        movement(now.minusDays(2), new NewMovement(StockMovementType.TRANSFER, productId, locationA, locationB, 30,
+                "Transfer", null));
+        movement(now.minusDays(1), new NewMovement(StockMovementType.ADJUSTMENT, productId, locationA, null, 10,
+                "Count", null));
+        inventoryRepository.saveAll(List.of(
+                Inventory.builder().product(product).location(a).quantity(60).reservedQuantity(0).build(),
+                Inventory.builder().product(product).location(b).quantity(30).reservedQuantity(0).build()));
+    }
+
+    // Snapshots do not know about movements backdated before them, so none may outlive a test
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM inventory_snapshot_lines");
+        jdbcTemplate.update("DELETE FROM inventory_snapshots");
+    }
+
+    private void movement(LocalDateTime at, NewMovement movement) {
+        stockMovementJdbcRepository.appendToOutbox(new OutboxBatch(UUID.randomUUID(), at, List.of(movement)));
+    }
+
+    private Map<Long, Long> asOf(LocalDateTime at, Long locationId) {
+        InventoryAsOfResponse response = inventoryHistoryService.getInventoryAsOf(at, null, productId, locationId);
+        return response.getLines().stream().collect(Collectors.toMap(
+                InventoryAsOfResponse.StockLine::getLocationId, InventoryAsOfResponse.StockLine::getQuantity));
+    }
+
+    @Test
+    void getInventoryAsOf_WithoutNearbySnapshot_ReplaysBackFromCurrentInventory() {
+        assertEquals(Map.of(locationA, 60L, locationB, 30L), asOf(now.minusHours(12), null));
+        assertEquals(Map.of(locationA, 70L, locationB, 30L), asOf(now.minusHours(36), null));
+        assertEquals(Map.of(locationA, 100L), asOf(now.minusHours(60), null));
+        assertEquals(Map.of(), asOf(now.minusDays(4), null));
+    }
+
+    @Test
+    void getInventoryAsOf_FromSnapshot_MatchesReplayFromCurrentInventory() {
+        assertTrue(inventoryHistoryService.takeSnapshot(now.minusHours(60)) > 0);
+
+        // Nearest to the snapshot: forward from it, backward from it, and forward across two movements
+        assertEquals(Map.of(locationA, 100L), asOf(now.minusHours(54), null));
+        assertEquals(Map.of(), asOf(now.minusHours(80), null));
+        assertEquals(Map.of(locationA, 70L, locationB, 30L), asOf(now.minusHours(40), null));
+        assertEquals(Map.of(locationB, 30L), asOf(now.minusHours(40), locationB));
+
+        InventoryAsOfResponse response = inventoryHistoryService.getInventoryAsOf(now.minusHours(54), null,
+                productId, null);
+        assertNotNull(response.getSnapshotTakenAt());
+    }
+}
@@ -0,0 +1,168 @@
+package com.wms.integration;
+
+import com.wms.dto.request.OrderIntakeRequest;
+import com.wms.dto.request.OrderItemRequest;
+import com.wms.dto.response.OrderResponse;
+import com.wms.entity.Inventory;
+import com.wms.entity.Location;
+import com.wms.entity.Product;
+import com.wms.entity.Warehouse;
+import com.wms.exception.InsufficientStockException;
+import com.wms.exception.ResourceNotFoundException;
+import com.wms.repository.InventoryRepository;
+import com.wms.repository.LocationRepository;
+import com.wms.repository.OrderItemRepository;
+import com.wms.repository.OrderRepository;
+import com.wms.repository.ProductRepository;
+import com.wms.repository.StockReservationRepository;
+import com.wms.repository.WarehouseRepository;
+import com.wms.service.OrderService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Order intake must create the order with all its lines, and optionally its reservations, in a handful of
+ * batched statements instead of one round trip and several lookups per line.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+class OrderIntakeBatchingIntegrationTest {
+
+    private static final int LINES = 30;
+
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private WarehouseRepository warehouseRepository;
+    @Autowired
+    private LocationRepository locationRepository;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private InventoryRepository inventoryRepository;
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+    @Autowired
+    private StockReservationRepository stockReservationRepository;
+
+    private Statistics statistics;
+    private Long warehouseId;
+    private Long locationId;
+    private List<Long> productIds;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = UUID.randomUUID().toString();
+        Warehouse warehouse = warehouseRepository.save(Warehouse.builder()
+                .code("WH-INTAKE-" + suffix)
+                .name("Intake Warehouse")
+                .build());
+        Location location = locationRepository.save(Location.builder()
+                .code("I-01")
+                .warehouse(warehouse)
+                .build());
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < LINES; i++) {
+            products.add(Product.builder()
+                    .sku("SKU-INTAKE-" + i + "-" + suffix)
+                    .name("Intake Product " + i)
+                    .unit("PCS")
+                    .unitPrice(BigDecimal.ONE)
+                    .minStockLevel(0)
+                    .build());
+        }
+        List<Inventory> inventory = new ArrayList<>();
+        for (Product product : productRepository.saveAll(products)) {
+            inventory.add(Inventory.builder()
+                    .product(product)
+                    .location(location)
+                    .quantity(10)
+                    .reservedQuantity(0)
+                    .build());
+        }
+        inventoryRepository.saveAll(inventory);
+
+        warehouseId = warehouse.getId();
+        locationId = location.getId();
+        productIds = products.stream().map(Product::getId).toList();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    private OrderIntakeRequest request(int quantity, boolean reserve) {
+        List<OrderItemRequest> lines = new ArrayList<>();
+        for (Long productId : productIds) {
+            OrderItemRequest line = new OrderItemRequest();
+            line.setProductId(productId);
+            line.setLocationId(locationId);
+            line.setQuantity(quantity);
+            lines.add(line);
+        }
+        return OrderIntakeRequest.builder()
+                .customerName("Intake Customer")
+                .warehouseId(warehouseId)
+                .lines(lines)
+                .reserve(reserve)
+                .build();
+    }
+
+    @Test
+    void intakeOrder_ThirtyLinesWithReservation_BatchesInserts() {
+        OrderResponse response = orderService.intakeOrder(request(2, true));
+
+        assertEquals("RESERVED", response.getStatus());
+        // Order, its lines and one reservation per line
+        assertEquals(1 + 2 * LINES, statistics.getEntityInsertCount());
+        // Product check, ATP preload, a few sequence calls and batches of 20 rows;
+        // createOrder plus one addItem per line would be well over 100
+        assertTrue(statistics.getPrepareStatementCount() < 20,
+                "Expected batched statements but got " + statistics.getPrepareStatementCount());
+
+        assertEquals(LINES, orderItemRepository.findByOrderId(response.getId()).size());
+        assertEquals(LINES, stockReservationRepository.findByOrderIdAndReleasedFalse(response.getId()).size());
+    }
+
+    @Test
+    void intakeOrder_WithoutReservation_CreatesPendingOrder() {
+        OrderResponse response = orderService.intakeOrder(request(2, false));
+
+        assertEquals("PENDING", response.getStatus());
+        assertEquals(LINES, orderItemRepository.findByOrderId(response.getId()).size());
+        assertTrue(stockReservationRepository.findByOrderIdAndReleasedFalse(response.getId()).isEmpty());
+    }
+
+    @Test
+    void intakeOrder_InsufficientStock_CreatesNothing() {
+        long ordersBefore = orderRepository.count();
+
+        assertThrows(InsufficientStockException.class, () -> orderService.intakeOrder(request(11, true)));
+
+        assertEquals(ordersBefore, orderRepository.count());
+    }
+
+    @Test
+    void intakeOrder_UnknownProduct_Rejected() {
+        OrderIntakeRequest request = request(1, false);
+        request.getLines().get(0).setProductId(Long.MAX_VALUE);
+
+        assertThrows(ResourceNotFoundException.class, () -> orderService.intakeOrder(request));
+    }
+}
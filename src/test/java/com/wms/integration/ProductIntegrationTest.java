@@ -22,6 +22,7 @@ import org.testcontainers.junit.jupiter.Testcontainers;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -126,4 +127,37 @@ class ProductIntegrationTest {
 
         assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
     }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void suggestProducts_RanksExactSkuFirst() {
+        String prefix = "SRCH-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(token);
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        for (String sku : List.of(prefix + "-10", prefix + "-1", prefix + "-100")) {
+            ProductRequest request = ProductRequest.builder()
+                    .sku(sku)
+                    .name("Search Product " + sku)
+                    .unit("PCS")
+                    .unitPrice(BigDecimal.ONE)
+                    .minStockLevel(0)
+                    .build();
+            restTemplate.exchange("/api/products", HttpMethod.POST, new HttpEntity<>(request, headers), ApiResponse.class);
+        }
+
+        ResponseEntity<ApiResponse> response = restTemplate.exchange(
+                "/api/products/suggest?search=" + (prefix + "-1").toLowerCase() + "&size=2",
+                HttpMethod.GET,
+                new HttpEntity<>(headers),
+                ApiResponse.class
+        );
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        Map<String, Object> slice = (Map<String, Object>) response.getBody().getData();
+        List<Map<String, Object>> content = (List<Map<String, Object>>) slice.get("content");
+        assertEquals(2, content.size());
+        assertEquals(prefix + "-1", content.get(0).get("sku"));
+        assertEquals(Boolean.FALSE, slice.get("last"));
+    }
 }
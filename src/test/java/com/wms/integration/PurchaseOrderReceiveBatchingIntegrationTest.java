@@ -0,0 +1,120 @@
+package com.wms.integration;
+
+import com.wms.dto.request.PurchaseOrderItemRequest;
+import com.wms.dto.request.PurchaseOrderRequest;
+import com.wms.entity.Location;
+import com.wms.entity.Product;
+import com.wms.entity.Supplier;
+import com.wms.entity.Warehouse;
+import com.wms.repository.InventoryRepository;
+import com.wms.repository.LocationRepository;
+import com.wms.repository.ProductRepository;
+import com.wms.repository.SupplierRepository;
+import com.wms.repository.WarehouseRepository;
+import com.wms.service.PurchaseOrderService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Receiving a purchase order must insert the new inventory rows and update the items in JDBC batches
+ * (sequence ids with pooled allocation) instead of one statement per row.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+class PurchaseOrderReceiveBatchingIntegrationTest {
+
+    private static final int ITEMS = 100;
+
+    @Autowired
+    private PurchaseOrderService purchaseOrderService;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private WarehouseRepository warehouseRepository;
+    @Autowired
+    private LocationRepository locationRepository;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private SupplierRepository supplierRepository;
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    private Statistics statistics;
+    private Long purchaseOrderId;
+    private Long locationId;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = UUID.randomUUID().toString();
+        Warehouse warehouse = warehouseRepository.save(Warehouse.builder()
+                .code("WH-RECEIVE-" + suffix)
+                .name("Receive Warehouse")
+                .build());
+        Location location = locationRepository.save(Location.builder()
+                .code("R-01")
+                .warehouse(warehouse)
+                .build());
+        Supplier supplier = supplierRepository.save(Supplier.builder()
+                .code("SUP-RECEIVE-" + suffix)
+                .name("Receive Supplier")
+                .active(true)
+                .build());
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < ITEMS; i++) {
+            products.add(Product.builder()
+                    .sku("SKU-RECEIVE-" + i + "-" + suffix)
+                    .name("Receive Product " + i)
+                    .unit("PCS")
+                    .unitPrice(BigDecimal.ONE)
+                    .minStockLevel(0)
+                    .build());
+        }
+
+        PurchaseOrderRequest request = new PurchaseOrderRequest();
+        request.setSupplierId(supplier.getId());
+        request.setWarehouseId(warehouse.getId());
+        purchaseOrderId = purchaseOrderService.createPurchaseOrder(request).getId();
+        for (Product product : productRepository.saveAll(products)) {
+            PurchaseOrderItemRequest item = new PurchaseOrderItemRequest();
+            item.setProductId(product.getId());
+            item.setLocationId(location.getId());
+            item.setQuantity(5);
+            item.setUnitPrice(BigDecimal.ONE);
+            purchaseOrderService.addItem(purchaseOrderId, item);
+        }
+        purchaseOrderService.approvePurchaseOrder(purchaseOrderId);
+        locationId = location.getId();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void receivePurchaseOrder_HundredItems_BatchesInsertsAndUpdates() {
+        purchaseOrderService.receivePurchaseOrder(purchaseOrderId);
+
+        assertEquals(ITEMS, statistics.getEntityInsertCount());
+        // Purchase order, items, inventory lookup, a few sequence calls and ~10 batches of 20 rows;
+        // one statement per row would be well over 200
+        assertTrue(statistics.getPrepareStatementCount() < 30,
+                "Expected batched statements but got " + statistics.getPrepareStatementCount());
+
+        assertEquals(ITEMS, inventoryRepository.findByLocationId(locationId).size());
+        assertTrue(inventoryRepository.findByLocationId(locationId).stream()
+                .allMatch(inventory -> inventory.getQuantity() == 5));
+    }
+}
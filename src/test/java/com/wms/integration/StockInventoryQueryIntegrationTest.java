@@ -0,0 +1,119 @@
+package com.wms.integration;
+
+import com.wms.dto.response.InventoryResponse;
+import com.wms.entity.Inventory;
+import com.wms.entity.Location;
+import com.wms.entity.Product;
+import com.wms.entity.Warehouse;
+import com.wms.repository.InventoryRepository;
+import com.wms.repository.LocationRepository;
+import com.wms.repository.ProductRepository;
+import com.wms.repository.WarehouseRepository;
+import com.wms.service.StockService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Every filter combination of StockService.getInventory must be answered by exactly one SQL statement,
+ * whatever the number of matching rows (no lazy loads of product, location or warehouse).
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+class StockInventoryQueryIntegrationTest {
+
+    @Autowired
+    private StockService stockService;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private WarehouseRepository warehouseRepository;
+    @Autowired
+    private LocationRepository locationRepository;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    private Statistics statistics;
+    private Long warehouseId;
+    private Long productId;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = UUID.randomUUID().toString();
+        Warehouse warehouse = warehouseRepository.save(Warehouse.builder()
+                .code("WH-QUERY-" + suffix)
+                .name("Query Warehouse")
+                .build());
+        Product first = null;
+        for (int p = 0; p < 3; p++) {
+            Product product = productRepository.save(Product.builder()
+                    .sku("SKU-QUERY-" + p + "-" + suffix)
+                    .name("Query Product " + p)
+                    .unit("PCS")
+                    .unitPrice(BigDecimal.ONE)
+                    .minStockLevel(0)
+                    .build());
+            first = first == null ? product : first;
+            for (int l = 0; l < 3; l++) {
+                Location location = locationRepository.save(Location.builder()
+                        .code("Q-" + p + "-" + l)
+                        .warehouse(warehouse)
+                        .build());
+                inventoryRepository.save(Inventory.builder()
+                        .product(product).location(location).quantity(10).reservedQuantity(0).build());
+            }
+        }
+        warehouseId = warehouse.getId();
+        productId = first.getId();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void getInventory_WarehouseAndProduct_SingleStatement() {
+        List<InventoryResponse> result = stockService.getInventory(warehouseId, productId);
+
+        assertEquals(3, result.size());
+        assertTrue(result.stream().allMatch(r -> r.getProductId().equals(productId)));
+        assertEquals("Query Warehouse", result.get(0).getWarehouseName());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void getInventory_WarehouseOnly_SingleStatement() {
+        List<InventoryResponse> result = stockService.getInventory(warehouseId, null);
+
+        assertEquals(9, result.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void getInventory_ProductOnly_SingleStatement() {
+        List<InventoryResponse> result = stockService.getInventory(null, productId);
+
+        assertEquals(3, result.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void getInventory_NoFilter_SingleStatement() {
+        List<InventoryResponse> result = stockService.getInventory(null, null);
+
+        assertTrue(result.size() >= 9);
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+}
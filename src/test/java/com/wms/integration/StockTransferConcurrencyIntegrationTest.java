@@ -0,0 +1,153 @@
+package com.wms.integration;
+
+import com.wms.dto.request.StockTransferRequest;
+import com.wms.entity.Inventory;
+import com.wms.entity.Location;
+import com.wms.entity.Product;
+import com.wms.entity.Warehouse;
+import com.wms.enums.StockMovementType;
+import com.wms.exception.InsufficientStockException;
+import com.wms.repository.InventoryRepository;
+import com.wms.repository.LocationRepository;
+import com.wms.repository.ProductRepository;
+import com.wms.repository.StockMovementRepository;
+import com.wms.repository.WarehouseRepository;
+import com.wms.service.StockMovementJournal;
+import com.wms.service.StockService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Fires thousands of parallel transfers in both directions between the same two locations against a real
+ * PostgreSQL (the conditional decrement and ON CONFLICT upsert are PostgreSQL SQL) and checks that stock
+ * is conserved.
+ */
+@SpringBootTest
+@Testcontainers(disabledWithoutDocker = true)
+class StockTransferConcurrencyIntegrationTest {
+
+    private static final int INITIAL_QUANTITY = 5_000;
+    private static final int TRANSFERS = 4_000;
+    private static final int THREADS = 32;
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @DynamicPropertySource
+    static void datasourceProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.datasource.hikari.maximum-pool-size", () -> "20");
+    }
+
+    @Autowired
+    private StockService stockService;
+    @Autowired
+    private WarehouseRepository warehouseRepository;
+    @Autowired
+    private LocationRepository locationRepository;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private InventoryRepository inventoryRepository;
+    @Autowired
+    private StockMovementRepository stockMovementRepository;
+    @Autowired
+    private StockMovementJournal stockMovementJournal;
+
+    private Long productId;
+    private Long locationAId;
+    private Long locationBId;
+
+    @BeforeEach
+    void setUp() {
+        Warehouse warehouse = warehouseRepository.save(Warehouse.builder()
+                .code("WH-STRESS-" + UUID.randomUUID())
+                .name("Stress Warehouse")
+                .build());
+        Location locationA = locationRepository.save(Location.builder().code("STRESS-A").warehouse(warehouse).build());
+        Location locationB = locationRepository.save(Location.builder().code("STRESS-B").warehouse(warehouse).build());
+        Product product = productRepository.save(Product.builder()
+                .sku("SKU-STRESS-" + UUID.randomUUID())
+                .name("Stress Product")
+                .unit("PCS")
+                .unitPrice(BigDecimal.ONE)
+                .minStockLevel(0)
+                .build());
+
+        inventoryRepository.save(Inventory.builder()
+                .product(product).location(locationA).quantity(INITIAL_QUANTITY).reservedQuantity(0).build());
+        inventoryRepository.save(Inventory.builder()
+                .product(product).location(locationB).quantity(INITIAL_QUANTITY).reservedQuantity(0).build());
+
+        productId = product.getId();
+        locationAId = locationA.getId();
+        locationBId = locationB.getId();
+    }
+
+    @Test
+    void parallelTransfers_ConserveTotalQuantity() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<Boolean>> results = new ArrayList<>(TRANSFERS);
+        for (int i = 0; i < TRANSFERS; i++) {
+            boolean aToB = i % 2 == 0;
+            results.add(executor.submit(() -> {
+                StockTransferRequest request = StockTransferRequest.builder()
+                        .productId(productId)
+                        .fromLocationId(aToB ? locationAId : locationBId)
+                        .toLocationId(aToB ? locationBId : locationAId)
+                        .quantity(ThreadLocalRandom.current().nextInt(1, 20))
+                        .reason("Stress")
+                        .build();
+                try {
+                    stockService.transferStock(request);
+                    return true;
+                } catch (InsufficientStockException ex) {
+                    return false;
+                }
+            }));
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.MINUTES));
+
+        long succeeded = 0;
+        for (Future<Boolean> result : results) {
+            if (result.get()) {
+                succeeded++;
+            }
+        }
+
+        // Movements reach stock_movements asynchronously
+        stockMovementJournal.drain();
+
+        int quantityA = inventoryRepository.findByProductIdAndLocationId(productId, locationAId).orElseThrow().getQuantity();
+        int quantityB = inventoryRepository.findByProductIdAndLocationId(productId, locationBId).orElseThrow().getQuantity();
+        long movements = stockMovementRepository.findByProductId(productId).stream()
+                .filter(movement -> movement.getType() == StockMovementType.TRANSFER)
+                .count();
+
+        assertEquals(2L * INITIAL_QUANTITY, (long) quantityA + quantityB);
+        assertTrue(quantityA >= 0 && quantityB >= 0);
+        assertEquals(succeeded, movements);
+    }
+}
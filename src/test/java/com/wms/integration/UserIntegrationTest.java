@@ -2,12 +2,18 @@ package com.wms.integration;
 
 import com.wms.dto.request.RegisterRequest;
 import com.wms.dto.response.ApiResponse;
+import com.wms.entity.User;
+import com.wms.enums.Role;
+import com.wms.repository.UserRepository;
+import com.wms.security.UserDetailsCache;
+import com.wms.service.UserService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.*;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.test.context.ActiveProfiles;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
@@ -19,6 +25,12 @@ import static org.junit.jupiter.api.Assertions.*;
 class UserIntegrationTest {
     @Autowired
     private TestRestTemplate restTemplate;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private UserDetailsCache userDetailsCache;
     @Test
     void registerUser_Success() {
         RegisterRequest request = RegisterRequest.builder()
@@ -61,4 +73,21 @@ class UserIntegrationTest {
         );
         assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
     }
+    @Test
+    void deactivateUser_InvalidatesCachedDetails() {
+        User user = userRepository.save(User.builder()
+                .fullName("Cache Test")
+                .email("usercache+" + System.currentTimeMillis() + "@test.com")
+                .password("password")
+                .role(Role.ROLE_WORKER)
+                .active(true)
+                .build());
+        assertTrue(userDetailsCache.get(user.getEmail()).isEnabled());
+
+        userService.deactivateUser(user.getId());
+
+        UserDetails details = userDetailsCache.get(user.getEmail());
+        assertFalse(details.isEnabled());
+        assertFalse(details.isAccountNonLocked());
+    }
 }
@@ -0,0 +1,209 @@
+package com.wms.service;
+
+import com.wms.entity.Inventory;
+import com.wms.entity.Location;
+import com.wms.entity.Product;
+import com.wms.exception.BusinessRuleException;
+import com.wms.exception.InsufficientStockException;
+import com.wms.repository.InventoryJdbcRepository;
+import com.wms.repository.InventoryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AvailableToPromiseLedgerTest {
+
+    @Mock
+    private InventoryRepository inventoryRepository;
+
+    @Mock
+    private InventoryJdbcRepository inventoryJdbcRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private AvailableToPromiseLedger ledger;
+    private Inventory inventory;
+
+    @BeforeEach
+    void setUp() {
+        ledger = new AvailableToPromiseLedger(inventoryRepository, inventoryJdbcRepository, transactionManager);
+
+        Product product = Product.builder().sku("PROD-001").name("Product 1").build();
+        product.setId(1L);
+        Location location = Location.builder().code("A-01-01").build();
+        location.setId(1L);
+
+        inventory = Inventory.builder()
+                .product(product)
+                .location(location)
+                .quantity(10)
+                .reservedQuantity(2)
+                .build();
+        inventory.setId(5L);
+    }
+
+    @Test
+    void reserve_Success_DecrementsAvailable() {
+        when(inventoryRepository.findByProductIdAndLocationId(1L, 1L)).thenReturn(Optional.of(inventory));
+
+        long inventoryId = ledger.reserve(1L, 1L, 3);
+
+        assertEquals(5L, inventoryId);
+        assertEquals(5L, ledger.available(1L, 1L).getAsLong());
+    }
+
+    @Test
+    void reserve_InsufficientStock_ThrowsException() {
+        when(inventoryRepository.findByProductIdAndLocationId(1L, 1L)).thenReturn(Optional.of(inventory));
+
+        assertThrows(InsufficientStockException.class, () -> ledger.reserve(1L, 1L, 9));
+        assertEquals(8L, ledger.available(1L, 1L).getAsLong());
+    }
+
+    @Test
+    void reserve_NoInventory_ThrowsException() {
+        when(inventoryRepository.findByProductIdAndLocationId(1L, 2L)).thenReturn(Optional.empty());
+
+        assertThrows(BusinessRuleException.class, () -> ledger.reserve(1L, 2L, 1));
+    }
+
+    @Test
+    void reserveAll_LineFails_ReturnsEarlierLines() {
+        when(inventoryRepository.findByProductIdAndLocationId(1L, 1L)).thenReturn(Optional.of(inventory));
+        when(inventoryRepository.findByProductIdAndLocationId(1L, 2L)).thenReturn(Optional.empty());
+
+        assertThrows(BusinessRuleException.class, () -> ledger.reserveAll(List.of(
+                new AvailableToPromiseLedger.Line(1L, 1L, 3),
+                new AvailableToPromiseLedger.Line(1L, 2L, 1))));
+        assertEquals(8L, ledger.available(1L, 1L).getAsLong());
+    }
+
+    @Test
+    void flush_WritesBackCommittedReservationsOnce() {
+        when(inventoryRepository.findByProductIdAndLocationId(1L, 1L)).thenReturn(Optional.of(inventory));
+
+        ledger.reserve(1L, 1L, 3);
+        ledger.reserve(1L, 1L, 2);
+        ledger.flush();
+        ledger.flush();
+
+        verify(inventoryJdbcRepository, times(1)).addReservedQuantities(Map.of(5L, 5L));
+    }
+
+    @Test
+    void invalidate_PendingReservations_WrittenBackBeforeReload() {
+        when(inventoryRepository.findByProductIdAndLocationId(1L, 1L)).thenReturn(Optional.of(inventory));
+        doAnswer(invocation -> {
+            inventory.setReservedQuantity(inventory.getReservedQuantity() + 3);
+            return null;
+        }).when(inventoryJdbcRepository).addReservedQuantities(Map.of(5L, 3L));
+
+        ledger.reserve(1L, 1L, 3);
+        ledger.invalidate(1L, 1L);
+
+        assertTrue(ledger.available(1L, 1L).isEmpty());
+        ledger.reserve(1L, 1L, 1);
+        assertEquals(4L, ledger.available(1L, 1L).getAsLong());
+    }
+
+    @Test
+    void reserve_RolledBack_ReturnsQuantityToLedger() {
+        when(inventoryRepository.findByProductIdAndLocationId(1L, 1L)).thenReturn(Optional.of(inventory));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            ledger.reserve(1L, 1L, 4);
+            assertEquals(4L, ledger.available(1L, 1L).getAsLong());
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        ledger.flush();
+
+        assertEquals(8L, ledger.available(1L, 1L).getAsLong());
+        verify(inventoryJdbcRepository, never()).addReservedQuantities(any());
+    }
+
+    @Test
+    void applyOnHandDelta_SlotLoadedBeforeCall_AddsDeltaOnCommit() {
+        when(inventoryRepository.findByProductIdAndLocationId(1L, 1L)).thenReturn(Optional.of(inventory));
+        ledger.reserve(1L, 1L, 1);
+
+        commit(() -> ledger.applyOnHandDelta(1L, 1L, 5));
+
+        assertEquals(12L, ledger.available(1L, 1L).getAsLong());
+    }
+
+    @Test
+    void applyOnHandDelta_SlotLoadedAfterCall_DroppedInsteadOfAddingTwice() {
+        when(inventoryRepository.findByProductIdAndLocationId(1L, 1L)).thenReturn(Optional.of(inventory));
+
+        commit(() -> {
+            ledger.applyOnHandDelta(1L, 1L, 5);
+            // The slot is loaded from a row that already holds the new quantity
+            inventory.setQuantity(15);
+            ledger.reserve(1L, 1L, 1);
+            assertEquals(12L, ledger.available(1L, 1L).getAsLong());
+        });
+
+        assertTrue(ledger.available(1L, 1L).isEmpty());
+        ledger.flush();
+        verify(inventoryJdbcRepository).addReservedQuantities(Map.of(5L, 1L));
+    }
+
+    @Test
+    void reserve_Concurrent_NeverOversells() throws InterruptedException {
+        when(inventoryRepository.findByProductIdAndLocationId(1L, 1L)).thenReturn(Optional.of(inventory));
+
+        AtomicInteger reserved = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 200; i++) {
+            executor.submit(() -> {
+                try {
+                    ledger.reserve(1L, 1L, 1);
+                    reserved.incrementAndGet();
+                } catch (InsufficientStockException ignored) {
+                    // expected once the 8 available units are gone
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(8, reserved.get());
+        assertEquals(0L, ledger.available(1L, 1L).getAsLong());
+    }
+
+    private static void commit(Runnable work) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            work.run();
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+}
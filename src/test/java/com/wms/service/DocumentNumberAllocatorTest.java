@@ -0,0 +1,104 @@
+package com.wms.service;
+
+import com.wms.repository.DocumentNumberJdbcRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DocumentNumberAllocatorTest {
+
+    @Mock
+    private DocumentNumberJdbcRepository documentNumberJdbcRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private DocumentNumberAllocator allocator(int blockSize) {
+        return new DocumentNumberAllocator(documentNumberJdbcRepository, transactionManager, meterRegistry, blockSize);
+    }
+
+    private static String today() {
+        return LocalDate.now().format(DateTimeFormatter.BASIC_ISO_DATE);
+    }
+
+    @Test
+    void next_HandsOutBlockFromMemoryThenLeasesNext() {
+        when(documentNumberJdbcRepository.lease(eq("ORD"), eq(7L), any(), eq(3))).thenReturn(1L, 4L);
+        DocumentNumberAllocator allocator = allocator(3);
+
+        List<String> numbers = IntStream.range(0, 4)
+                .mapToObj(i -> allocator.next(DocumentNumberAllocator.ORDER, 7L))
+                .toList();
+
+        assertEquals("ORD-7-" + today() + "-000001", numbers.get(0));
+        assertEquals("ORD-7-" + today() + "-000004", numbers.get(3));
+        verify(documentNumberJdbcRepository, times(2)).lease(eq("ORD"), eq(7L), any(), eq(3));
+        assertEquals(2.0, meterRegistry.get("wms.numbering.leases").counter().count());
+    }
+
+    @Test
+    void next_CountersArePerPrefixAndWarehouse() {
+        when(documentNumberJdbcRepository.lease(any(), anyLong(), any(), anyInt())).thenReturn(1L);
+        DocumentNumberAllocator allocator = allocator(100);
+
+        assertEquals("ORD-1-" + today() + "-000001", allocator.next(DocumentNumberAllocator.ORDER, 1L));
+        assertEquals("ORD-2-" + today() + "-000001", allocator.next(DocumentNumberAllocator.ORDER, 2L));
+        assertEquals("PO-1-" + today() + "-000001", allocator.next(DocumentNumberAllocator.PURCHASE_ORDER, 1L));
+        assertEquals("ORD-1-" + today() + "-000002", allocator.next(DocumentNumberAllocator.ORDER, 1L));
+    }
+
+    @Test
+    void next_ConcurrentCallers_GetUniqueNumbers() throws Exception {
+        AtomicLong counter = new AtomicLong(1);
+        when(documentNumberJdbcRepository.lease(any(), anyLong(), any(), eq(10)))
+                .thenAnswer(invocation -> counter.getAndAdd(10));
+        DocumentNumberAllocator allocator = allocator(10);
+        Set<String> numbers = ConcurrentHashMap.newKeySet();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futures = IntStream.range(0, 1000)
+                    .<Future<?>>mapToObj(i -> executor.submit(() -> numbers.add(allocator.next("ORD", 1L))))
+                    .toList();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+
+        assertEquals(1000, numbers.size());
+        assertEquals(100, counter.get() / 10);
+    }
+
+    @Test
+    void next_CounterCreatedConcurrently_RetriesLease() {
+        when(documentNumberJdbcRepository.lease(eq("PO"), eq(1L), any(), eq(50)))
+                .thenThrow(new DuplicateKeyException("document_number_blocks_pkey"))
+                .thenReturn(51L);
+
+        assertEquals("PO-1-" + today() + "-000051", allocator(50).next(DocumentNumberAllocator.PURCHASE_ORDER, 1L));
+    }
+}
@@ -0,0 +1,127 @@
+package com.wms.service;
+
+import com.wms.config.JacksonConfig;
+import com.wms.dto.request.StockAdjustmentRequest;
+import com.wms.repository.IdempotencyKeyJdbcRepository;
+import com.wms.repository.IdempotencyKeyJdbcRepository.StoredRequest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyServiceTest {
+
+    @Mock
+    private IdempotencyKeyJdbcRepository idempotencyKeyJdbcRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger runs = new AtomicInteger();
+    private IdempotencyService idempotencyService;
+
+    @BeforeEach
+    void setUp() {
+        idempotencyService = new IdempotencyService(idempotencyKeyJdbcRepository, transactionManager,
+                new JacksonConfig().objectMapper(), meterRegistry, 100, 24);
+    }
+
+    @Test
+    void execute_NewKey_RunsOnceThenReplaysFromCache() {
+        when(idempotencyKeyJdbcRepository.find(anyString(), eq("key-1"))).thenReturn(Optional.empty());
+        when(idempotencyKeyJdbcRepository.claim(anyString(), eq("key-1"), any())).thenReturn(true);
+
+        assertEquals(1, adjust("key-1", 10));
+        assertEquals(1, adjust("key-1", 10));
+
+        assertEquals(1, runs.get());
+        verify(idempotencyKeyJdbcRepository).complete(anyString(), eq("key-1"), eq("1"));
+        verify(idempotencyKeyJdbcRepository, times(1)).find(anyString(), eq("key-1"));
+        assertEquals(1.0, lookups("miss"));
+        assertEquals(1.0, lookups("cache"));
+    }
+
+    @Test
+    void execute_KeyStoredInDatabase_ReplaysWithoutRunning() {
+        byte[] hash = storedHashFor("key-2", 10);
+        when(idempotencyKeyJdbcRepository.find(anyString(), eq("key-3")))
+                .thenReturn(Optional.of(new StoredRequest(hash, "42")));
+
+        assertEquals(42, adjust("key-3", 10));
+
+        assertEquals(1, runs.get());
+        verify(idempotencyKeyJdbcRepository, times(1)).claim(anyString(), anyString(), any());
+        assertEquals(1.0, lookups("database"));
+    }
+
+    @Test
+    void execute_SameKeyDifferentRequest_Rejected() {
+        when(idempotencyKeyJdbcRepository.find(anyString(), eq("key-4"))).thenReturn(Optional.empty());
+        when(idempotencyKeyJdbcRepository.claim(anyString(), eq("key-4"), any())).thenReturn(true);
+
+        adjust("key-4", 10);
+
+        assertThrows(IllegalArgumentException.class, () -> adjust("key-4", 11));
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    void execute_ConcurrentRequestCommittedFirst_ReplaysItsResult() {
+        byte[] hash = storedHashFor("key-5", 10);
+        when(idempotencyKeyJdbcRepository.find(anyString(), eq("key-6")))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(new StoredRequest(hash, "7")));
+        when(idempotencyKeyJdbcRepository.claim(anyString(), eq("key-6"), any())).thenReturn(false);
+
+        assertEquals(7, adjust("key-6", 10));
+
+        assertEquals(1, runs.get());
+        verify(idempotencyKeyJdbcRepository, never()).complete(anyString(), eq("key-6"), anyString());
+    }
+
+    @Test
+    void execute_NoKey_RunsDirectly() {
+        assertEquals(1, adjust(null, 10));
+        assertEquals(2, adjust(" ", 10));
+
+        verifyNoInteractions(idempotencyKeyJdbcRepository, transactionManager);
+    }
+
+    // Runs a keyed request once to capture the fingerprint the service stores for it
+    private byte[] storedHashFor(String key, int quantity) {
+        when(idempotencyKeyJdbcRepository.find(anyString(), eq(key))).thenReturn(Optional.empty());
+        when(idempotencyKeyJdbcRepository.claim(anyString(), eq(key), any())).thenReturn(true);
+        adjust(key, quantity);
+
+        ArgumentCaptor<byte[]> hash = ArgumentCaptor.forClass(byte[].class);
+        verify(idempotencyKeyJdbcRepository).claim(anyString(), eq(key), hash.capture());
+        return hash.getValue();
+    }
+
+    private Integer adjust(String key, int quantity) {
+        StockAdjustmentRequest request = new StockAdjustmentRequest();
+        request.setProductId(1L);
+        request.setLocationId(2L);
+        request.setNewQuantity(quantity);
+        return idempotencyService.execute(key, "stock.adjust", request, Integer.class, runs::incrementAndGet);
+    }
+
+    private double lookups(String result) {
+        return meterRegistry.get("wms.idempotency.lookups").tag("result", result).counter().count();
+    }
+}
@@ -0,0 +1,105 @@
+package com.wms.service;
+
+import com.wms.dto.response.InventoryAsOfResponse;
+import com.wms.repository.InventoryJdbcRepository.ProductLocation;
+import com.wms.repository.InventorySnapshotJdbcRepository;
+import com.wms.repository.InventorySnapshotJdbcRepository.Snapshot;
+import com.wms.repository.InventorySnapshotJdbcRepository.StockFilter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class InventoryHistoryServiceTest {
+
+    private static final StockFilter ALL = new StockFilter(null, null, null);
+
+    @Mock
+    private InventorySnapshotJdbcRepository inventorySnapshotJdbcRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private InventoryHistoryService inventoryHistoryService;
+
+    @BeforeEach
+    void setUp() {
+        inventoryHistoryService = new InventoryHistoryService(inventorySnapshotJdbcRepository, transactionManager,
+                4, 600_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        inventoryHistoryService.shutdown();
+    }
+
+    @Test
+    void getInventoryAsOf_NearestSnapshotBefore_ReplaysForwardInParallelSlices() {
+        LocalDateTime asOf = LocalDateTime.now().minusDays(30);
+        Snapshot snapshot = new Snapshot(5L, asOf.minusHours(10));
+        when(inventorySnapshotJdbcRepository.findLatestAtOrBefore(asOf)).thenReturn(Optional.of(snapshot));
+        when(inventorySnapshotJdbcRepository.findEarliestAfter(asOf)).thenReturn(Optional.empty());
+        when(inventorySnapshotJdbcRepository.findLines(5L, ALL)).thenReturn(Map.of(
+                new ProductLocation(1L, 10L), 50L,
+                new ProductLocation(2L, 10L), 5L));
+        when(inventorySnapshotJdbcRepository.sumMovements(any(), any(), eq(false), eq(ALL)))
+                .thenReturn(Map.of(new ProductLocation(1L, 10L), -5L, new ProductLocation(2L, 10L), -1L));
+
+        InventoryAsOfResponse response = inventoryHistoryService.getInventoryAsOf(asOf, null, null, null);
+
+        assertEquals(snapshot.takenAt(), response.getSnapshotTakenAt());
+        assertEquals(2, response.getLines().size());
+        assertEquals(30L, response.getLines().get(0).getQuantity());
+        assertEquals(1L, response.getLines().get(1).getQuantity());
+        verify(inventorySnapshotJdbcRepository).sumMovements(snapshot.takenAt(), snapshot.takenAt().plusMinutes(150),
+                false, ALL);
+        verify(inventorySnapshotJdbcRepository).sumMovements(snapshot.takenAt().plusMinutes(450), asOf, false, ALL);
+        verify(inventorySnapshotJdbcRepository, never()).sumOnHandAsOf(any(), any());
+    }
+
+    @Test
+    void getInventoryAsOf_NearestSnapshotAfter_ReplaysBackward() {
+        LocalDateTime asOf = LocalDateTime.now().minusDays(30);
+        Snapshot snapshot = new Snapshot(6L, asOf.plusMinutes(30));
+        when(inventorySnapshotJdbcRepository.findLatestAtOrBefore(asOf)).thenReturn(Optional.empty());
+        when(inventorySnapshotJdbcRepository.findEarliestAfter(asOf)).thenReturn(Optional.of(snapshot));
+        when(inventorySnapshotJdbcRepository.findLines(6L, ALL)).thenReturn(Map.of(new ProductLocation(1L, 10L), 8L));
+        when(inventorySnapshotJdbcRepository.sumMovements(asOf, snapshot.takenAt(), true, ALL))
+                .thenReturn(Map.of(new ProductLocation(1L, 10L), -8L));
+
+        InventoryAsOfResponse response = inventoryHistoryService.getInventoryAsOf(asOf, null, null, null);
+
+        assertTrue(response.getLines().isEmpty());
+        verify(inventorySnapshotJdbcRepository, times(1)).sumMovements(any(), any(), anyBoolean(), any());
+    }
+
+    @Test
+    void getInventoryAsOf_NoSnapshotNearer_UsesCurrentInventory() {
+        LocalDateTime asOf = LocalDateTime.now().minusHours(2);
+        when(inventorySnapshotJdbcRepository.findLatestAtOrBefore(asOf))
+                .thenReturn(Optional.of(new Snapshot(7L, asOf.minusDays(1))));
+        when(inventorySnapshotJdbcRepository.findEarliestAfter(asOf)).thenReturn(Optional.empty());
+        when(inventorySnapshotJdbcRepository.sumOnHandAsOf(asOf, ALL))
+                .thenReturn(Map.of(new ProductLocation(1L, 10L), 3L));
+
+        InventoryAsOfResponse response = inventoryHistoryService.getInventoryAsOf(asOf, null, null, null);
+
+        assertNull(response.getSnapshotTakenAt());
+        assertEquals(3L, response.getLines().get(0).getQuantity());
+        verify(inventorySnapshotJdbcRepository, never()).findLines(anyLong(), any());
+    }
+}
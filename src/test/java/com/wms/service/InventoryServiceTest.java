@@ -1,14 +1,28 @@
 package com.wms.service;
 
 import com.wms.dto.request.InventoryRequest;
+import com.wms.dto.response.CursorPageResponse;
+import com.wms.dto.response.InventoryImportResponse;
 import com.wms.dto.response.InventoryResponse;
 import com.wms.entity.Inventory;
 import com.wms.entity.Location;
 import com.wms.entity.Product;
+import com.wms.enums.StockMovementType;
 import com.wms.exception.ResourceNotFoundException;
+import com.wms.repository.InventoryImportJdbcRepository;
+import com.wms.repository.InventoryImportJdbcRepository.LocationCode;
+import com.wms.repository.InventoryImportJdbcRepository.MergeResult;
+import com.wms.repository.InventoryImportJdbcRepository.QuantityChange;
+import com.wms.repository.InventoryImportJdbcRepository.StagingWriter;
+import com.wms.repository.InventoryJdbcRepository.ProductLocation;
+import com.wms.repository.LocationJdbcRepository.LocationRef;
+import com.wms.repository.LocationJdbcRepository.WarehouseRef;
+import com.wms.repository.InventoryQueryRepository;
+import com.wms.repository.InventoryQueryRepository.InventoryFilter;
 import com.wms.repository.InventoryRepository;
 import com.wms.repository.LocationRepository;
 import com.wms.repository.ProductRepository;
+import com.wms.repository.StockMovementJdbcRepository.NewMovement;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -16,7 +30,11 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.io.StringReader;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -27,17 +45,36 @@ class InventoryServiceTest {
     @Mock
     private InventoryRepository inventoryRepository;
 
+    @Mock
+    private InventoryQueryRepository inventoryQueryRepository;
+
     @Mock
     private ProductRepository productRepository;
 
     @Mock
     private LocationRepository locationRepository;
 
+    @Mock
+    private LocationTopology locationTopology;
+
+    @Mock
+    private InventoryImportJdbcRepository inventoryImportJdbcRepository;
+
+    @Mock
+    private AvailableToPromiseLedger atpLedger;
+
+    @Mock
+    private LowStockIndex lowStockIndex;
+
+    @Mock
+    private StockMovementJournal stockMovementJournal;
+
     @InjectMocks
     private InventoryService inventoryService;
 
     private Product product;
     private Location location;
+    private LocationRef locationRef;
     private Inventory inventory;
 
     @BeforeEach
@@ -46,6 +83,7 @@ class InventoryServiceTest {
         product.setId(1L);
         location = Location.builder().code("L-1").description("loc").build();
         location.setId(1L);
+        locationRef = new LocationRef(1L, "L-1", "loc", null, null, null, 3L);
 
         inventory = Inventory.builder()
                 .product(product)
@@ -66,14 +104,20 @@ class InventoryServiceTest {
                 .build();
 
         when(productRepository.findById(1L)).thenReturn(Optional.of(product));
-        when(locationRepository.findById(1L)).thenReturn(Optional.of(location));
+        when(locationTopology.findLocation(1L)).thenReturn(Optional.of(locationRef));
+        when(locationRepository.getReferenceById(1L)).thenReturn(location);
         when(inventoryRepository.findByProductIdAndLocationId(1L, 1L)).thenReturn(Optional.empty());
         when(inventoryRepository.save(any(Inventory.class))).thenReturn(inventory);
 
+        when(locationTopology.describe(location)).thenReturn(locationRef);
+        when(locationTopology.findWarehouse(3L)).thenReturn(Optional.of(new WarehouseRef(3L, "W-3", "Main")));
+
         InventoryResponse resp = inventoryService.createInventory(req);
 
         assertNotNull(resp);
         assertEquals(10, resp.getQuantity());
+        assertEquals("L-1", resp.getLocationCode());
+        assertEquals("Main", resp.getWarehouseName());
         verify(inventoryRepository, times(1)).save(any(Inventory.class));
     }
 
@@ -86,7 +130,8 @@ class InventoryServiceTest {
                 .build();
 
         when(productRepository.findById(1L)).thenReturn(Optional.of(product));
-        when(locationRepository.findById(1L)).thenReturn(Optional.of(location));
+        when(locationTopology.findLocation(1L)).thenReturn(Optional.of(locationRef));
+        when(locationRepository.getReferenceById(1L)).thenReturn(location);
         when(inventoryRepository.findByProductIdAndLocationId(1L, 1L)).thenReturn(Optional.of(inventory));
 
         assertThrows(IllegalArgumentException.class, () -> inventoryService.createInventory(req));
@@ -98,6 +143,19 @@ class InventoryServiceTest {
         when(inventoryRepository.findById(1L)).thenReturn(Optional.of(inventory));
 
         assertThrows(IllegalArgumentException.class, () -> inventoryService.adjustInventory(1L, -20));
+        verifyNoInteractions(stockMovementJournal);
+    }
+
+    @Test
+    void adjustInventory_Decrease_RecordsMovementLeavingTheLocation() {
+        when(inventoryRepository.findById(1L)).thenReturn(Optional.of(inventory));
+        when(inventoryRepository.save(inventory)).thenReturn(inventory);
+
+        InventoryResponse resp = inventoryService.adjustInventory(1L, -4);
+
+        assertEquals(6, resp.getQuantity());
+        verify(stockMovementJournal).recordAll(List.of(new NewMovement(StockMovementType.ADJUSTMENT, 1L, 1L, null,
+                4, "Inventory Adjusted", null)));
     }
 
     @Test
@@ -106,5 +164,74 @@ class InventoryServiceTest {
 
         assertThrows(ResourceNotFoundException.class, () -> inventoryService.getInventoryByProduct(2L));
     }
-}
 
+    @Test
+    void getInventoryPage_FollowsCursorAcrossPages() {
+        InventoryFilter filter = new InventoryFilter(1L, null, null, null);
+        when(inventoryQueryRepository.find(filter, null, 3)).thenReturn(List.of(
+                InventoryResponse.builder().id(10L).build(),
+                InventoryResponse.builder().id(11L).build(),
+                InventoryResponse.builder().id(12L).build()));
+        when(inventoryQueryRepository.find(filter, 11L, 3)).thenReturn(List.of(
+                InventoryResponse.builder().id(12L).build()));
+
+        CursorPageResponse<InventoryResponse> first = inventoryService.getInventoryPage(filter, null, 2);
+        assertTrue(first.isHasMore());
+        assertEquals(2, first.getItems().size());
+        assertNotNull(first.getNextCursor());
+
+        CursorPageResponse<InventoryResponse> second = inventoryService.getInventoryPage(filter, first.getNextCursor(), 2);
+        assertFalse(second.isHasMore());
+        assertNull(second.getNextCursor());
+        assertEquals(12L, second.getItems().get(0).getId());
+    }
+
+    @Test
+    void getInventoryPage_InvalidCursor_Throws() {
+        InventoryFilter filter = new InventoryFilter(null, null, null, null);
+
+        assertThrows(IllegalArgumentException.class, () -> inventoryService.getInventoryPage(filter, "not-a-cursor", 10));
+        verifyNoInteractions(inventoryQueryRepository);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void importInventory_StagesValidRowsAndReportsInvalidOnes() {
+        when(inventoryImportJdbcRepository.loadProductIdsBySku()).thenReturn(Map.of("P-1", 1L));
+        when(inventoryImportJdbcRepository.loadLocationIdsByCode())
+                .thenReturn(Map.of(new LocationCode("WH-1", "L-1"), 2L));
+        StagingWriter writer = mock(StagingWriter.class);
+        when(inventoryImportJdbcRepository.stage(any())).thenAnswer(invocation -> {
+            invocation.<Consumer<StagingWriter>>getArgument(0).accept(writer);
+            return 1L;
+        });
+        List<ProductLocation> pairs = List.of(new ProductLocation(1L, 2L));
+        when(inventoryImportJdbcRepository.removeBelowReserved()).thenReturn(List.of());
+        when(inventoryImportJdbcRepository.merge())
+                .thenReturn(new MergeResult(pairs, 1, List.of(new QuantityChange(1L, 2L, 25))));
+
+        String csv = """
+                sku,warehouse,location,quantity
+                P-1,WH-1,L-1,25
+                P-X,WH-1,L-1,5
+                P-1,WH-1,L-9,5
+                P-1,WH-1,L-1,abc
+                "P-1",WH-1
+                """;
+        InventoryImportResponse response = inventoryService.importInventory(new StringReader(csv));
+
+        verify(atpLedger).flush();
+        verify(writer).write(2L, 1L, 2L, 25);
+        verifyNoMoreInteractions(writer);
+        assertEquals(5, response.getTotalRows());
+        assertEquals(1, response.getImportedRows());
+        assertEquals(1, response.getInsertedRows());
+        assertEquals(4, response.getErrorCount());
+        assertEquals(List.of(3L, 4L, 5L, 6L), response.getErrors().stream()
+                .map(InventoryImportResponse.RowError::getLine).toList());
+        verify(atpLedger).invalidateAll(pairs);
+        verify(lowStockIndex).refresh(pairs);
+        verify(stockMovementJournal).recordAll(List.of(new NewMovement(StockMovementType.ADJUSTMENT, 1L, null, 2L,
+                25, "Inventory Import", null)));
+    }
+}
@@ -29,6 +29,9 @@ class LocationServiceTest {
     @Mock
     private WarehouseRepository warehouseRepository;
 
+    @Mock
+    private LocationTopology locationTopology;
+
     @InjectMocks
     private LocationService locationService;
 
@@ -60,6 +63,7 @@ class LocationServiceTest {
         assertNotNull(resp);
         assertEquals("L-1", resp.getCode());
         verify(locationRepository, times(1)).save(any(Location.class));
+        verify(locationTopology).putLocation(location);
     }
 
     @Test
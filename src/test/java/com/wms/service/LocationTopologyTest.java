@@ -0,0 +1,79 @@
+package com.wms.service;
+
+import com.wms.entity.Location;
+import com.wms.entity.Warehouse;
+import com.wms.repository.LocationJdbcRepository;
+import com.wms.repository.LocationJdbcRepository.LocationRef;
+import com.wms.repository.LocationJdbcRepository.WarehouseRef;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LocationTopologyTest {
+
+    @Mock
+    private LocationJdbcRepository locationJdbcRepository;
+
+    private LocationTopology locationTopology;
+
+    @BeforeEach
+    void setUp() {
+        locationTopology = new LocationTopology(locationJdbcRepository);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void rebuild_ServesLookupsWithoutQueries() {
+        doAnswer(invocation -> {
+            ((Consumer<WarehouseRef>) invocation.getArgument(0)).accept(new WarehouseRef(1L, "W-1", "Main"));
+            return null;
+        }).when(locationJdbcRepository).forEachWarehouse(any());
+        doAnswer(invocation -> {
+            ((Consumer<LocationRef>) invocation.getArgument(0))
+                    .accept(new LocationRef(10L, "A-01", null, "A", "01", null, 1L));
+            return null;
+        }).when(locationJdbcRepository).forEachLocation(any());
+
+        locationTopology.rebuild();
+
+        assertEquals("Main", locationTopology.findWarehouse(1L).orElseThrow().name());
+        assertEquals(1L, locationTopology.findLocation(10L).orElseThrow().warehouseId());
+        verify(locationJdbcRepository, never()).findWarehouse(anyLong());
+        verify(locationJdbcRepository, never()).findLocation(anyLong());
+    }
+
+    @Test
+    void findLocation_Miss_ReadsThroughOnce() {
+        when(locationJdbcRepository.findLocation(5L))
+                .thenReturn(Optional.of(new LocationRef(5L, "B-02", null, null, null, null, 2L)));
+
+        assertTrue(locationTopology.findLocation(5L).isPresent());
+        assertTrue(locationTopology.findLocation(5L).isPresent());
+        verify(locationJdbcRepository, times(1)).findLocation(5L);
+    }
+
+    @Test
+    void evictLocation_OutsideTransaction_DropsImmediately() {
+        Warehouse warehouse = Warehouse.builder().code("W-1").name("Main").build();
+        warehouse.setId(1L);
+        Location location = Location.builder().code("A-01").warehouse(warehouse).build();
+        location.setId(10L);
+
+        locationTopology.putLocation(location);
+        assertEquals("A-01", locationTopology.findLocation(10L).orElseThrow().code());
+
+        locationTopology.evictLocation(10L);
+        when(locationJdbcRepository.findLocation(10L)).thenReturn(Optional.empty());
+        assertTrue(locationTopology.findLocation(10L).isEmpty());
+    }
+}
@@ -0,0 +1,87 @@
+package com.wms.service;
+
+import com.wms.dto.response.LowStockReportResponse;
+import com.wms.repository.InventoryJdbcRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LowStockIndexTest {
+
+    @Mock
+    private InventoryJdbcRepository inventoryJdbcRepository;
+
+    private LowStockIndex lowStockIndex;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        lowStockIndex = new LowStockIndex(inventoryJdbcRepository);
+
+        doAnswer(invocation -> {
+            Consumer<LowStockReportResponse> consumer = invocation.getArgument(0);
+            consumer.accept(row(1L, 1L, 2, 10));
+            consumer.accept(row(2L, 1L, 0, 3));
+            consumer.accept(row(3L, 1L, 1, 20));
+            return null;
+        }).when(inventoryJdbcRepository).forEachLowStock(any(Consumer.class));
+        lowStockIndex.rebuild();
+    }
+
+    @Test
+    void top_OrdersByDeficitAndLimits() {
+        List<LowStockReportResponse> top = lowStockIndex.top(2);
+
+        assertEquals(2, top.size());
+        assertEquals(3L, top.get(0).getProductId());
+        assertEquals(1L, top.get(1).getProductId());
+        assertEquals(3, lowStockIndex.top(null).size());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void refresh_RemovesRowThatIsNoLongerLow() {
+        lowStockIndex.refresh(3L, 1L);
+
+        verify(inventoryJdbcRepository).forEachLowStock(anyCollection(), any(Consumer.class));
+        assertEquals(List.of(1L, 2L), lowStockIndex.top(null).stream().map(LowStockReportResponse::getProductId).toList());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void refresh_UpdatesDeficitAndReorders() {
+        doAnswer(invocation -> {
+            Consumer<LowStockReportResponse> consumer = invocation.getArgument(1);
+            consumer.accept(row(2L, 1L, 0, 50));
+            return null;
+        }).when(inventoryJdbcRepository).forEachLowStock(anyCollection(), any(Consumer.class));
+
+        lowStockIndex.refresh(2L, 1L);
+
+        List<LowStockReportResponse> top = lowStockIndex.top(null);
+        assertEquals(3, top.size());
+        assertEquals(2L, top.get(0).getProductId());
+        assertEquals(50, top.get(0).getDeficit());
+    }
+
+    private static LowStockReportResponse row(long productId, long locationId, int quantity, int minStockLevel) {
+        return LowStockReportResponse.builder()
+                .productId(productId)
+                .locationId(locationId)
+                .currentQuantity(quantity)
+                .minStockLevel(minStockLevel)
+                .deficit(minStockLevel - quantity)
+                .build();
+    }
+}
@@ -1,9 +1,42 @@
 package com.wms.service;
 
+import com.wms.dto.request.BatchReservationRequest;
+import com.wms.dto.response.BatchReservationResponse;
+import com.wms.enums.OrderStatus;
+import com.wms.exception.InsufficientStockException;
+import com.wms.repository.*;
+import com.wms.repository.OrderJdbcRepository.ItemLine;
+import com.wms.repository.OrderJdbcRepository.OrderLines;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
 
+@ExtendWith(MockitoExtension.class)
 public class OrderServiceTest {
+
+    @Mock
+    private OrderJdbcRepository orderJdbcRepository;
+
+    @Mock
+    private StockReservationJdbcRepository stockReservationJdbcRepository;
+
+    @Mock
+    private AvailableToPromiseLedger atpLedger;
+
+    @InjectMocks
+    private OrderService orderService;
+
     @Test
     void testOrderCreation() {
         int orderId = (int) (Math.random() * 10) + 1; // 1 ile 10 arası pozitif değer
@@ -15,4 +48,30 @@ public class OrderServiceTest {
         boolean cancelled = true;
         assertTrue(cancelled, "Sipariş iptal edilmeli");
     }
+
+    @Test
+    void reserveBatch_ReportsPerOrderResults() {
+        Map<Long, OrderLines> orders = new LinkedHashMap<>();
+        orders.put(1L, new OrderLines(1L, OrderStatus.PENDING, List.of(new ItemLine(10L, 20L, 5))));
+        orders.put(2L, new OrderLines(2L, OrderStatus.PENDING, List.of(new ItemLine(11L, 20L, 500))));
+        orders.put(3L, new OrderLines(3L, OrderStatus.SHIPPED, List.of(new ItemLine(10L, 20L, 1))));
+        when(orderJdbcRepository.lockAndLoadLines(any())).thenReturn(orders);
+        when(atpLedger.reserveAll(List.of(new AvailableToPromiseLedger.Line(10L, 20L, 5))))
+                .thenReturn(new long[]{100L});
+        when(atpLedger.reserveAll(List.of(new AvailableToPromiseLedger.Line(11L, 20L, 500))))
+                .thenThrow(new InsufficientStockException("Insufficient stock"));
+
+        BatchReservationResponse response = orderService.reserveBatch(
+                BatchReservationRequest.builder().orderIds(List.of(1L, 2L, 3L, 4L, 1L)).build());
+
+        assertEquals(1, response.getReservedCount());
+        assertEquals(3, response.getFailedCount());
+        assertEquals(List.of(true, false, false, false),
+                response.getResults().stream().map(BatchReservationResponse.OrderReservationResult::isSuccess).toList());
+        assertEquals("Order not found", response.getResults().get(3).getMessage());
+        verify(stockReservationJdbcRepository).insertAll(
+                List.of(new StockReservationJdbcRepository.NewReservation(1L, 100L, 5)));
+        verify(orderJdbcRepository).updateStatus(List.of(1L), OrderStatus.PENDING, OrderStatus.RESERVED);
+        verify(atpLedger).preload(anyList());
+    }
 }
@@ -0,0 +1,112 @@
+package com.wms.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wms.dto.request.ProductRequest;
+import com.wms.dto.response.ProductImportResponse;
+import com.wms.repository.ProductJdbcRepository;
+import com.wms.repository.ProductJdbcRepository.UpsertedProduct;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductImportServiceTest {
+
+    @Mock
+    private ProductJdbcRepository productJdbcRepository;
+
+    @Mock
+    private LowStockIndex lowStockIndex;
+
+    @Mock
+    private ProductLookupCache productLookupCache;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ProductImportService productImportService;
+
+    @BeforeEach
+    void setUp() {
+        productImportService = new ProductImportService(productJdbcRepository, lowStockIndex, productLookupCache,
+                new ObjectMapper(), Validation.buildDefaultValidatorFactory().getValidator(), transactionManager, 2, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        productImportService.shutdown();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void importProducts_Ndjson_CountsCreatedUpdatedAndRejected() {
+        when(productJdbcRepository.upsertBySku(anyList())).thenAnswer(invocation ->
+                ((List<ProductRequest>) invocation.getArgument(0)).stream()
+                        .map(p -> new UpsertedProduct(1L, p.getSku(), !p.getSku().equals("SKU-C")))
+                        .toList());
+
+        String ndjson = """
+                {"sku":"SKU-A","name":"A","unit":"PCS","unitPrice":1.5,"minStockLevel":5}
+                {"sku":"SKU-B","unit":"PCS","unitPrice":1.5,"minStockLevel":5}
+                {"sku":"SKU-A","name":"A2","unit":"PCS","unitPrice":2,"minStockLevel":5}
+                {"sku":"SKU-C","name":"C","unit":"PCS","unitPrice":3,"minStockLevel":0}
+                """;
+        ProductImportResponse response = productImportService.importProducts(stream(ndjson));
+
+        assertEquals(4, response.getTotalItems());
+        assertEquals(1, response.getCreatedCount());
+        assertEquals(1, response.getUpdatedCount());
+        assertEquals(2, response.getRejectedCount());
+        assertEquals(List.of(0L, 1L), response.getErrors().stream()
+                .map(ProductImportResponse.ItemError::getIndex).toList());
+        verify(productJdbcRepository).upsertBySku(argThat(chunk ->
+                chunk.size() == 1 && chunk.get(0).getName().equals("A2")));
+        verify(lowStockIndex).rebuild();
+        verify(productLookupCache).invalidateAll();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void importProducts_FailedChunk_RetriesRowByRow() {
+        when(productJdbcRepository.upsertBySku(anyList())).thenAnswer(invocation -> {
+            List<ProductRequest> chunk = invocation.getArgument(0);
+            if (chunk.stream().anyMatch(p -> p.getSku().equals("SKU-BAD"))) {
+                throw new DataIntegrityViolationException("duplicate barcode");
+            }
+            return chunk.stream().map(p -> new UpsertedProduct(1L, p.getSku(), true)).toList();
+        });
+
+        String json = """
+                [
+                  {"sku":"SKU-OK","name":"Ok","unit":"PCS","unitPrice":1,"minStockLevel":1},
+                  {"sku":"SKU-BAD","name":"Bad","unit":"PCS","unitPrice":1,"minStockLevel":1,"barcode":"X"}
+                ]
+                """;
+        ProductImportResponse response = productImportService.importProducts(stream(json));
+
+        assertEquals(2, response.getTotalItems());
+        assertEquals(1, response.getCreatedCount());
+        assertEquals(1, response.getRejectedCount());
+        assertEquals("SKU-BAD", response.getErrors().get(0).getSku());
+        verify(productJdbcRepository, times(3)).upsertBySku(anyList());
+        verify(lowStockIndex, never()).rebuild();
+    }
+
+    private static ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
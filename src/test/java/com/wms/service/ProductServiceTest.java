@@ -6,10 +6,11 @@ import com.wms.entity.Product;
 import com.wms.exception.BusinessRuleException;
 import com.wms.exception.ResourceNotFoundException;
 import com.wms.repository.ProductRepository;
+import com.wms.repository.ProductSearchRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
@@ -18,6 +19,7 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -26,7 +28,13 @@ class ProductServiceTest {
     @Mock
     private ProductRepository productRepository;
 
-    @InjectMocks
+    @Mock
+    private ProductSearchRepository productSearchRepository;
+
+    @Mock
+    private LowStockIndex lowStockIndex;
+
+    private SimpleMeterRegistry meterRegistry;
     private ProductService productService;
 
     private ProductRequest productRequest;
@@ -34,6 +42,10 @@ class ProductServiceTest {
 
     @BeforeEach
     void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        productService = new ProductService(productRepository, productSearchRepository, lowStockIndex,
+                new ProductLookupCache(productRepository, meterRegistry, 1 << 20, 1000, 60));
+
         productRequest = ProductRequest.builder()
                 .sku("TEST-001")
                 .barcode("1234567890")
@@ -106,4 +118,64 @@ class ProductServiceTest {
         verify(productRepository, times(1)).deleteById(1L);
         verify(productRepository, never()).save(any(Product.class));
     }
-}
\ No newline at end of file
+
+    @Test
+    void getProduct_SecondCallServedFromCache() {
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+
+        productService.getProduct(1L);
+        ProductResponse response = productService.getProduct(1L);
+
+        assertEquals("TEST-001", response.getSku());
+        verify(productRepository, times(1)).findById(1L);
+        assertEquals(1.0, meterRegistry.get("cache.gets").tags("cache", "products.by-id", "result", "hit")
+                .functionCounter().count());
+    }
+
+    @Test
+    void scanProduct_FallsBackToSkuAndCachesBothResults() {
+        when(productRepository.findByBarcode("TEST-001")).thenReturn(Optional.empty());
+        when(productRepository.findBySku("TEST-001")).thenReturn(Optional.of(product));
+
+        assertEquals(1L, productService.scanProduct("TEST-001").getId());
+        assertEquals(1L, productService.scanProduct("TEST-001").getId());
+
+        verify(productRepository, times(1)).findByBarcode("TEST-001");
+        verify(productRepository, times(1)).findBySku("TEST-001");
+        verify(productRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void scanProduct_UnknownCode_ThrowsException() {
+        when(productRepository.findByBarcode("NOPE")).thenReturn(Optional.empty());
+        when(productRepository.findBySku("NOPE")).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> productService.scanProduct("NOPE"));
+    }
+
+    @Test
+    void updateProduct_InvalidatesCachedProduct() {
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+        when(productRepository.save(any(Product.class))).thenReturn(product);
+
+        productService.getProduct(1L);
+        productService.updateProduct(1L, productRequest);
+        productService.getProduct(1L);
+
+        // getProduct, updateProduct, getProduct after invalidation
+        verify(productRepository, times(3)).findById(1L);
+    }
+
+    @Test
+    void updateProduct_DropsCachedCodes() {
+        when(productRepository.findByBarcode("1234567890")).thenReturn(Optional.of(product));
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+        when(productRepository.save(any(Product.class))).thenReturn(product);
+
+        productService.scanProduct("1234567890");
+        productService.updateProduct(1L, productRequest);
+        productService.scanProduct("1234567890");
+
+        verify(productRepository, times(2)).findByBarcode("1234567890");
+    }
+}
@@ -1,23 +1,39 @@
 package com.wms.service;
 
+import com.wms.dto.request.PurchaseOrderReceiptLineRequest;
+import com.wms.dto.request.PurchaseOrderReceiptRequest;
 import com.wms.dto.request.PurchaseOrderRequest;
+import com.wms.dto.response.PurchaseOrderReceiptResponse;
 import com.wms.dto.response.PurchaseOrderResponse;
 import com.wms.entity.PurchaseOrder;
 import com.wms.entity.Supplier;
 import com.wms.entity.Warehouse;
 import com.wms.enums.PurchaseOrderStatus;
+import com.wms.exception.BusinessRuleException;
 import com.wms.exception.ResourceNotFoundException;
+import com.wms.metrics.SqlStatementCounter;
+import com.wms.metrics.StockOperationMetrics;
+import com.wms.repository.InventoryJdbcRepository;
+import com.wms.repository.InventoryJdbcRepository.ProductLocation;
+import com.wms.repository.LocationJdbcRepository.WarehouseRef;
+import com.wms.repository.PurchaseOrderJdbcRepository;
+import com.wms.repository.PurchaseOrderJdbcRepository.ReceiptItem;
+import com.wms.repository.PurchaseOrderJdbcRepository.ReceiptOrder;
 import com.wms.repository.PurchaseOrderRepository;
 import com.wms.repository.SupplierRepository;
 import com.wms.repository.WarehouseRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -36,6 +52,31 @@ class PurchaseOrderServiceTest {
     @Mock
     private WarehouseRepository warehouseRepository;
 
+    @Mock
+    private LocationTopology locationTopology;
+
+    @Mock
+    private PurchaseOrderJdbcRepository purchaseOrderJdbcRepository;
+
+    @Mock
+    private InventoryJdbcRepository inventoryJdbcRepository;
+
+    @Mock
+    private AvailableToPromiseLedger atpLedger;
+
+    @Mock
+    private LowStockIndex lowStockIndex;
+
+    @Mock
+    private StockMovementJournal stockMovementJournal;
+
+    @Mock
+    private DocumentNumberAllocator documentNumberAllocator;
+
+    @Spy
+    private StockOperationMetrics stockOperationMetrics =
+            new StockOperationMetrics(new SimpleMeterRegistry(), new SqlStatementCounter(), 50);
+
     @InjectMocks
     private PurchaseOrderService purchaseOrderService;
 
@@ -62,14 +103,18 @@ class PurchaseOrderServiceTest {
         req.setExpectedDeliveryDate(LocalDate.now().plusDays(5));
 
         when(supplierRepository.findById(1L)).thenReturn(Optional.of(supplier));
-        when(warehouseRepository.findById(1L)).thenReturn(Optional.of(warehouse));
+        when(locationTopology.findWarehouse(1L)).thenReturn(Optional.of(new WarehouseRef(1L, "W-1", "WH")));
+        when(warehouseRepository.getReferenceById(1L)).thenReturn(warehouse);
+        when(locationTopology.warehouseName(warehouse)).thenReturn("WH");
         when(purchaseOrderRepository.save(any(PurchaseOrder.class))).thenReturn(po);
 
         PurchaseOrderResponse resp = purchaseOrderService.createPurchaseOrder(req);
 
         assertNotNull(resp);
         assertEquals("PO-123", resp.getOrderNumber());
+        assertEquals("WH", resp.getWarehouseName());
         verify(purchaseOrderRepository, times(1)).save(any(PurchaseOrder.class));
+        verify(warehouseRepository, never()).findById(any());
     }
 
     @Test
@@ -80,4 +125,79 @@ class PurchaseOrderServiceTest {
         req.setWarehouseId(1L);
         assertThrows(ResourceNotFoundException.class, () -> purchaseOrderService.createPurchaseOrder(req));
     }
+
+    @Test
+    void createPurchaseOrder_WarehouseNotFound_Throws() {
+        when(supplierRepository.findById(1L)).thenReturn(Optional.of(supplier));
+        when(locationTopology.findWarehouse(2L)).thenReturn(Optional.empty());
+        PurchaseOrderRequest req = new PurchaseOrderRequest();
+        req.setSupplierId(1L);
+        req.setWarehouseId(2L);
+
+        assertThrows(ResourceNotFoundException.class, () -> purchaseOrderService.createPurchaseOrder(req));
+        verify(purchaseOrderRepository, never()).save(any());
+    }
+
+    private ReceiptOrder approvedOrder() {
+        return new ReceiptOrder(1L, "PO-123", 1L, PurchaseOrderStatus.APPROVED, List.of(
+                new ReceiptItem(11L, 100L, 10L, 10, 0),
+                new ReceiptItem(12L, 200L, 10L, 5, 0)));
+    }
+
+    private static PurchaseOrderReceiptRequest receipt(PurchaseOrderReceiptLineRequest... lines) {
+        return PurchaseOrderReceiptRequest.builder().lines(List.of(lines)).build();
+    }
+
+    private static PurchaseOrderReceiptLineRequest line(long productId, int quantity) {
+        return PurchaseOrderReceiptLineRequest.builder().productId(productId).locationId(10L).quantity(quantity).build();
+    }
+
+    @Test
+    void receiveItems_Partial_AppliesScansInOneBatchAndMarksPartiallyReceived() {
+        when(purchaseOrderJdbcRepository.lockAndLoadItems(1L)).thenReturn(Optional.of(approvedOrder()));
+
+        PurchaseOrderReceiptResponse resp = purchaseOrderService.receiveItems(1L, receipt(line(100L, 3), line(100L, 4)));
+
+        assertEquals("PARTIALLY_RECEIVED", resp.getStatus());
+        assertEquals(7, resp.getReceivedQuantity());
+        assertEquals(8, resp.getRemainingQuantity());
+        verify(inventoryJdbcRepository).addOnHand(Map.of(new ProductLocation(100L, 10L), 7L));
+        verify(purchaseOrderJdbcRepository).addReceivedQuantities(Map.of(11L, 7));
+        verify(purchaseOrderJdbcRepository).updateStatus(1L, PurchaseOrderStatus.PARTIALLY_RECEIVED);
+        verify(stockMovementJournal).recordAll(argThat(movements -> movements.size() == 1));
+    }
+
+    @Test
+    void receiveItems_LastOpenQuantity_MarksReceived() {
+        ReceiptOrder order = new ReceiptOrder(1L, "PO-123", 1L, PurchaseOrderStatus.PARTIALLY_RECEIVED, List.of(
+                new ReceiptItem(11L, 100L, 10L, 10, 10),
+                new ReceiptItem(12L, 200L, 10L, 5, 2)));
+        when(purchaseOrderJdbcRepository.lockAndLoadItems(1L)).thenReturn(Optional.of(order));
+
+        PurchaseOrderReceiptResponse resp = purchaseOrderService.receiveItems(1L, receipt(line(200L, 3)));
+
+        assertEquals("RECEIVED", resp.getStatus());
+        assertEquals(0, resp.getRemainingQuantity());
+        verify(purchaseOrderJdbcRepository).updateStatus(1L, PurchaseOrderStatus.RECEIVED);
+    }
+
+    @Test
+    void receiveItems_MoreThanOpen_ThrowsWithoutWriting() {
+        when(purchaseOrderJdbcRepository.lockAndLoadItems(1L)).thenReturn(Optional.of(approvedOrder()));
+
+        assertThrows(BusinessRuleException.class,
+                () -> purchaseOrderService.receiveItems(1L, receipt(line(200L, 4), line(200L, 2))));
+        assertThrows(BusinessRuleException.class,
+                () -> purchaseOrderService.receiveItems(1L, receipt(line(300L, 1))));
+        verify(inventoryJdbcRepository, never()).addOnHand(any());
+        verify(purchaseOrderJdbcRepository, never()).addReceivedQuantities(any());
+    }
+
+    @Test
+    void receiveItems_DraftOrder_Throws() {
+        ReceiptOrder draft = new ReceiptOrder(1L, "PO-123", 1L, PurchaseOrderStatus.DRAFT, List.of());
+        when(purchaseOrderJdbcRepository.lockAndLoadItems(1L)).thenReturn(Optional.of(draft));
+
+        assertThrows(BusinessRuleException.class, () -> purchaseOrderService.receiveItems(1L, receipt(line(100L, 1))));
+    }
 }
@@ -0,0 +1,94 @@
+package com.wms.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.wms.dto.response.StockMovementResponse;
+import com.wms.enums.ReportFormat;
+import com.wms.repository.StockMovementJdbcRepository;
+import com.wms.repository.StockMovementRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReportServiceTest {
+
+    @Mock
+    private LowStockIndex lowStockIndex;
+
+    @Mock
+    private StockMovementRepository stockMovementRepository;
+
+    @Mock
+    private StockMovementJdbcRepository stockMovementJdbcRepository;
+
+    private ReportService reportService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+        objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        reportService = new ReportService(lowStockIndex, stockMovementRepository,
+                stockMovementJdbcRepository, objectMapper);
+
+        doAnswer(invocation -> {
+            Consumer<StockMovementResponse> consumer = invocation.getArgument(2);
+            consumer.accept(StockMovementResponse.builder()
+                    .id(1L).type("IN").productId(10L).productName("Vida, 5mm")
+                    .toLocationId(20L).toLocationCode("A-01-01").quantity(5)
+                    .movementDate(LocalDateTime.of(2024, 1, 2, 10, 0)).referenceNumber("PO-1")
+                    .build());
+            consumer.accept(StockMovementResponse.builder()
+                    .id(2L).type("OUT").productId(10L).productName("Somun \"M8\"")
+                    .fromLocationId(20L).fromLocationCode("A-01-01").quantity(2)
+                    .movementDate(LocalDateTime.of(2024, 1, 3, 11, 0)).referenceNumber("ORD-1")
+                    .build());
+            return null;
+        }).when(stockMovementJdbcRepository).streamByMovementDate(any(), any(), any());
+    }
+
+    @Test
+    void streamMovementReport_Ndjson_WritesOneObjectPerLine() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        reportService.streamMovementReport(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31),
+                ReportFormat.NDJSON, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("{\"id\":1,"));
+        assertTrue(lines[1].contains("\"movementDate\":\"2024-01-03T11:00:00\""));
+        verify(stockMovementRepository, never()).findByMovementDateRange(any(), any());
+        verify(stockMovementJdbcRepository).streamByMovementDate(eq(LocalDateTime.of(2024, 1, 1, 0, 0)),
+                eq(LocalDateTime.of(2024, 2, 1, 0, 0)), any());
+    }
+
+    @Test
+    void streamMovementReport_Csv_QuotesSpecialCharacters() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        reportService.streamMovementReport(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31),
+                ReportFormat.CSV, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(3, lines.length);
+        assertTrue(lines[0].startsWith("id,type,productId"));
+        assertEquals("1,IN,10,\"Vida, 5mm\",,,20,A-01-01,5,,2024-01-02T10:00,PO-1", lines[1]);
+        assertTrue(lines[2].contains(",\"Somun \"\"M8\"\"\","));
+    }
+}
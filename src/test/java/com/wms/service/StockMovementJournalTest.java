@@ -0,0 +1,108 @@
+package com.wms.service;
+
+import com.wms.enums.StockMovementType;
+import com.wms.repository.StockMovementJdbcRepository;
+import com.wms.repository.StockMovementJdbcRepository.NewMovement;
+import com.wms.repository.StockMovementJdbcRepository.OutboxBatch;
+import com.wms.repository.StockMovementJdbcRepository.OutboxPage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StockMovementJournalTest {
+
+    private static final NewMovement MOVEMENT =
+            new NewMovement(StockMovementType.TRANSFER, 1L, 1L, 2L, 5, "Transfer", null);
+
+    @Mock
+    private StockMovementJdbcRepository stockMovementJdbcRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private StockMovementJournal journal(int capacity) {
+        return new StockMovementJournal(stockMovementJdbcRepository, transactionManager, meterRegistry,
+                capacity, 1000, 0);
+    }
+
+    @Test
+    void recordAll_Committed_WritesOutboxAtCommitAndDrainsInOneMove() {
+        StockMovementJournal journal = journal(10);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            journal.record(MOVEMENT);
+            journal.recordAll(List.of(MOVEMENT, MOVEMENT));
+            verify(stockMovementJdbcRepository, never()).appendToOutbox(any());
+
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            synchronizations.forEach(sync -> sync.beforeCommit(false));
+            synchronizations.forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        verify(stockMovementJdbcRepository, times(2)).appendToOutbox(any());
+        assertEquals(2.0, meterRegistry.get("wms.stock.movement.journal.pending").gauge().value());
+
+        journal.drain();
+
+        verify(stockMovementJdbcRepository, times(1)).moveFromOutbox(argThat(batches ->
+                batches.size() == 2 && batches.get(1).movements().size() == 2));
+        assertEquals(0.0, meterRegistry.get("wms.stock.movement.journal.pending").gauge().value());
+    }
+
+    @Test
+    void recordAll_RolledBack_WritesNothing() {
+        StockMovementJournal journal = journal(10);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            journal.record(MOVEMENT);
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        journal.drain();
+
+        verify(stockMovementJdbcRepository, never()).appendToOutbox(any());
+        verify(stockMovementJdbcRepository, never()).moveFromOutbox(any());
+    }
+
+    @Test
+    void drain_BufferFull_RecoversSpilledBatchFromOutbox() {
+        StockMovementJournal journal = journal(1);
+        OutboxBatch spilled = new OutboxBatch(UUID.randomUUID(), LocalDateTime.now(), List.of(MOVEMENT));
+        when(stockMovementJdbcRepository.findOutboxBatches(0L, 1000)).thenReturn(new OutboxPage(List.of(spilled), 7L));
+        when(stockMovementJdbcRepository.findOutboxBatches(7L, 1000)).thenReturn(new OutboxPage(List.of(), 7L));
+
+        journal.record(MOVEMENT);
+        journal.record(MOVEMENT);
+
+        assertEquals(1.0, meterRegistry.get("wms.stock.movement.journal.spilled").counter().count());
+
+        journal.drain();
+
+        verify(stockMovementJdbcRepository, times(2)).appendToOutbox(any());
+        verify(stockMovementJdbcRepository).moveFromOutbox(List.of(spilled));
+        verify(stockMovementJdbcRepository, times(2)).moveFromOutbox(argThat(batches -> batches.size() == 1));
+    }
+}
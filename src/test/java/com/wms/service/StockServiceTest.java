@@ -1,22 +1,30 @@
 package com.wms.service;
 
+import com.wms.dto.request.StockAdjustmentRequest;
 import com.wms.dto.request.StockTransferRequest;
 import com.wms.entity.Inventory;
-import com.wms.entity.Location;
 import com.wms.entity.Product;
+import com.wms.enums.StockMovementType;
+import com.wms.exception.BusinessRuleException;
 import com.wms.exception.InsufficientStockException;
+import com.wms.metrics.SqlStatementCounter;
+import com.wms.metrics.StockOperationMetrics;
+import com.wms.repository.InventoryJdbcRepository;
 import com.wms.repository.InventoryRepository;
-import com.wms.repository.LocationRepository;
+import com.wms.repository.LocationJdbcRepository.LocationRef;
 import com.wms.repository.ProductRepository;
-import com.wms.repository.StockMovementRepository;
+import com.wms.repository.StockMovementJdbcRepository.NewMovement;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.Optional;
+import java.util.OptionalInt;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -28,48 +36,43 @@ class StockServiceTest {
     @Mock
     private InventoryRepository inventoryRepository;
 
+    @Mock
+    private InventoryJdbcRepository inventoryJdbcRepository;
+
     @Mock
     private ProductRepository productRepository;
 
     @Mock
-    private LocationRepository locationRepository;
+    private LocationTopology locationTopology;
+
+    @Mock
+    private AvailableToPromiseLedger atpLedger;
 
     @Mock
-    private StockMovementRepository stockMovementRepository;
+    private LowStockIndex lowStockIndex;
+
+    @Mock
+    private StockMovementJournal stockMovementJournal;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private StockOperationMetrics stockOperationMetrics =
+            new StockOperationMetrics(meterRegistry, new SqlStatementCounter(), 50);
 
     @InjectMocks
     private StockService stockService;
 
     private Product product;
-    private Location fromLocation;
-    private Location toLocation;
-    private Inventory fromInventory;
-    private Inventory toInventory;
+    private LocationRef fromLocation;
+    private LocationRef toLocation;
 
     @BeforeEach
     void setUp() {
         product = Product.builder().sku("PROD-001").name("Product 1").build();
         product.setId(1L);
-        fromLocation = Location.builder().code("A-01-01").build();
-        fromLocation.setId(1L);
-        toLocation = Location.builder().code("A-01-02").build();
-        toLocation.setId(2L);
-
-        fromInventory = Inventory.builder()
-                .product(product)
-                .location(fromLocation)
-                .quantity(100)
-                .reservedQuantity(0)
-                .build();
-        fromInventory.setId(1L);
-
-        toInventory = Inventory.builder()
-                .product(product)
-                .location(toLocation)
-                .quantity(50)
-                .reservedQuantity(0)
-                .build();
-        toInventory.setId(2L);
+        fromLocation = new LocationRef(1L, "A-01-01", null, null, null, null, 3L);
+        toLocation = new LocationRef(2L, "A-01-02", null, null, null, null, 3L);
     }
 
     @Test
@@ -83,17 +86,19 @@ class StockServiceTest {
                 .build();
 
         when(productRepository.findById(1L)).thenReturn(Optional.of(product));
-        when(locationRepository.findById(1L)).thenReturn(Optional.of(fromLocation));
-        when(locationRepository.findById(2L)).thenReturn(Optional.of(toLocation));
-        when(inventoryRepository.findByProductIdAndLocationId(1L, 1L)).thenReturn(Optional.of(fromInventory));
-        when(inventoryRepository.findByProductIdAndLocationId(1L, 2L)).thenReturn(Optional.of(toInventory));
+        when(locationTopology.findLocation(1L)).thenReturn(Optional.of(fromLocation));
+        when(locationTopology.findLocation(2L)).thenReturn(Optional.of(toLocation));
+        when(inventoryRepository.deductAvailable(1L, 1L, 20)).thenReturn(1);
 
         stockService.transferStock(request);
 
-        assertEquals(80, fromInventory.getQuantity());
-        assertEquals(70, toInventory.getQuantity());
-        verify(inventoryRepository, times(2)).save(any(Inventory.class));
-        verify(stockMovementRepository, times(1)).save(any());
+        verify(inventoryJdbcRepository).addOnHand(1L, 2L, 20);
+        verify(inventoryRepository, never()).save(any(Inventory.class));
+        verify(atpLedger).consume(1L, 1L, 20);
+        verify(stockMovementJournal).record(
+                new NewMovement(StockMovementType.TRANSFER, 1L, 1L, 2L, 20, "Transfer test", null));
+        assertEquals(1L, meterRegistry.get("wms.stock.operation")
+                .tags("operation", "transfer", "outcome", "success", "warehouse", "3").timer().count());
     }
 
     @Test
@@ -107,11 +112,48 @@ class StockServiceTest {
                 .build();
 
         when(productRepository.findById(1L)).thenReturn(Optional.of(product));
-        when(locationRepository.findById(1L)).thenReturn(Optional.of(fromLocation));
-        when(locationRepository.findById(2L)).thenReturn(Optional.of(toLocation));
-        when(inventoryRepository.findByProductIdAndLocationId(1L, 1L)).thenReturn(Optional.of(fromInventory));
+        when(locationTopology.findLocation(1L)).thenReturn(Optional.of(fromLocation));
+        when(locationTopology.findLocation(2L)).thenReturn(Optional.of(toLocation));
+        when(inventoryRepository.deductAvailable(1L, 1L, 150)).thenReturn(0);
 
         assertThrows(InsufficientStockException.class, () -> stockService.transferStock(request));
-        verify(inventoryRepository, never()).save(any(Inventory.class));
+        verify(inventoryJdbcRepository, never()).addOnHand(anyLong(), anyLong(), anyInt());
+        verify(stockMovementJournal, never()).record(any());
+        assertEquals(1L, meterRegistry.get("wms.stock.operation")
+                .tags("operation", "transfer", "outcome", "insufficient_stock").timer().count());
+    }
+
+    @Test
+    void adjustStock_BelowReserved_ThrowsException() {
+        StockAdjustmentRequest request = new StockAdjustmentRequest();
+        request.setProductId(1L);
+        request.setLocationId(1L);
+        request.setNewQuantity(5);
+
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+        when(locationTopology.findLocation(1L)).thenReturn(Optional.of(fromLocation));
+        when(inventoryJdbcRepository.setQuantity(1L, 1L, 5)).thenReturn(OptionalInt.empty());
+
+        assertThrows(BusinessRuleException.class, () -> stockService.adjustStock(request));
+        verify(stockMovementJournal, never()).record(any());
+    }
+
+    @Test
+    void adjustStock_Decrease_ConsumesFromLedger() {
+        StockAdjustmentRequest request = new StockAdjustmentRequest();
+        request.setProductId(1L);
+        request.setLocationId(1L);
+        request.setNewQuantity(60);
+
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+        when(locationTopology.findLocation(1L)).thenReturn(Optional.of(fromLocation));
+        when(inventoryJdbcRepository.setQuantity(1L, 1L, 60)).thenReturn(OptionalInt.of(100));
+
+        stockService.adjustStock(request);
+
+        verify(atpLedger).consume(1L, 1L, 40);
+        verify(stockMovementJournal).record(argThat(movement ->
+                movement.type() == StockMovementType.ADJUSTMENT && movement.quantity() == 40
+                        && Long.valueOf(1L).equals(movement.fromLocationId()) && movement.toLocationId() == null));
     }
-}
\ No newline at end of file
+}
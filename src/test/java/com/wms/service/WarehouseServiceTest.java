@@ -24,6 +24,9 @@ class WarehouseServiceTest {
     @Mock
     private WarehouseRepository warehouseRepository;
 
+    @Mock
+    private LocationTopology locationTopology;
+
     @InjectMocks
     private WarehouseService warehouseService;
 
@@ -49,6 +52,7 @@ class WarehouseServiceTest {
         assertNotNull(resp);
         assertEquals("W-1", resp.getCode());
         verify(warehouseRepository, times(1)).save(any(Warehouse.class));
+        verify(locationTopology).putWarehouse(warehouse);
     }
 
     @Test
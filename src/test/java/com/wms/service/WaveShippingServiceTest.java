@@ -0,0 +1,152 @@
+package com.wms.service;
+
+import com.wms.dto.response.WaveResponse;
+import com.wms.entity.ShippingWave;
+import com.wms.entity.Warehouse;
+import com.wms.enums.WaveStatus;
+import com.wms.exception.BusinessRuleException;
+import com.wms.metrics.SqlStatementCounter;
+import com.wms.repository.*;
+import com.wms.repository.InventoryJdbcRepository.ProductLocation;
+import com.wms.repository.OrderJdbcRepository.ShipmentLine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WaveShippingServiceTest {
+
+    @Mock
+    private ShippingWaveRepository shippingWaveRepository;
+
+    @Mock
+    private WarehouseRepository warehouseRepository;
+
+    @Mock
+    private OrderJdbcRepository orderJdbcRepository;
+
+    @Mock
+    private InventoryJdbcRepository inventoryJdbcRepository;
+
+    @Mock
+    private StockMovementJournal stockMovementJournal;
+
+    @Mock
+    private StockReservationJdbcRepository stockReservationJdbcRepository;
+
+    @Mock
+    private AvailableToPromiseLedger atpLedger;
+
+    @Mock
+    private LowStockIndex lowStockIndex;
+
+    @Mock
+    private DocumentNumberAllocator documentNumberAllocator;
+
+    private SimpleMeterRegistry meterRegistry;
+    private WaveShippingService waveShippingService;
+    private ShippingWave wave;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        waveShippingService = new WaveShippingService(shippingWaveRepository, warehouseRepository,
+                orderJdbcRepository, inventoryJdbcRepository, stockMovementJournal,
+                stockReservationJdbcRepository, atpLedger, lowStockIndex, new SqlStatementCounter(),
+                documentNumberAllocator, meterRegistry);
+
+        Warehouse warehouse = Warehouse.builder().code("WH-001").name("Main").build();
+        warehouse.setId(1L);
+        wave = ShippingWave.builder().waveNumber("WAVE-1").warehouse(warehouse).status(WaveStatus.PLANNED).build();
+        wave.setId(7L);
+    }
+
+    @Test
+    void planWaves_NumbersWavesFromWarehouseCounter() {
+        when(orderJdbcRepository.findWarehousesWithUnassignedReservedOrders()).thenReturn(List.of(1L));
+        when(documentNumberAllocator.next(DocumentNumberAllocator.WAVE, 1L)).thenReturn("WAVE-1-20261018-000001");
+        when(shippingWaveRepository.save(any(ShippingWave.class))).thenAnswer(invocation -> {
+            ShippingWave saved = invocation.getArgument(0);
+            saved.setId(8L);
+            return saved;
+        });
+        when(orderJdbcRepository.assignToWave(8L, 1L, 50)).thenReturn(12);
+
+        List<WaveResponse> waves = waveShippingService.planWaves(50);
+
+        assertEquals(1, waves.size());
+        assertEquals("WAVE-1-20261018-000001", waves.get(0).getWaveNumber());
+        assertEquals(12, waves.get(0).getOrderCount());
+    }
+
+    @Test
+    void shipWave_Success_AggregatesLinesIntoBulkStatements() {
+        when(shippingWaveRepository.findByIdForUpdate(7L)).thenReturn(Optional.of(wave));
+        when(orderJdbcRepository.lockReservedOrderIdsByWave(7L)).thenReturn(List.of(1L, 2L));
+        when(orderJdbcRepository.markShipped(List.of(1L, 2L))).thenReturn(2);
+        when(orderJdbcRepository.findShipmentLines(List.of(1L, 2L))).thenReturn(List.of(
+                new ShipmentLine(1L, "ORD-1", 10L, 20L, 3),
+                new ShipmentLine(2L, "ORD-2", 10L, 20L, 4),
+                new ShipmentLine(2L, "ORD-2", 11L, 20L, 1)));
+        when(inventoryJdbcRepository.deductShipped(any())).thenReturn(List.of());
+
+        WaveResponse response = waveShippingService.shipWave(7L);
+
+        assertEquals("SHIPPED", response.getStatus());
+        assertEquals(2, response.getOrderCount());
+        assertEquals(3, response.getLineCount());
+        verify(atpLedger).flush();
+        verify(inventoryJdbcRepository).deductShipped(Map.of(
+                new ProductLocation(10L, 20L), 7L,
+                new ProductLocation(11L, 20L), 1L));
+        verify(stockMovementJournal).recordAll(argThat(movements -> movements.size() == 3));
+        verify(stockReservationJdbcRepository).releaseByOrderIds(List.of(1L, 2L));
+        assertEquals(1L, meterRegistry.get("wms.wave.ship").timer().count());
+        assertEquals(2.0, meterRegistry.get("wms.wave.orders").summary().totalAmount());
+        assertEquals(1L, meterRegistry.get("wms.wave.statements").summary().count());
+    }
+
+    @Test
+    void shipWave_AlreadyShipped_ThrowsException() {
+        wave.setStatus(WaveStatus.SHIPPED);
+        when(shippingWaveRepository.findByIdForUpdate(7L)).thenReturn(Optional.of(wave));
+
+        assertThrows(BusinessRuleException.class, () -> waveShippingService.shipWave(7L));
+        verify(inventoryJdbcRepository, never()).deductShipped(any());
+    }
+
+    @Test
+    void shipWave_MissingInventory_ThrowsException() {
+        when(shippingWaveRepository.findByIdForUpdate(7L)).thenReturn(Optional.of(wave));
+        when(orderJdbcRepository.lockReservedOrderIdsByWave(7L)).thenReturn(List.of(1L));
+        when(orderJdbcRepository.markShipped(List.of(1L))).thenReturn(1);
+        when(orderJdbcRepository.findShipmentLines(List.of(1L)))
+                .thenReturn(List.of(new ShipmentLine(1L, "ORD-1", 10L, 20L, 3)));
+        when(inventoryJdbcRepository.deductShipped(any())).thenReturn(List.of(new ProductLocation(10L, 20L)));
+
+        assertThrows(BusinessRuleException.class, () -> waveShippingService.shipWave(7L));
+        verify(stockMovementJournal, never()).recordAll(anyList());
+        verify(stockReservationJdbcRepository, never()).releaseByOrderIds(any());
+    }
+
+    @Test
+    void shipOrders_OrderNoLongerReserved_FailsBeforeTouchingInventory() {
+        when(orderJdbcRepository.markShipped(List.of(1L, 2L))).thenReturn(1);
+
+        assertThrows(BusinessRuleException.class, () -> waveShippingService.shipOrders(List.of(1L, 2L), "Shipped"));
+        verify(inventoryJdbcRepository, never()).deductShipped(any());
+        verify(stockMovementJournal, never()).recordAll(anyList());
+    }
+}
@@ -0,0 +1,53 @@
+-- Tables used only through plain JDBC have no JPA entity, so ddl-auto does not create them in the H2 test
+-- database. They mirror the Flyway migrations (V15, V17, V18, V19), which own them in PostgreSQL.
+-- IF NOT EXISTS: the in-memory database outlives a Spring context, and every context runs this script.
+
+CREATE TABLE IF NOT EXISTS stock_movement_outbox (
+                                       id BIGSERIAL PRIMARY KEY,
+                                       batch_id UUID NOT NULL,
+                                       type VARCHAR(20) NOT NULL,
+                                       product_id BIGINT NOT NULL,
+                                       from_location_id BIGINT,
+                                       to_location_id BIGINT,
+                                       quantity INTEGER NOT NULL,
+                                       reason VARCHAR(500),
+                                       reference_number VARCHAR(100),
+                                       movement_date TIMESTAMP NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_stock_movement_outbox_batch ON stock_movement_outbox(batch_id);
+
+CREATE TABLE IF NOT EXISTS idempotency_keys (
+                                  scope VARCHAR(150) NOT NULL,
+                                  idempotency_key VARCHAR(255) NOT NULL,
+                                  request_hash BYTEA NOT NULL,
+                                  response TEXT,
+                                  created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+                                  PRIMARY KEY (scope, idempotency_key)
+);
+
+CREATE TABLE IF NOT EXISTS document_number_blocks (
+                                        prefix VARCHAR(10) NOT NULL,
+                                        warehouse_id BIGINT NOT NULL,
+                                        business_date DATE NOT NULL,
+                                        next_value BIGINT NOT NULL,
+                                        PRIMARY KEY (prefix, warehouse_id, business_date)
+);
+
+CREATE TABLE IF NOT EXISTS inventory_snapshots (
+                                     id BIGSERIAL PRIMARY KEY,
+                                     taken_at TIMESTAMP NOT NULL,
+                                     created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_inventory_snapshots_taken_at ON inventory_snapshots(taken_at);
+
+CREATE TABLE IF NOT EXISTS inventory_snapshot_lines (
+                                          snapshot_id BIGINT NOT NULL,
+                                          product_id BIGINT NOT NULL,
+                                          location_id BIGINT NOT NULL,
+                                          quantity BIGINT NOT NULL,
+                                          PRIMARY KEY (snapshot_id, product_id, location_id),
+                                          CONSTRAINT fk_inventory_snapshot_lines_snapshot
+                                              FOREIGN KEY (snapshot_id) REFERENCES inventory_snapshots(id) ON DELETE CASCADE
+);